@@ -0,0 +1,69 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * A minimal micro-benchmark harness for the benchmarks in src/bench.
+ *
+ * JMH cannot be used here because it requires benchmark classes to be
+ * in a named package, and the application classes are in the default
+ * package. Each measurement warms the operation up, then reports the
+ * average time and the bytes allocated per invocation.
+ */
+public abstract class Bench {
+
+    // keeps the results of the benchmarked operations alive
+    private static volatile long sink;
+
+    /**
+     * An operation to be measured. The returned value is consumed so the
+     * JIT compiler cannot remove the work.
+     */
+    public interface Operation {
+        long run();
+    }
+
+    /**
+     * Measure an operation and print the result.
+     * @param name The name printed next to the result.
+     * @param invocations The number of invocations per round.
+     * @param operation The operation to measure.
+     */
+    public static void measure(String name, int invocations, Operation operation) {
+        // warm up
+        for (int round = 0; round < 5; round++) {
+            runRound(invocations, operation);
+        }
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        int rounds = 10;
+        for (int round = 0; round < rounds; round++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            runRound(invocations, operation);
+            long elapsed = System.nanoTime() - start;
+            allocated += allocatedBytes() - bytesBefore;
+            best = Math.min(best, elapsed);
+        }
+        System.out.println(String.format(Locale.ROOT, "%-45s %14.1f ns/op %12.1f B/op",
+                name, best / (double) invocations, allocated / (double) rounds / invocations));
+    }
+
+    private static void runRound(int invocations, Operation operation) {
+        long result = 0;
+        for (int i = 0; i < invocations; i++) {
+            result += operation.run();
+        }
+        sink += result;
+    }
+
+    /**
+     * @return The bytes allocated by the current thread so far, or 0 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Random;
+
+/**
+ * Compares the distances from one point to many coordinates calculated one
+ * at a time with Distance.calculateDistance against the batches of
+ * Distance.Points, in both modes. Every invocation measures from one of a
+ * few points around London, and the error of the fast mode is printed.
+ */
+public class DistanceBenchmark {
+
+    private static final int SIZE = 10_000;
+    // the points the distances are measured from, as latitude and longitude pairs
+    private static final double[][] POINTS = {{51.5074, -0.1277}, {51.5014, -0.1419}, {51.5194, -0.1270}, {51.4700, -0.4543}};
+
+    private static double[] latitudes;
+    private static double[] longitudes;
+    private static Distance.Points points;
+    private static double[] distances;
+    private static int point;
+
+    public static void main(String[] args) {
+        setUp();
+        Bench.measure("calculateDistance, " + SIZE + " points", 2_000, DistanceBenchmark::single);
+        Bench.measure("batch exact, " + SIZE + " points", 2_000, () -> batch(Distance.Mode.EXACT));
+        Bench.measure("batch fast, " + SIZE + " points", 2_000, () -> batch(Distance.Mode.FAST));
+        Bench.measure("calculateDistances, " + SIZE + " points", 2_000, DistanceBenchmark::unprepared);
+        printError();
+    }
+
+    private static void setUp() {
+        Random random = new Random(42);
+        latitudes = new double[SIZE];
+        longitudes = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            latitudes[i] = 51.3 + random.nextDouble() * 0.4;
+            longitudes[i] = -0.5 + random.nextDouble() * 0.7;
+        }
+        points = new Distance.Points(latitudes, longitudes);
+        distances = new double[SIZE];
+    }
+
+    private static long single() {
+        double[] from = POINTS[point++ % POINTS.length];
+        long within = 0;
+        for (int i = 0; i < SIZE; i++) {
+            distances[i] = Distance.calculateDistance(latitudes[i], longitudes[i], from[0], from[1]);
+        }
+        for (double distance : distances) {
+            within += distance <= 1 ? 1 : 0;
+        }
+        return within;
+    }
+
+    private static long batch(Distance.Mode mode) {
+        double[] from = POINTS[point++ % POINTS.length];
+        long within = 0;
+        points.distances(from[0], from[1], mode, distances);
+        for (double distance : distances) {
+            within += distance <= 1 ? 1 : 0;
+        }
+        return within;
+    }
+
+    /**
+     * A batch which also converts the coordinates, as for a list used once.
+     */
+    private static long unprepared() {
+        double[] from = POINTS[point++ % POINTS.length];
+        long within = 0;
+        for (double distance : Distance.calculateDistances(latitudes, longitudes, from[0], from[1], Distance.Mode.EXACT)) {
+            within += distance <= 1 ? 1 : 0;
+        }
+        return within;
+    }
+
+    private static void printError() {
+        double[] exact = new double[SIZE];
+        double[] fast = new double[SIZE];
+        double maxError = 0;
+        double maxRelativeError = 0;
+        for (double[] from : POINTS) {
+            points.distances(from[0], from[1], Distance.Mode.EXACT, exact);
+            points.distances(from[0], from[1], Distance.Mode.FAST, fast);
+            for (int i = 0; i < SIZE; i++) {
+                double error = Math.abs(fast[i] - exact[i]);
+                maxError = Math.max(maxError, error);
+                if (exact[i] > 0.1) {
+                    maxRelativeError = Math.max(maxRelativeError, error / exact[i]);
+                }
+            }
+        }
+        System.out.printf("fast mode: max error %.4f km, max relative error %.5f%%%n", maxError, maxRelativeError * 100);
+    }
+}
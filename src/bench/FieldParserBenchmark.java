@@ -0,0 +1,99 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the primitive field parsers with the String based conversions
+ * DataLoader used before. Every invocation parses the 8 numeric columns
+ * of one row.
+ */
+public class FieldParserBenchmark {
+
+    private static final int ROWS = 1024;
+
+    // the numeric columns of each row as they appear in the file
+    private static byte[][] decimalBytes;
+    private static byte[][] integerBytes;
+    private static int row;
+
+    public static void main(String[] args) {
+        setUp();
+        Bench.measure("FieldParser (bytes to primitives)", 100_000, FieldParserBenchmark::fieldParser);
+        Bench.measure("legacy conversion (String to boxed)", 100_000, FieldParserBenchmark::legacyConversion);
+    }
+
+    private static void setUp() {
+        Random random = new Random(42);
+        decimalBytes = new byte[ROWS * 3][];
+        integerBytes = new byte[ROWS * 5][];
+        for (int i = 0; i < ROWS; i++) {
+            String[] decimals = {
+                    String.format(Locale.ROOT, "%.8f", 51.3 + random.nextDouble() * 0.4),
+                    String.format(Locale.ROOT, "%.9f", -0.5 + random.nextDouble() * 0.7),
+                    random.nextInt(10) == 0 ? "" : String.format(Locale.ROOT, "%.2f", random.nextDouble() * 5)
+            };
+            String[] integers = {
+                    Integer.toString(10 + random.nextInt(500)),
+                    Integer.toString(1 + random.nextInt(30)),
+                    Integer.toString(random.nextInt(300)),
+                    Integer.toString(1 + random.nextInt(50)),
+                    Integer.toString(random.nextInt(366))
+            };
+            for (int j = 0; j < 3; j++) {
+                decimalBytes[i * 3 + j] = decimals[j].getBytes(StandardCharsets.US_ASCII);
+            }
+            for (int j = 0; j < 5; j++) {
+                integerBytes[i * 5 + j] = integers[j].getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    private static long fieldParser() {
+        int r = row++ & (ROWS - 1);
+        double result = 0;
+        for (int j = 0; j < 3; j++) {
+            byte[] field = decimalBytes[r * 3 + j];
+            result += FieldParser.parseDouble(field, 0, field.length);
+        }
+        for (int j = 0; j < 5; j++) {
+            byte[] field = integerBytes[r * 5 + j];
+            result += FieldParser.parseInt(field, 0, field.length);
+        }
+        return (long) result;
+    }
+
+    private static long legacyConversion() {
+        int r = row++ & (ROWS - 1);
+        double result = 0;
+        // the csv reader created a String per field before the conversion
+        for (int j = 0; j < 3; j++) {
+            String field = new String(decimalBytes[r * 3 + j], StandardCharsets.UTF_8);
+            result += convertDouble(field);
+        }
+        for (int j = 0; j < 5; j++) {
+            String field = new String(integerBytes[r * 5 + j], StandardCharsets.UTF_8);
+            result += convertInt(field);
+        }
+        return (long) result;
+    }
+
+    /**
+     * The former DataLoader.convertDouble.
+     */
+    private static Double convertDouble(String doubleString) {
+        if (doubleString != null && !doubleString.trim().equals("")) {
+            return Double.parseDouble(doubleString);
+        }
+        return -1.0;
+    }
+
+    /**
+     * The former DataLoader.convertInt.
+     */
+    private static Integer convertInt(String intString) {
+        if (intString != null && !intString.trim().equals("")) {
+            return Integer.parseInt(intString);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Reports the heap taken by a ListingTable, and what the dictionary
+ * encoded columns (neighbourhood, room type, host id and host name) and
+ * the date of the last review would take as a String per row, as they
+ * were stored before.
+ *
+ * Run with the path of a listings csv file to measure it, or without
+ * arguments to measure 85000 generated listings, about the size of the
+ * London dataset.
+ */
+public class ListingFootprint {
+
+    private static final int SIZE = 85_000;
+
+    public static void main(String[] args) throws IOException {
+        Path csvFile = args.length > 0 ? Paths.get(args[0]) : generate();
+
+        long before = usedHeap();
+        ListingTable table = new ListingIngester().ingest(csvFile);
+        long tableBytes = usedHeap() - before;
+
+        before = usedHeap();
+        String[][] rowStrings = rowStrings(table);
+        long stringBytes = usedHeap() - before;
+        // the codes and day numbers which replace the strings: one int each per row
+        long codeBytes = 5L * 4 * table.size();
+
+        // both are still used here, so neither is collected while measured
+        System.out.println(String.format(Locale.ROOT, "%d listings, table %.1f MB", table.size(), tableBytes / 1e6));
+        System.out.println(String.format(Locale.ROOT,
+                "encoded columns of %d rows: %.1f MB as strings per row, %.1f MB as codes and day numbers, %.1f MB saved",
+                rowStrings[0].length, stringBytes / 1e6, codeBytes / 1e6, (stringBytes - codeBytes) / 1e6));
+    }
+
+    /**
+     * The five columns as a String per row, each a copy of its own.
+     */
+    private static String[][] rowStrings(ListingTable table) {
+        String[][] columns = new String[5][table.size()];
+        for (int row = 0; row < table.size(); row++) {
+            columns[0][row] = new String(table.getNeighbourhood(row));
+            columns[1][row] = new String(table.getRoomType(row));
+            columns[2][row] = new String(table.getHostId(row));
+            columns[3][row] = new String(table.getHostName(row));
+            columns[4][row] = table.getLastReview(row);
+        }
+        return columns;
+    }
+
+    private static Path generate() throws IOException {
+        Random random = new Random(42);
+        String[] roomTypes = {"Entire home/apt", "Private room", "Shared room"};
+        String[] hostNames = {"Alex", "Sam", "Maria", "Anas", "Hannah", "Dafina", "James", "Olivia", "Tom", "Sophie"};
+        StringBuilder csv = new StringBuilder("id,name,host_id,host_name,neighbourhood,latitude,longitude,"
+                + "room_type,price,minimum_nights,number_of_reviews,last_review,reviews_per_month,"
+                + "calculated_host_listings_count,availability_365\n");
+        for (int i = 0; i < SIZE; i++) {
+            csv.append(10_000_000 + i).append(",Listing ").append(i).append(',')
+                    .append(1_000_000 + random.nextInt(SIZE / 2)).append(',')
+                    .append(hostNames[random.nextInt(hostNames.length)]).append(",Borough ").append(random.nextInt(33))
+                    .append(',').append(51.3 + random.nextDouble() * 0.4).append(',').append(-0.5 + random.nextDouble() * 0.7)
+                    .append(',').append(roomTypes[random.nextInt(roomTypes.length)]).append(',')
+                    .append(10 + random.nextInt(300)).append(',').append(1 + random.nextInt(7)).append(',')
+                    .append(random.nextInt(300)).append(',')
+                    .append(String.format(Locale.ROOT, "%02d/%02d/20%02d", 1 + random.nextInt(28), 1 + random.nextInt(12),
+                            12 + random.nextInt(8)))
+                    .append(",0.5,1,").append(random.nextInt(366)).append('\n');
+        }
+        Path file = Files.createTempFile("listings", ".csv");
+        file.toFile().deleteOnExit();
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares showing the first page of a 100k listing borough sorted by
+ * price, by sorting the whole list with Sorter and by a PagedOrdering,
+ * and the cost of turning forwards through the first ten pages.
+ */
+public class PagedOrderingBenchmark {
+
+    private static final int SIZE = 100_000;
+    private static final int PAGE_SIZE = 32;
+
+    private static List<Listing> listings;
+    private static boolean ascending;
+
+    public static void main(String[] args) {
+        setUp();
+        Bench.measure("full sort, first page", 50, PagedOrderingBenchmark::fullSort);
+        Bench.measure("paged ordering, first page", 50, PagedOrderingBenchmark::firstPage);
+        Bench.measure("paged ordering, first ten pages", 50, PagedOrderingBenchmark::tenPages);
+    }
+
+    private static void setUp() {
+        Random random = new Random(42);
+        ListingTable.Builder builder = new ListingTable.Builder(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            int price = 10 + (int) (Math.abs(random.nextGaussian()) * 120);
+            builder.add(Integer.toString(i), "Listing " + i, Integer.toString(random.nextInt(SIZE / 2)),
+                    "Host", "Westminster", 51.3 + random.nextDouble() * 0.4, -0.5 + random.nextDouble() * 0.7,
+                    "Private room", price, 1 + random.nextInt(7), random.nextInt(300), "2019-06-01",
+                    random.nextDouble() * 5, 1, random.nextInt(366));
+        }
+        listings = new ArrayList<>(builder.build().rows());
+    }
+
+    private static long fullSort() {
+        return Sorter.sortByPrice(listings, ascending = !ascending).subList(0, PAGE_SIZE).size();
+    }
+
+    private static long firstPage() {
+        return new PagedOrdering(listings, SortIndex.Key.PRICE, ascending = !ascending, PAGE_SIZE).getPage(0).size();
+    }
+
+    private static long tenPages() {
+        PagedOrdering ordering = new PagedOrdering(listings, SortIndex.Key.PRICE, ascending = !ascending, PAGE_SIZE);
+        long total = 0;
+        for (int page = 0; page < 10; page++) {
+            total += ordering.getPage(page).size();
+        }
+        return total;
+    }
+}
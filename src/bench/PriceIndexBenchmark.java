@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares filtering by price with a scan of the dataset, as
+ * DataSet.filterPrice did before, against the binary search of a
+ * PriceIndex. Every invocation filters to one of a few price ranges.
+ */
+public class PriceIndexBenchmark {
+
+    // the price ranges filtered to, as minimum and maximum pairs
+    private static final int[][] RANGES = {{0, 100}, {50, 150}, {100, 500}, {20, 60}, {0, 10000}};
+
+    private static ListingTable table;
+    private static PriceIndex index;
+    private static int range;
+
+    public static void main(String[] args) {
+        for (int size : new int[]{10_000, 100_000, 1_000_000}) {
+            setUp(size);
+            int scanInvocations = Math.max(10, 20_000_000 / size);
+            Bench.measure("scan, " + size + " listings", scanInvocations, PriceIndexBenchmark::scan);
+            Bench.measure("index, " + size + " listings", 100_000, PriceIndexBenchmark::index);
+        }
+    }
+
+    private static void setUp(int size) {
+        Random random = new Random(42);
+        String[] neighbourhoods = {"Westminster", "Camden", "Hackney", "Islington", "Lambeth"};
+        String[] roomTypes = {"Entire home/apt", "Private room", "Shared room"};
+        ListingTable.Builder builder = new ListingTable.Builder(size);
+        for (int i = 0; i < size; i++) {
+            // roughly the skewed distribution of the london prices
+            int price = 10 + (int) (Math.abs(random.nextGaussian()) * 120);
+            builder.add(Integer.toString(i), "Listing " + i, Integer.toString(random.nextInt(size / 2 + 1)),
+                    "Host", neighbourhoods[random.nextInt(neighbourhoods.length)],
+                    51.3 + random.nextDouble() * 0.4, -0.5 + random.nextDouble() * 0.7,
+                    roomTypes[random.nextInt(roomTypes.length)], price, 1 + random.nextInt(7),
+                    random.nextInt(300), "2019-06-01", random.nextDouble() * 5, 1, random.nextInt(366));
+        }
+        table = builder.build();
+        index = new PriceIndex(table);
+    }
+
+    /**
+     * The former DataSet.filterPrice.
+     */
+    private static long scan() {
+        int[] bounds = RANGES[range++ % RANGES.length];
+        List<Listing> filtered = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            int price = table.getPrice(row);
+            if (price >= bounds[0] && price <= bounds[1]) {
+                filtered.add(table.get(row));
+            }
+        }
+        return filtered.size();
+    }
+
+    private static long index() {
+        int[] bounds = RANGES[range++ % RANGES.length];
+        return index.range(bounds[0], bounds[1]).size();
+    }
+}
@@ -0,0 +1,60 @@
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures creating 1000 snippets of each template through SnippetFactory,
+ * and prints the average time the factory recorded per template.
+ *
+ * The JavaFX toolkit has to be started, so this needs a display.
+ */
+public class SnippetFactoryBenchmark {
+
+    private static final int SNIPPETS = 1000;
+
+    private static final Listing LISTING = new Listing("15896822", "Double room in newly refurbished flat",
+            "69018624", "Dafina", "Kingston upon Thames", 51.41003566, -0.306322953, "Private room",
+            23, 7, 1, "03/12/2016", 0.32, 1, 61);
+
+    public static void main(String[] args) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.startup(() -> {
+            try {
+                Bench.measure("1000 property snippets", 1, SnippetFactoryBenchmark::createPropertySnippets);
+                Bench.measure("1000 comparison property snippets", 1,
+                        SnippetFactoryBenchmark::createComparisonPropertySnippets);
+                Bench.measure("1000 statistics snippets", 1, SnippetFactoryBenchmark::createStatisticsSnippets);
+                SnippetFactory.report();
+            }
+            finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+
+    private static long createPropertySnippets() {
+        long count = 0;
+        for (int i = 0; i < SNIPPETS; i++) {
+            count += SnippetFactory.createPropertySnippet(null).getChildren().size();
+        }
+        return count;
+    }
+
+    private static long createComparisonPropertySnippets() {
+        long count = 0;
+        for (int i = 0; i < SNIPPETS; i++) {
+            count += SnippetFactory.createComparisonPropertySnippet(LISTING, 12.5, null).getChildren().size();
+        }
+        return count;
+    }
+
+    private static long createStatisticsSnippets() {
+        long count = 0;
+        for (int i = 0; i < SNIPPETS; i++) {
+            count += SnippetFactory.createStatisticsSnippet().getPane().getChildren().size();
+        }
+        return count;
+    }
+}
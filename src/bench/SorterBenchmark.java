@@ -0,0 +1,87 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares every Sorter method against the comparator sort it used before,
+ * on the whole dataset and on a borough sized part of it. The methods are
+ * given a plain list, which is radix sorted on keys read from the listings,
+ * and a list of table rows, which is sorted through the SortIndex of the
+ * table; the first invocation of the latter computes the ordering.
+ */
+public class SorterBenchmark {
+
+    private static final int SIZE = 100_000;
+    // roughly the share of the listings in one of the 33 boroughs
+    private static final int BOROUGH_SIZE = SIZE / 33;
+
+    private static ListingRows allRows;
+    private static ListingRows boroughRows;
+    private static List<Listing> allList;
+    private static List<Listing> boroughList;
+    private static boolean ascending;
+
+    public static void main(String[] args) {
+        setUp();
+        benchmark("sortByPrice", Sorter::sortByPrice, Listing::getPrice);
+        benchmark("sortByMinimumPrice", Sorter::sortByMinimumPrice, Listing::getMinimumPrice);
+        benchmark("sortByMinNights", Sorter::sortByMinNights, Listing::getMinimumNights);
+        benchmark("sortByReviews", Sorter::sortByReviews, Listing::getNumberOfReviews);
+        benchmark("sortByHostName", Sorter::sortByHostName, Listing::getHost_name);
+        benchmark("sortByHostID", Sorter::sortByHostID, Listing::getHost_id);
+        benchmark("sortByNeighbourhood", Sorter::sortByNeighbourhood, Listing::getNeighbourhood);
+    }
+
+    private static void setUp() {
+        Random random = new Random(42);
+        String[] neighbourhoods = {"Westminster", "Camden", "Hackney", "Islington", "Lambeth"};
+        String[] roomTypes = {"Entire home/apt", "Private room", "Shared room"};
+        String[] hostNames = new String[5000];
+        for (int i = 0; i < hostNames.length; i++) {
+            hostNames[i] = "Host " + Integer.toString(random.nextInt(1 << 20), 36);
+        }
+        ListingTable.Builder builder = new ListingTable.Builder(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            int price = 10 + (int) (Math.abs(random.nextGaussian()) * 120);
+            builder.add(Integer.toString(i), "Listing " + i, Integer.toString(random.nextInt(SIZE / 2) * 97),
+                    hostNames[random.nextInt(hostNames.length)], neighbourhoods[random.nextInt(neighbourhoods.length)],
+                    51.3 + random.nextDouble() * 0.4, -0.5 + random.nextDouble() * 0.7,
+                    roomTypes[random.nextInt(roomTypes.length)], price, 1 + random.nextInt(30),
+                    random.nextInt(300), "2019-06-01", random.nextDouble() * 5, 1, random.nextInt(366));
+        }
+        ListingTable table = builder.build();
+        allRows = table.rows();
+        int[] borough = new int[BOROUGH_SIZE];
+        for (int i = 0; i < BOROUGH_SIZE; i++) {
+            borough[i] = i * 33;
+        }
+        boroughRows = new ListingRows(table, borough, 0, BOROUGH_SIZE);
+        allList = new ArrayList<>(allRows);
+        boroughList = new ArrayList<>(boroughRows);
+    }
+
+    private static <T extends Comparable<T>> void benchmark(String name, BiFunction<List<Listing>, Boolean, List<Listing>> method,
+                                                            Function<Listing, T> attribute) {
+        Bench.measure(name + ", comparator, all", 20, () -> comparatorSort(allList, attribute));
+        Bench.measure(name + ", list, all", 100, () -> method.apply(allList, ascending = !ascending).size());
+        Bench.measure(name + ", rows, all", 2_000, () -> method.apply(allRows, ascending = !ascending).size());
+        Bench.measure(name + ", comparator, borough", 1_000, () -> comparatorSort(boroughList, attribute));
+        Bench.measure(name + ", list, borough", 1_000, () -> method.apply(boroughList, ascending = !ascending).size());
+        Bench.measure(name + ", rows, borough", 1_000, () -> method.apply(boroughRows, ascending = !ascending).size());
+    }
+
+    /**
+     * The former Sorter methods.
+     */
+    private static <T extends Comparable<T>> long comparatorSort(List<Listing> listings, Function<Listing, T> attribute) {
+        ascending = !ascending;
+        Comparator<Listing> comparator = Comparator.comparing(attribute);
+        return listings.stream()
+                .sorted(ascending ? comparator : comparator.reversed())
+                .collect(Collectors.toList()).size();
+    }
+}
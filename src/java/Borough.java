@@ -1,5 +1,7 @@
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
 
 /**
  * Represents a Borough of London in our implementation of
@@ -12,7 +14,9 @@ public class Borough {
     private String name;
     // how many listings from the dataset are in this borough
     private int listingCount;
-    // the listings from the dataset which are in this borough
+    // finds the listings from the dataset which are in this borough
+    private Supplier<List<Listing>> listingSource;
+    // the listings from the dataset which are in this borough, null until they are asked for
     private List<Listing> listings;
 
     /**
@@ -23,20 +27,38 @@ public class Borough {
     public Borough(String name) {
         this.name = name;
         listingCount = 0;
-        listings = new ArrayList<>();
+        listingSource = Collections::emptyList;
     }
 
     /**
-     * Increment the number of listings in the borough.
+     * Get the id of a borough, which names its path on the map.
+     * @param name The name of the borough, for example "City of London".
+     * @return The id of the borough, for example "city_of_london".
      */
-    public void addCount() {
-        listingCount += 1;
+    public static String getId(String name) {
+        return name.replace(' ', '_').toLowerCase(Locale.ROOT);
     }
 
     /**
-     * Add a listing to the listings in the borough.
+     * Set the number of listings in the borough, leaving the listings as
+     * they are. The count is read off the histograms of the dataset, so it
+     * can be shown before the listings are found.
+     * @param count The number of listings in the borough.
      */
-    public void addListing(Listing listing) { listings.add(listing); }
+    public void setCount(int count) {
+        listingCount = count;
+    }
+
+    /**
+     * Replace the listings in the borough, leaving the count as it is.
+     * The listings are only found when they are first asked for, so a
+     * change of the price range copies none of them.
+     * @param listingSource Finds the listings in the borough.
+     */
+    public void setListings(Supplier<List<Listing>> listingSource) {
+        this.listingSource = listingSource;
+        listings = null;
+    }
 
     /**
      * Accessor method for the name of the borough.
@@ -58,13 +80,19 @@ public class Borough {
      * Accessor method for the list of listings in the borough.
      * @return List of listings in the borough.
      */
-    public List<Listing> getListings() { return listings; }
+    public List<Listing> getListings() {
+        if (listings == null) {
+            listings = listingSource.get();
+        }
+        return listings;
+    }
 
     /**
      * Clear the borough of all contained information except it's name.
      */
     public void clear() {
         listingCount = 0;
-        listings.clear();
+        listingSource = Collections::emptyList;
+        listings = null;
     }
 }
@@ -8,9 +8,6 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * This class allows to control a comparison pane.
  * It allows to add or remove properties to the comparison list,
@@ -26,8 +23,12 @@ public class ComparisonController {
     @FXML CheckBox priceCheckBox;
     @FXML CheckBox nightsCheckBox;
 
+    // the coordinates of Central London, which distances are measured from
+    private static final double CENTRE_LATITUDE = 51.5074;
+    private static final double CENTRE_LONGITUDE = -0.1277;
+
     // a list of properties to compare
-    private List<Listing> properties = new ArrayList<>();
+    private ListingSet properties = new ListingSet();
     HBox hbox = new HBox();
 
 
@@ -58,7 +59,7 @@ public class ComparisonController {
      * @param listing Single listing to add to compare view.
      */
     public void addProperty(Listing listing){
-        if(checkIfRepeated(listing.getId())){
+        if(checkIfRepeated(listing)){
             Alert alert = new Alert(Alert.AlertType.WARNING);
             alert.setTitle("Warning Dialog");
             alert.setHeaderText("It seems that you are already comparing this property!");
@@ -96,12 +97,15 @@ public class ComparisonController {
         // properties with below parameters
         // will be highlighted
         int minPrice = getMinPrice();
-        double minDistance = getMinDistance();
+        double[] distances = getDistances();
+        double minDistance = getMinDistance(distances);
         int minNights = getMinNights();
 
         // fills the pane
-        for (Listing property : properties) {
-            ComparisonPropertySnippet newSnippet = new ComparisonPropertySnippet(property, this);
+        for (int i = 0; i < properties.size(); i++) {
+            Listing property = properties.get(i);
+            double distance = distances[i];
+            ComparisonPropertySnippet newSnippet = SnippetFactory.createComparisonPropertySnippet(property, distance, this);
 
             if (property.getPrice() == minPrice) {
                 newSnippet.setPriceGreen();
@@ -109,7 +113,6 @@ public class ComparisonController {
             if (property.getMinimumNights() == minNights) {
                 newSnippet.setNightsGreen();
             }
-            double distance = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277);
             if (distance == minDistance){
                 newSnippet.setDistanceGreen();
             }
@@ -131,12 +134,7 @@ public class ComparisonController {
      * @param listing Property to remove.
      */
     public void removeProperty(Listing listing){
-        for (Listing property : properties) {
-            if (listing.equals(property)) {
-                properties.remove(property);
-                break;
-            }
-        }
+        properties.remove(listing);
         if(properties.isEmpty()){
             stackPane.getChildren().get(1).toFront();
             // sets the empty list view
@@ -152,16 +150,11 @@ public class ComparisonController {
     /**
      * Check if a new property is already on the list of compared properties.
      * Helps to avoid repetitions.
-     * @param propertyID ID of an added new property.
+     * @param listing An added new property.
      * @return True if a property is already on the comparison list.
      */
-    public boolean checkIfRepeated(String propertyID){
-        for(Listing property : properties){
-            if(property.getId().equals(propertyID)){
-                return true;
-            }
-        }
-        return false;
+    public boolean checkIfRepeated(Listing listing){
+        return properties.contains(listing);
     }
 
     /**
@@ -179,13 +172,13 @@ public class ComparisonController {
     }
 
     /**
-     * @return minDistance Minimum distance to Central London of properties on the list.
+     * @param distances The distances of the properties on the list.
+     * @return minDistance The smallest of the distances.
      */
-    public double getMinDistance()
+    private static double getMinDistance(double[] distances)
     {
-        double minDistance = Distance.calculateDistance(properties.get(0).getLatitude(), properties.get(0).getLongitude(), 51.5074, -0.1277);
-        for (Listing property : properties) {
-            double distance = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277);
+        double minDistance = distances[0];
+        for (double distance : distances) {
             if (distance < minDistance) {
                 minDistance = distance;
             }
@@ -193,6 +186,21 @@ public class ComparisonController {
         return minDistance;
     }
 
+    /**
+     * Calculates the distances to Central London of all the properties in one batch.
+     * @return The distances in kilometres, in the order of the list.
+     */
+    private double[] getDistances()
+    {
+        double[] latitudes = new double[properties.size()];
+        double[] longitudes = new double[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            latitudes[i] = properties.get(i).getLatitude();
+            longitudes[i] = properties.get(i).getLongitude();
+        }
+        return Distance.calculateDistances(latitudes, longitudes, CENTRE_LATITUDE, CENTRE_LONGITUDE, Distance.Mode.EXACT);
+    }
+
     /**
      * @return minNights Minimum nights of properties on the list.
      */
@@ -221,6 +229,7 @@ public class ComparisonController {
         // by default the first property on the list is Best Match
         Listing bestMatch = properties.get(0);
         boolean status = false;
+        double[] distances = getDistances();
 
         /*
          *  If user ticked:
@@ -229,10 +238,11 @@ public class ComparisonController {
          *  distance*price + nights*price.
          */
         if(priceCheckBox.isSelected() && distanceCheckBox.isSelected() && nightsCheckBox.isSelected()) {
-            double minRatio = Distance.calculateDistance(properties.get(0).getLatitude(), properties.get(0).getLongitude(), 51.5074, -0.1277) * properties.get(0).getPrice();
+            double minRatio = distances[0] * properties.get(0).getPrice();
             minRatio = minRatio + properties.get(0).getMinimumNights() * properties.get(0).getPrice();
-            for(Listing property : properties){
-                double ratio = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277) * property.getPrice();
+            for(int i = 0; i < properties.size(); i++){
+                Listing property = properties.get(i);
+                double ratio = distances[i] * property.getPrice();
                 ratio = ratio + property.getMinimumNights() * property.getPrice();
                 if(ratio < minRatio){
                     minRatio = ratio;
@@ -248,9 +258,10 @@ public class ComparisonController {
          *  distance*price.
          */
         else if(priceCheckBox.isSelected() && distanceCheckBox.isSelected() && !nightsCheckBox.isSelected()) {
-            double minRatio = Distance.calculateDistance(properties.get(0).getLatitude(), properties.get(0).getLongitude(), 51.5074, -0.1277) * properties.get(0).getPrice();
-            for (Listing property : properties) {
-                double ratio = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277) * property.getPrice();
+            double minRatio = distances[0] * properties.get(0).getPrice();
+            for (int i = 0; i < properties.size(); i++) {
+                Listing property = properties.get(i);
+                double ratio = distances[i] * property.getPrice();
                 if(ratio < minRatio){
                     minRatio = ratio;
                     bestMatch = property;
@@ -298,9 +309,10 @@ public class ComparisonController {
          *  distance + nights.
          */
         else if(!priceCheckBox.isSelected() && distanceCheckBox.isSelected() && nightsCheckBox.isSelected()) {
-            double minRatio = Distance.calculateDistance(properties.get(0).getLatitude(), properties.get(0).getLongitude(), 51.5074, -0.1277) + properties.get(0).getMinimumNights();
-            for (Listing property : properties) {
-                double ratio = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277) + property.getMinimumNights();
+            double minRatio = distances[0] + properties.get(0).getMinimumNights();
+            for (int i = 0; i < properties.size(); i++) {
+                Listing property = properties.get(i);
+                double ratio = distances[i] + property.getMinimumNights();
                 if (ratio < minRatio) {
                     minRatio = ratio;
                     bestMatch = property;
@@ -315,9 +327,10 @@ public class ComparisonController {
          *  distance.
          */
         else if(!priceCheckBox.isSelected() && distanceCheckBox.isSelected() && !nightsCheckBox.isSelected()) {
-            double minDis = Distance.calculateDistance(properties.get(0).getLatitude(), properties.get(0).getLongitude(), 51.5074, -0.1277);
-            for (Listing property : properties) {
-                double dis = Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277);
+            double minDis = distances[0];
+            for (int i = 0; i < properties.size(); i++) {
+                Listing property = properties.get(i);
+                double dis = distances[i];
                 if (dis < minDis) {
                     minDis = dis;
                     bestMatch = property;
@@ -1,12 +1,9 @@
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.control.Button;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Label;
-import java.io.IOException;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Paint;
 
@@ -19,25 +16,15 @@ import javafx.scene.paint.Paint;
  */
 public class ComparisonPropertySnippet extends BorderPane {
 
-    @FXML
     Label bestMatch;
-    @FXML
     ImageView propertyImage;
-    @FXML
     Label nameLabel;
-    @FXML
     Label neighbourhoodLabel;
-    @FXML
     Label typeLabel;
-    @FXML
     Label hostLabel;
-    @FXML
     Label nightsLabel;
-    @FXML
     Label distanceLabel;
-    @FXML
     Label priceLabel;
-    @FXML
     Button removeButton;
 
     private Listing property;
@@ -45,33 +32,65 @@ public class ComparisonPropertySnippet extends BorderPane {
 
     /**
      * Constructor for a property snippet in the comparison pane.
+     * Snippets are created through SnippetFactory.
      * @param prop Listing that is added to the snippet.
+     * @param distance Distance of the listing to Central London in kilometres.
      * @param comparisonControl Comparison control object.
      */
-    public ComparisonPropertySnippet(Listing prop, ComparisonController comparisonControl)
+    ComparisonPropertySnippet(Listing prop, double distance, ComparisonController comparisonControl)
     {
         this.property = prop;
         this.comparisonController = comparisonControl;
 
-        // load FXML version of the snippet
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/comparisonPropertySnippet.fxml"));
-        loader.setRoot(this);
-        loader.setController(this);
+        buildNodes();
         // fill in data of the property
-        try {
-            loader.load();
-            propertyImage.setImage(new Image(getClass().getResourceAsStream(property.getImageName())));
-            nameLabel.setText(property.getName());
-            neighbourhoodLabel.setText(property.getNeighbourhood());
-            typeLabel.setText(property.getRoom_type());
-            hostLabel.setText(property.getHost_name());
-            nightsLabel.setText(Integer.toString(property.getMinimumNights()));
-            distanceLabel.setText(String.format("%.2f km", Distance.calculateDistance(property.getLatitude(), property.getLongitude(), 51.5074, -0.1277)));
-            priceLabel.setText("£" + property.getPrice());
-            setBorder();
-        } catch (IOException exc) {
-            throw new RuntimeException(exc);
-        }
+        ImageCache.setImage(propertyImage, property.getImageName(), ImageCache.getImage("/images/house.png"));
+        nameLabel.setText(property.getName());
+        neighbourhoodLabel.setText(property.getNeighbourhood());
+        typeLabel.setText(property.getRoom_type());
+        hostLabel.setText(property.getHost_name());
+        nightsLabel.setText(Integer.toString(property.getMinimumNights()));
+        distanceLabel.setText(String.format("%.2f km", distance));
+        priceLabel.setText("£" + property.getPrice());
+        setBorder();
+    }
+
+    /**
+     * Builds the nodes of the snippet.
+     */
+    private void buildNodes()
+    {
+        bestMatch = new Label("BEST MATCH!");
+        bestMatch.setVisible(false);
+        propertyImage = new ImageView(ImageCache.getImage("/images/house.png"));
+        propertyImage.setFitHeight(175.0);
+        propertyImage.setFitWidth(175.0);
+        propertyImage.setPickOnBounds(true);
+        propertyImage.setPreserveRatio(true);
+        nameLabel = new Label("Name");
+        nameLabel.setWrapText(true);
+        neighbourhoodLabel = new Label("Neighbourhood");
+        typeLabel = new Label("Type");
+        hostLabel = new Label("Host");
+        nightsLabel = new Label("Nights");
+        distanceLabel = new Label("Distance from Central London:");
+        priceLabel = new Label("Price");
+        removeButton = new Button("Remove");
+        removeButton.setMnemonicParsing(false);
+        removeButton.setOnAction(this::removeButton);
+
+        VBox vbox = new VBox(bestMatch, propertyImage, nameLabel, neighbourhoodLabel, typeLabel,
+                hostLabel, nightsLabel, distanceLabel, priceLabel, removeButton);
+        BorderPane.setAlignment(vbox, Pos.CENTER);
+        setCenter(vbox);
+
+        setMaxHeight(USE_PREF_SIZE);
+        setMaxWidth(USE_PREF_SIZE);
+        setMinHeight(USE_PREF_SIZE);
+        setMinWidth(USE_PREF_SIZE);
+        getStyleClass().add("compSnippet");
+        getStylesheets().addAll(SnippetFactory.getStylesheet("/stylesheets/fonts.css"),
+                SnippetFactory.getStylesheet("/stylesheets/comparisonPropSnippet.css"));
     }
 
     /**
@@ -98,7 +117,6 @@ public class ComparisonPropertySnippet extends BorderPane {
     /**
      * Sets price label to green.
      */
-    @FXML
     public void setPriceGreen(){
         priceLabel.setStyle("-fx-text-fill: green");
     }
@@ -106,7 +124,6 @@ public class ComparisonPropertySnippet extends BorderPane {
     /**
      * Sets distance label to green.
      */
-    @FXML
     public void setDistanceGreen(){
         distanceLabel.setStyle("-fx-text-fill: green;");
     }
@@ -114,7 +131,6 @@ public class ComparisonPropertySnippet extends BorderPane {
     /**
      * Sets nights label to green.
      */
-    @FXML
     public void setNightsGreen(){
         nightsLabel.setStyle("-fx-text-fill: green;");
     }
@@ -123,7 +139,6 @@ public class ComparisonPropertySnippet extends BorderPane {
      * Removes a property from the view when remove button is clicked.
      * @param e Click of the mouse.
      */
-    @FXML
     public void removeButton(ActionEvent e)
     {
         comparisonController.removeProperty(property);
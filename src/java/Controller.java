@@ -9,6 +9,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
@@ -26,6 +27,7 @@ public class Controller{
 
     // key FXML controllers of the main view
     @FXML private BorderPane menubar;
+    @FXML private HBox priceBox;
     @FXML private TextField fromTextField;
     @FXML private TextField toTextField;
     @FXML private StackPane stackPane;
@@ -39,10 +41,16 @@ public class Controller{
     private int fromValue = -1;
     private int toValue = -1;
 
+    // the price range as two thumbs; the values go from 0 to 1 and are
+    // squared into prices, so the cheaper listings get most of the track
+    private RangeSlider priceSlider;
+
     // the controllers that are updated/used from/in the main view
     private MapController mapController;
     private StatisticsController statisticsController;
     private WelcomeController welcomeController;
+    // filters the dataset and updates the map and statistics in the background
+    private FilterPipeline filterPipeline;
 
     // hold it as a field, so it can be easily removed
     private Node welcomePane;
@@ -73,9 +81,28 @@ public class Controller{
         stackPane.getChildren().add(welcomePane);
         welcomeController = fxmlLoader.getController();
 
+        filterPipeline = new FilterPipeline(Main.getDataset(), mapController, statisticsController);
+
+        priceSlider = new RangeSlider();
+        priceSlider.setMin(0);
+        priceSlider.setMax(1);
+        priceSlider.setLowValue(0);
+        priceSlider.setHighValue(1);
+        priceSlider.lowValueProperty().addListener(observable -> sliderMoved());
+        priceSlider.highValueProperty().addListener(observable -> sliderMoved());
+        priceSlider.valueChangingProperty().addListener((observable, wasChanging, changing) -> {
+            if (!changing) sliderReleased();
+        });
+        priceBox.getChildren().add(0, priceSlider);
+
         fromTextField.focusedProperty().addListener(observable -> fromValueChanged());
         toTextField.focusedProperty().addListener(observable -> toValueChanged());
 
+        // the price range can be entered once the first listings are loaded
+        DataSet dataset = Main.getDataset();
+        setPriceRangeDisabled(dataset.getDatasetList().isEmpty());
+        dataset.addListener(this::datasetUpdated);
+
         // initialize the menubar transition
         menubarTransition = new TranslateTransition(Duration.millis(350), menubar);
         menubar.setTranslateY(menubarHeight);
@@ -119,6 +146,7 @@ public class Controller{
             if ((newValue >= 0) && (toTextField.getText().isEmpty() || toValue >= newValue)) {
                 fromTextField.setText(Integer.toString(newValue));
                 fromValue = newValue;
+                setSliderValues();
             }
             else throw new Exception("invalid value");
             checkValidRange();
@@ -144,6 +172,7 @@ public class Controller{
                 if (newValue > maxValue) newValue = maxValue;
                 toTextField.setText(Integer.toString(newValue));
                 toValue = newValue;
+                setSliderValues();
             }
             else throw new Exception("invalid value");
             checkValidRange();
@@ -155,17 +184,91 @@ public class Controller{
 
     }
 
+    /**
+     * Gets called when more listings of the dataset are loaded.
+     * Updates the views if a price range is already set.
+     */
+    private void datasetUpdated() {
+        setPriceRangeDisabled(false);
+        setSliderValues();
+        if (fromValue > -1 && toValue > -1) {
+            filterPipeline.submit(fromValue, toValue);
+        }
+    }
+
+    private void setPriceRangeDisabled(boolean disabled) {
+        priceSlider.setDisable(disabled);
+        fromTextField.setDisable(disabled);
+        toTextField.setDisable(disabled);
+    }
+
+    /**
+     * Gets called when a thumb of the price slider moves.
+     * While it is dragged, show the prices in the text fields, and the
+     * map and statistics of the range as read off the histograms of the
+     * dataset, which takes the same short time for any range.
+     */
+    private void sliderMoved() {
+        if (!priceSlider.isValueChanging()) {
+            return;
+        }
+        int minPrice = sliderPrice(priceSlider.getLowValue());
+        int maxPrice = sliderPrice(priceSlider.getHighValue());
+        fromTextField.setText(Integer.toString(minPrice));
+        toTextField.setText(Integer.toString(maxPrice));
+        RangeSummary summary = Main.getDataset().getIndexes().getSummary();
+        mapController.preview(summary, minPrice, maxPrice);
+        statisticsController.preview(summary, minPrice, maxPrice);
+    }
+
+    /**
+     * Gets called when a thumb of the price slider is released.
+     * Sets the price range, so everything else is updated.
+     */
+    private void sliderReleased() {
+        fromValue = sliderPrice(priceSlider.getLowValue());
+        toValue = sliderPrice(priceSlider.getHighValue());
+        fromTextField.setText(Integer.toString(fromValue));
+        toTextField.setText(Integer.toString(toValue));
+        checkValidRange();
+    }
+
+    /**
+     * Move the thumbs of the price slider to the prices in the text fields.
+     */
+    private void setSliderValues() {
+        priceSlider.setLowValue(fromValue > -1 ? sliderValue(fromValue) : 0);
+        priceSlider.setHighValue(toValue > -1 ? sliderValue(toValue) : 1);
+    }
+
+    /**
+     * @param value A value of the price slider.
+     * @return The price at the value.
+     */
+    private int sliderPrice(double value) {
+        int maxPrice = Main.getDataset().getPriceRange().getValue();
+        return (int) Math.round(maxPrice * value * value);
+    }
+
+    /**
+     * @param price A price.
+     * @return The value of the price slider at the price.
+     */
+    private double sliderValue(int price) {
+        int maxPrice = Main.getDataset().getPriceRange().getValue();
+        return maxPrice > 0 ? Math.sqrt(Math.min(1.0, price / (double) maxPrice)) : 0;
+    }
+
     /**
      * Gets called when either of the values in the price range
      * get changed. Checks if both values are valid and
-     * updates the view accordingly.
+     * updates the view accordingly, once the filter pipeline
+     * has worked out the new range.
      */
     private void checkValidRange() {
         if (fromValue > -1 && toValue > -1) {
-            Main.getDataset().filterPrice(fromValue, toValue);
+            filterPipeline.submit(fromValue, toValue);
             welcomeController.stopBlink();
-            mapController.update();
-            statisticsController.update();
             // after the first valid range set these controls become available
             rightButton.setVisible(true);
             leftButton.setVisible(true);
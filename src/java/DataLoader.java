@@ -4,72 +4,120 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.net.URISyntaxException;
-import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  *
  */
 public class DataLoader {
 
-    private List<String> imageNames;
+    // the directory the snapshots of the csv files are kept in
+    private final Path cacheDirectory;
 
+    /**
+     * Create a loader keeping its snapshots in the cache directory of the
+     * application in the user's home directory.
+     */
     public DataLoader() {
-        imageNames = loadImages();
+        this(ListingSnapshot.getDefaultCacheDirectory());
     }
 
     /**
-     * Return an ArrayList containing the rows in the AirBnB London data set csv file.
+     * Create a loader keeping its snapshots in a directory.
+     * @param cacheDirectory The directory the snapshots are kept in.
      */
-    public ArrayList<Listing> loadListings(String filename) {
+    public DataLoader(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Return a table containing the rows in the AirBnB London data set csv file.
+     * If a valid binary snapshot of the file exists it is read instead of the csv.
+     * Otherwise the file is parsed in parallel by a ListingIngester (malformed rows
+     * are skipped and reported one by one) and a snapshot is written for the next start.
+     */
+    public ListingTable loadListings(String filename) {
+        return loadListings(filename, null);
+    }
+
+    /**
+     * Return a table containing the rows in the AirBnB London data set csv file,
+     * as loadListings(filename) does, handing the rows loaded so far to a listener
+     * while the csv is parsed. A snapshot is handed on in one batch.
+     * @param filename The name of the data set.
+     * @param listener Receives the rows loaded so far, or null to only return the table.
+     * @return The table of all the rows.
+     */
+    public ListingTable loadListings(String filename, ListingIngester.BatchListener listener) {
         System.out.print("Begin loading Airbnb london dataset...");
-        ArrayList<Listing> listings = new ArrayList<>();
+        ListingTable listings = ListingTable.empty();
         try {
             URL url = getClass().getResource("/datasets/" + filename + ".csv");
-            CSVReader reader = new CSVReader(new FileReader(new File(url.toURI()).getAbsolutePath()));
-            String[] line;
-            //skip the first row (column headers)
-            reader.readNext();
-            while ((line = reader.readNext()) != null) {
-                String id = line[0];
-                String name = line[1];
-                String host_id = line[2];
-                String host_name = line[3];
-                String neighbourhood = line[4];
-                double latitude = convertDouble(line[5]);
-                double longitude = convertDouble(line[6]);
-                String room_type = line[7];
-                int price = convertInt(line[8]);
-                int minimumNights = convertInt(line[9]);
-                int numberOfReviews = convertInt(line[10]);
-                String lastReview = line[11];
-                double reviewsPerMonth = convertDouble(line[12]);
-                int calculatedHostListingsCount = convertInt(line[13]);
-                int availability365 = convertInt(line[14]);
+            Path csvFile = Paths.get(url.toURI());
+            ListingSnapshot snapshot = ListingSnapshot.inDirectory(csvFile, cacheDirectory);
 
-                Listing listing = new Listing(id, name, host_id,
-                        host_name, neighbourhood, latitude, longitude, room_type,
-                        price, minimumNights, numberOfReviews, lastReview,
-                        reviewsPerMonth, calculatedHostListingsCount, availability365
-                );
-                listing.addImageName(randomImage());
-                listings.add(listing);
+            long start = System.nanoTime();
+            ListingTable cached = snapshot.read();
+            if (cached != null) {
+                listings = cached;
+                System.out.println("Success! Number of loaded records: " + listings.size());
+                System.out.println(String.format("Loaded %d rows from the snapshot in %d ms",
+                        listings.size(), (System.nanoTime() - start) / 1_000_000));
+                if (listener != null) {
+                    listener.batchParsed(listings, 1, 1);
+                }
+            }
+            else {
+                listings = parseListings(csvFile, listener);
+                writeSnapshot(snapshot, listings);
             }
         } catch (IOException | URISyntaxException e) {
             System.out.println("Failure! Something went wrong");
             e.printStackTrace();
         }
+        return listings;
+    }
+
+    /**
+     * Parse the listings csv file and report the outcome.
+     * @param csvFile The listings csv file.
+     * @param listener Receives the rows parsed so far after each batch, or null to parse the file at once.
+     * @return The parsed table.
+     * @throws IOException If the file cannot be read.
+     */
+    private ListingTable parseListings(Path csvFile, ListingIngester.BatchListener listener) throws IOException {
+        ListingIngester ingester = new ListingIngester();
+        ListingTable listings = listener == null ? ingester.ingest(csvFile) : ingester.ingest(csvFile, listener);
         System.out.println("Success! Number of loaded records: " + listings.size());
+        for (String error : ingester.getErrors()) {
+            System.out.println("Skipped malformed row. " + error);
+        }
+        for (String warning : ingester.getWarnings()) {
+            System.out.println("Kept row without a field. " + warning);
+        }
+        System.out.println(String.format("Parsed %d rows in %d ms (%.0f rows/sec)",
+                ingester.getRowCount(), ingester.getElapsedMillis(), ingester.getRowsPerSecond()));
         return listings;
     }
 
+    /**
+     * Write a snapshot of the parsed listings so the next start does not
+     * have to parse the csv again. Failing to write it is not an error.
+     */
+    private void writeSnapshot(ListingSnapshot snapshot, ListingTable listings) {
+        long start = System.nanoTime();
+        try {
+            snapshot.write(listings);
+            System.out.println(String.format("Wrote snapshot %s in %d ms",
+                    snapshot.getSnapshotFile(), (System.nanoTime() - start) / 1_000_000));
+        } catch (IOException e) {
+            System.out.println("Could not write the snapshot: " + e.getMessage());
+        }
+    }
+
     /**
      * Return an ArrayList containing the rows in the London attractions data set csv file.
      */
@@ -85,8 +133,8 @@ public class DataLoader {
             reader.readNext();
             while ((line = reader.readNext()) != null) {
                 String name = line[0];
-                double latitude = convertDouble(line[1]);
-                double longitude = convertDouble(line[2]);
+                double latitude = FieldParser.parseDouble(line[1]);
+                double longitude = FieldParser.parseDouble(line[2]);
 
                 Attraction attraction = new Attraction(name, latitude, longitude);
                 attractions.add(attraction);
@@ -98,58 +146,4 @@ public class DataLoader {
         System.out.println("Success! Number of loaded attractions: " + attractions.size());
         return attractions;
     }
-
-    /**
-     *
-     * @param doubleString the string to be converted to Double type
-     * @return the Double value of the string, or -1.0 if the string is
-     * either empty or just whitespace
-     */
-    private Double convertDouble(String doubleString){
-        if(doubleString != null && !doubleString.trim().equals("")){
-            return Double.parseDouble(doubleString);
-        }
-        return -1.0;
-    }
-
-    /**
-     *
-     * @param intString the string to be converted to Integer type
-     * @return the Integer value of the string, or -1 if the string is
-     * either empty or just whitespace
-     */
-    private Integer convertInt(String intString){
-        if(intString != null && !intString.trim().equals("")){
-            return Integer.parseInt(intString);
-        }
-        return -1;
-    }
-
-    /**
-     * Load all the filenames in the "property-images" folder.
-     * @return List of filenames in the directory.
-     */
-    private List<String> loadImages() {
-        try (Stream<Path> walk = Files.walk(Paths.get("src/res/images/property-images"))) {
-            List<String> paths = walk.filter(Files::isRegularFile)
-                    .map(Path::toString)
-                    .collect(Collectors.toList());
-            List<String> result = new ArrayList<>();
-            for (String x : paths) result.add(x.split("/res")[1]);
-            return result;
-
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    /**
-     * Get a random filename from the "property-images" folder.
-     * @return String name of a random file from the directory.
-     */
-    private String randomImage() {
-        Random random = new Random();
-        return imageNames.get(random.nextInt(imageNames.size()));
-    }
 }
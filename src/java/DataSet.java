@@ -1,44 +1,217 @@
 import javafx.util.Pair;
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * Stores the loaded dataset of properties and allows for functionality to filter the dataset to specific price ranges, add
  * favourites and obtain these filtered lists.
+ *
+ * A dataset can also be filled while it is in use: a DataSetLoader indexes
+ * the listings loaded so far in the background, and hands them to the
+ * dataset, which replaces its listings and keeps its price filter.
  */
 public class DataSet {
 
-    private static final DataLoader dataLoader = new DataLoader();
-    private List<Listing> datasetList;
-    private List<Listing> filteredDatasetList;
+    private final DataLoader dataLoader;
+    // the listings with their indexes, replaced as a whole by update
+    private Indexes indexes;
+    // the columns of all the loaded listings
+    private ListingTable table;
+    private ListingRows datasetList;
+    private ListingRows filteredDatasetList;
+    // the rows ordered by price, for filtering by price range
+    private PriceIndex priceIndex;
+    // the rows of each neighbourhood and room type
+    private SecondaryIndex secondaryIndex;
+    // the grid of the coordinates of the listings
+    private SpatialIndex spatialIndex;
+    // the rows of filteredDatasetList, created when first needed
+    private RowBitmap filteredRows;
+    // the price range the dataset is filtered to
+    private int filterMinPrice;
+    private int filterMaxPrice;
     private List<Attraction> attractionsDataSet;
-    private List<Listing> favourites;
+    private ListingSet favourites;
+    // called after the listings are replaced
+    private final List<Runnable> listeners = new ArrayList<>();
+    // called after the attractions are replaced
+    private final List<Runnable> attractionsListeners = new ArrayList<>();
+
+    /**
+     * The listings of a dataset with their indexes, built before they
+     * are handed to the dataset.
+     */
+    public static class Indexes {
+        private final ListingTable table;
+        private final PriceIndex priceIndex;
+        private final SecondaryIndex secondaryIndex;
+        private final SpatialIndex spatialIndex;
+        private final RangeSummary summary;
+
+        /**
+         * Build the indexes of a table.
+         * @param table The listings.
+         */
+        public Indexes(ListingTable table) {
+            this.table = table;
+            priceIndex = new PriceIndex(table);
+            secondaryIndex = new SecondaryIndex(table);
+            spatialIndex = new SpatialIndex(table);
+            summary = new RangeSummary(table, priceIndex);
+        }
+
+        /**
+         * @return The table holding the columns of the listings.
+         */
+        public ListingTable getTable() {
+            return table;
+        }
+
+        /**
+         * @return The index of the rows ordered by price.
+         */
+        public PriceIndex getPriceIndex() {
+            return priceIndex;
+        }
+
+        /**
+         * @return The index of the rows of each neighbourhood and room type.
+         */
+        public SecondaryIndex getSecondaryIndex() {
+            return secondaryIndex;
+        }
+
+        /**
+         * @return The grid of the coordinates of the listings.
+         */
+        public SpatialIndex getSpatialIndex() {
+            return spatialIndex;
+        }
+
+        /**
+         * @return The statistics of any price range read off histograms.
+         */
+        public RangeSummary getSummary() {
+            return summary;
+        }
+
+        /**
+         * Select the listings of a neighbourhood among some rows, by
+         * intersecting them with the posting list of the neighbourhood.
+         * @param neighbourhood A neighbourhood code of the table.
+         * @param rows The rows to select from.
+         * @return The listings of the neighbourhood among the rows, in table order.
+         */
+        public ListingRows selectNeighbourhood(int neighbourhood, RowBitmap rows) {
+            return secondaryIndex.getNeighbourhood(neighbourhood).and(rows).toRows(table);
+        }
+    }
 
     /**
      * Load the dataset using the dataLoader.
      */
     public DataSet(String filename) {
-        datasetList = dataLoader.loadListings(filename);
-        filteredDatasetList = datasetList;
+        this(filename, ListingSnapshot.getDefaultCacheDirectory());
+    }
+
+    /**
+     * Load the dataset using the dataLoader, keeping the snapshot of the
+     * listings in a directory.
+     * @param filename The name of the listings csv file, without the extension.
+     * @param cacheDirectory The directory the snapshot of the listings is kept in.
+     */
+    public DataSet(String filename, Path cacheDirectory) {
+        dataLoader = new DataLoader(cacheDirectory);
+        setIndexes(new Indexes(dataLoader.loadListings(filename)));
         attractionsDataSet = dataLoader.loadAttractions();
 
-        favourites = new ArrayList<>();
+        favourites = new ListingSet();
+    }
+
+    /**
+     * Create an empty dataset, to be filled by a DataSetLoader.
+     */
+    public DataSet() {
+        dataLoader = new DataLoader();
+        setIndexes(new Indexes(ListingTable.empty()));
+        attractionsDataSet = new ArrayList<>();
+
+        favourites = new ListingSet();
     }
 
     /**
      * Reload the dataset using the dataLoader.
      */
     public void reloadDataSet() {
-        datasetList = dataLoader.loadListings("airbnb-london");
+        setIndexes(new Indexes(dataLoader.loadListings("airbnb-london")));
+    }
+
+    /**
+     * Replace the listings of the dataset, removing the price filter.
+     */
+    private void setIndexes(Indexes indexes) {
+        this.indexes = indexes;
+        table = indexes.table;
+        datasetList = table.rows();
+        filteredDatasetList = datasetList;
+        priceIndex = indexes.priceIndex;
+        secondaryIndex = indexes.secondaryIndex;
+        spatialIndex = indexes.spatialIndex;
+        filteredRows = secondaryIndex.getAll();
+        filterMinPrice = Integer.MIN_VALUE;
+        filterMaxPrice = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Replace the listings of the dataset by those of the indexes, keeping
+     * the price filter, and tell the listeners.
+     * @param indexes The new listings with their indexes.
+     */
+    public void update(Indexes indexes) {
+        int minPrice = filterMinPrice;
+        int maxPrice = filterMaxPrice;
+        setIndexes(indexes);
+        if (minPrice != Integer.MIN_VALUE || maxPrice != Integer.MAX_VALUE) {
+            filterPrice(minPrice, maxPrice);
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Set the attractions of the dataset, and tell the attractions listeners.
+     * @param attractions The attractions.
+     */
+    public void setAttractions(List<Attraction> attractions) {
+        attractionsDataSet = attractions;
+        for (Runnable listener : attractionsListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Add a listener called every time the listings are replaced by update.
+     * @param listener The listener.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Add a listener called every time the attractions are replaced by setAttractions.
+     * @param listener The listener.
+     */
+    public void addAttractionsListener(Runnable listener) {
+        attractionsListeners.add(listener);
     }
 
     /**
      * Get the stored filtered dataset.
      * @return dataset
      */
-    public List<Listing> getFilteredDatasetList() {
+    public ListingRows getFilteredDatasetList() {
         return filteredDatasetList;
     }
 
@@ -51,34 +224,119 @@ public class DataSet {
         return attractionsDataSet;
     }
 
-    public Pair<Integer, Integer> getPriceRange() {
-        int minPrice = datasetList.get(0).getPrice();
-        int maxPrice = 0;
-        for (Listing listing : datasetList) {
-            int listingPrice = listing.getPrice();
-            if (listingPrice > maxPrice) {
-                maxPrice = listingPrice;
-            }
-            if (listingPrice < minPrice) {
-                minPrice = listingPrice;
-            }
+    /**
+     * @return The listings with their indexes, which stay the same until the next update.
+     */
+    public Indexes getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * @return The table holding the columns of all the loaded listings.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return The index of the rows ordered by price.
+     */
+    public PriceIndex getPriceIndex() {
+        return priceIndex;
+    }
+
+    /**
+     * @return The index of the rows of each neighbourhood and room type.
+     */
+    public SecondaryIndex getSecondaryIndex() {
+        return secondaryIndex;
+    }
+
+    /**
+     * @return The grid of the coordinates of the listings.
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Returns the listings within a distance of an attraction.
+     * @param attraction , the attraction.
+     * @param radius , the distance in kilometres.
+     * @return The listings, in file order.
+     */
+    public List<Listing> getListingsNear(Attraction attraction, double radius) {
+        int[] rows = spatialIndex.withinRadius(attraction.getLatitude(), attraction.getLongitude(), radius);
+        return new ListingRows(table, rows, 0, rows.length);
+    }
+
+    /**
+     * Returns the listings nearest to an attraction.
+     * @param attraction , the attraction.
+     * @param k , the number of listings.
+     * @return The k nearest listings, nearest first.
+     */
+    public List<Listing> getNearestListings(Attraction attraction, int k) {
+        int[] rows = spatialIndex.nearest(attraction.getLatitude(), attraction.getLongitude(), k);
+        return new ListingRows(table, rows, 0, rows.length);
+    }
+
+    /**
+     * @return The rows of the filtered dataset.
+     */
+    public RowBitmap getFilteredRows() {
+        if (filteredRows == null) {
+            filteredRows = RowBitmap.of(filteredDatasetList);
         }
-        return new Pair<>(minPrice, maxPrice);
+        return filteredRows;
+    }
+
+    public Pair<Integer, Integer> getPriceRange() {
+        return new Pair<>(priceIndex.getMinPrice(), Math.max(0, priceIndex.getMaxPrice()));
     }
 
     /**
      * Filters and stores the dataset to a price range.
+     * The filtered dataset is ordered by price.
      * @param minPrice , minimum price of listings.
      * @param maxPrice , maximum price of listings.
      */
     public void filterPrice(int minPrice, int maxPrice) {
-        List<Listing> listings = new ArrayList<>();
-        for (Listing listing : datasetList) {
-            if (listing.getPrice() >= minPrice && listing.getPrice() <= maxPrice) {
-                listings.add(listing);
-            }
+        filterPrice(indexes, minPrice, maxPrice, priceIndex.range(minPrice, maxPrice));
+    }
+
+    /**
+     * Store the dataset filtered to a price range, as filtered beforehand
+     * from the indexes, unless the listings were replaced since.
+     * @param indexes , the indexes the listings were filtered from.
+     * @param minPrice , minimum price of listings.
+     * @param maxPrice , maximum price of listings.
+     * @param listings , the listings in the price range, ordered by price.
+     * @return True if the filter was stored, false if the indexes are no longer those of the dataset.
+     */
+    public boolean filterPrice(Indexes indexes, int minPrice, int maxPrice, ListingRows listings) {
+        if (indexes != this.indexes) {
+            return false;
         }
         filteredDatasetList = listings;
+        filteredRows = null;
+        filterMinPrice = minPrice;
+        filterMaxPrice = maxPrice;
+        return true;
+    }
+
+    /**
+     * @return The minimum price of the filtered dataset, Integer.MIN_VALUE if it is not filtered.
+     */
+    public int getFilterMinPrice() {
+        return filterMinPrice;
+    }
+
+    /**
+     * @return The maximum price of the filtered dataset, Integer.MAX_VALUE if it is not filtered.
+     */
+    public int getFilterMaxPrice() {
+        return filterMaxPrice;
     }
 
     /**
@@ -87,39 +345,65 @@ public class DataSet {
      * @return The filtered dataset.
      */
     public List<Listing> filterNeighbourhood(String ... neighbourhood) {
-        List<Listing> listings = new ArrayList<>();
-        List<String> neighbourhoods = Arrays.asList(neighbourhood);
-        for (Listing listing : filteredDatasetList) {
-            if (neighbourhoods.contains(listing.getNeighbourhood())) {
-                listings.add(listing);
-            }
-        }
-        return listings;
+        return secondaryIndex.getNeighbourhoods(neighbourhood).and(getFilteredRows()).toRows(table);
     }
 
-    public List<Listing> getFavourites() {
-        return favourites;
+    /**
+     * Filters and returns the filtered dataset to a room type and neighbourhood(s).
+     * @param roomType , room type of listings, or null for any room type.
+     * @param neighbourhood , neighbourhood(s) of listings, or none for any neighbourhood.
+     * @return The filtered dataset, in file order.
+     */
+    public List<Listing> filter(String roomType, String ... neighbourhood) {
+        return select(getFilteredRows(), roomType, neighbourhood).toRows(table);
     }
 
-    public void favourite(Listing listing) {
-        if (favourites.contains(listing)) {
-            removeFavourite(listing);
+    /**
+     * Select the listings in a price range, of a room type and in neighbourhood(s),
+     * without changing the filtered dataset.
+     * @param minPrice , minimum price of listings.
+     * @param maxPrice , maximum price of listings.
+     * @param roomType , room type of listings, or null for any room type.
+     * @param neighbourhood , neighbourhood(s) of listings, or none for any neighbourhood.
+     * @return The rows of the selected listings.
+     */
+    public RowBitmap select(int minPrice, int maxPrice, String roomType, String ... neighbourhood) {
+        return select(RowBitmap.of(priceIndex.range(minPrice, maxPrice)), roomType, neighbourhood);
+    }
+
+    /**
+     * Intersect rows with the posting lists of a room type and neighbourhood(s).
+     */
+    private RowBitmap select(RowBitmap rows, String roomType, String ... neighbourhood) {
+        if (roomType != null) {
+            rows = rows.and(secondaryIndex.getRoomType(roomType));
         }
-        else {
-            addFavourite(listing);
+        if (neighbourhood.length > 0) {
+            rows = rows.and(secondaryIndex.getNeighbourhoods(neighbourhood));
         }
+        return rows;
     }
 
-    private void addFavourite(Listing listing) {
-        favourites.add(listing);
+    /**
+     * @return The favourite listings, in the order they were added.
+     */
+    public List<Listing> getFavourites() {
+        return favourites;
     }
 
-    private void removeFavourite(Listing listing) {
-        for (Iterator it = favourites.iterator(); it.hasNext(); ) {
-            Listing favourite = (Listing) it.next();
-            if (favourite.equals(listing)) {
-                it.remove();
-            }
-        }
+    /**
+     * @param listing A listing.
+     * @return True if the listing is a favourite.
+     */
+    public boolean isFavourite(Listing listing) {
+        return favourites.contains(listing);
+    }
+
+    /**
+     * Add a listing to the favourites, or remove it if it is one already.
+     * @param listing The listing.
+     */
+    public void favourite(Listing listing) {
+        favourites.toggle(listing);
     }
 }
@@ -0,0 +1,57 @@
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.List;
+
+/**
+ * Loads a dataset in the background, so the application can be shown
+ * before the listings are read.
+ *
+ * The attractions are loaded first, then the listings in batches: after
+ * each batch, the listings loaded so far are indexed on the loading
+ * thread and handed to the dataset on the JavaFX thread, so the views
+ * can be used as soon as the first batch is in. The progress and message
+ * of the task report how far the loading is.
+ */
+public class DataSetLoader extends Task<Void> {
+
+    private static final DataLoader dataLoader = new DataLoader();
+
+    private final DataSet dataset;
+    private final String filename;
+
+    /**
+     * Create a loader. Nothing is loaded until the task is run.
+     * @param dataset The dataset to fill, empty.
+     * @param filename The name of the listings csv file, without the extension.
+     */
+    public DataSetLoader(DataSet dataset, String filename) {
+        this.dataset = dataset;
+        this.filename = filename;
+    }
+
+    /**
+     * Start the loader on a thread of its own.
+     */
+    public void start() {
+        Thread thread = new Thread(this, "dataset-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    protected Void call() {
+        updateMessage("Loading attractions...");
+        List<Attraction> attractions = dataLoader.loadAttractions();
+        Platform.runLater(() -> dataset.setAttractions(attractions));
+
+        updateMessage("Loading listings...");
+        dataLoader.loadListings(filename, (table, bytesParsed, bytesTotal) -> {
+            DataSet.Indexes indexes = new DataSet.Indexes(table);
+            Platform.runLater(() -> dataset.update(indexes));
+            updateProgress(bytesParsed, bytesTotal);
+            updateMessage("Loaded " + table.size() + " listings");
+        });
+        return null;
+    }
+}
@@ -1,9 +1,27 @@
 /**
  * An abstract class for calculating distance (in kilometres) between two coordinates.
  * Taken from: https://dzone.com/articles/distance-calculation-using-3
+ *
+ * Distances from one point to many can be calculated in batches through
+ * Points, which converts the coordinates to radians once.
  */
 public abstract class Distance {
 
+    // the kilometres in one radian of a great circle, as in calculateDistance
+    private static final double KM_PER_RADIAN = 180.0 / Math.PI * 60 * 1.1515 * 1.609344;
+
+    /**
+     * How the distances of a batch are calculated.
+     */
+    public enum Mode {
+        // the spherical law of cosines, as in calculateDistance
+        EXACT,
+        // the equirectangular approximation, which needs no trigonometry per point;
+        // it is accurate to well under 0.1% for points a few kilometres apart,
+        // so it suits checks against a small radius
+        FAST
+    }
+
     /**
      * Calculates distance between two objects using their
      * latitudes and longitudes.
@@ -15,9 +33,13 @@ public abstract class Distance {
      */
     public static double calculateDistance(double lat1, double lon1, double lat2, double lon2)
     {
+        if (lat1 == lat2 && lon1 == lon2) {
+            // rounding would leave a few centimetres, or take the cosine over 1
+            return 0;
+        }
         double theta = lon1 - lon2;
         double dist = Math.sin(deg2rad(lat1)) * Math.sin(deg2rad(lat2)) + Math.cos(deg2rad(lat1)) * Math.cos(deg2rad(lat2)) * Math.cos(deg2rad(theta));
-        dist = Math.acos(dist);
+        dist = Math.acos(Math.min(1, dist));
         dist = rad2deg(dist);
         dist = dist * 60 * 1.1515;
         dist = dist * 1.609344;
@@ -25,6 +47,23 @@ public abstract class Distance {
         return dist;
     }
 
+    /**
+     * Calculates the distances of many coordinates to one point.
+     * @param latitudes Latitudes of the coordinates.
+     * @param longitudes Longitudes of the coordinates.
+     * @param latitude Latitude of the point.
+     * @param longitude Longitude of the point.
+     * @param mode How the distances are calculated.
+     * @return The distances in kilometres, in the order of the coordinates.
+     */
+    public static double[] calculateDistances(double[] latitudes, double[] longitudes,
+                                              double latitude, double longitude, Mode mode)
+    {
+        double[] distances = new double[latitudes.length];
+        new Points(latitudes, longitudes).distances(latitude, longitude, mode, distances);
+        return distances;
+    }
+
     /**
      * Converts decimal degrees to radians.
      * @param deg The degree value to be converted.
@@ -38,10 +77,155 @@ public abstract class Distance {
     /**
      * Converts radians degrees to decimal degrees.
      * @param rad The radian value to be converted.
-     * @return The converted degree value.
+     * @return The converted radian value.
      */
     private static double rad2deg(double rad)
     {
         return (rad * 180.0 / Math.PI);
     }
+
+    /**
+     * The coordinates of many points, stored in radians along with the sine
+     * and cosine of their latitudes, so the distances to them only need the
+     * trigonometry of the point they are measured from.
+     */
+    public static class Points
+    {
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] sinLatitudes;
+        private final double[] cosLatitudes;
+
+        /**
+         * Store the coordinates of points.
+         * @param latitudes Latitudes of the points in degrees.
+         * @param longitudes Longitudes of the points in degrees, as many as the latitudes.
+         */
+        public Points(double[] latitudes, double[] longitudes)
+        {
+            int size = latitudes.length;
+            this.latitudes = new double[size];
+            this.longitudes = new double[size];
+            sinLatitudes = new double[size];
+            cosLatitudes = new double[size];
+            for (int i = 0; i < size; i++) {
+                this.latitudes[i] = deg2rad(latitudes[i]);
+                this.longitudes[i] = deg2rad(longitudes[i]);
+                sinLatitudes[i] = Math.sin(this.latitudes[i]);
+                cosLatitudes[i] = Math.cos(this.latitudes[i]);
+            }
+        }
+
+        /**
+         * @return The number of points.
+         */
+        public int size()
+        {
+            return latitudes.length;
+        }
+
+        /**
+         * Calculates the distance of one point to a coordinate.
+         * @param index The index of the point.
+         * @param latitude Latitude of the coordinate.
+         * @param longitude Longitude of the coordinate.
+         * @param mode How the distance is calculated.
+         * @return The distance in kilometres.
+         */
+        public double distance(int index, double latitude, double longitude, Mode mode)
+        {
+            double lat = deg2rad(latitude);
+            double lon = deg2rad(longitude);
+            if (mode == Mode.FAST) {
+                double x = (longitudes[index] - lon) * 0.5 * (cosLatitudes[index] + Math.cos(lat));
+                double y = latitudes[index] - lat;
+                return Math.sqrt(x * x + y * y) * KM_PER_RADIAN;
+            }
+            if (latitudes[index] == lat && longitudes[index] == lon) {
+                // rounding would leave a few centimetres, or take the cosine over 1
+                return 0;
+            }
+            double cos = sinLatitudes[index] * Math.sin(lat) + cosLatitudes[index] * Math.cos(lat) * Math.cos(longitudes[index] - lon);
+            return Math.acos(Math.min(1, cos)) * KM_PER_RADIAN;
+        }
+
+        /**
+         * Calculates the distances of all the points to a coordinate.
+         * @param latitude Latitude of the coordinate.
+         * @param longitude Longitude of the coordinate.
+         * @param mode How the distances are calculated.
+         * @param distances The array the distances in kilometres are stored in, in the order of the points.
+         */
+        public void distances(double latitude, double longitude, Mode mode, double[] distances)
+        {
+            distances(0, latitudes.length, latitude, longitude, mode, distances);
+        }
+
+        /**
+         * Calculates the distances of the points from index start to end - 1 to a coordinate.
+         * @param start The index of the first point.
+         * @param end The index after the last point.
+         * @param latitude Latitude of the coordinate.
+         * @param longitude Longitude of the coordinate.
+         * @param mode How the distances are calculated.
+         * @param distances The array the distance of point start + i is stored in at index i.
+         */
+        public void distances(int start, int end, double latitude, double longitude, Mode mode, double[] distances)
+        {
+            double lat = deg2rad(latitude);
+            double lon = deg2rad(longitude);
+            double sinLat = Math.sin(lat);
+            double cosLat = Math.cos(lat);
+            // the loops only read and write primitive arrays, so the JIT compiler can unroll them,
+            // and vectorise the fast one
+            if (mode == Mode.FAST) {
+                for (int i = start; i < end; i++) {
+                    double x = (longitudes[i] - lon) * 0.5 * (cosLatitudes[i] + cosLat);
+                    double y = latitudes[i] - lat;
+                    distances[i - start] = Math.sqrt(x * x + y * y) * KM_PER_RADIAN;
+                }
+            }
+            else {
+                for (int i = start; i < end; i++) {
+                    double cos = sinLatitudes[i] * sinLat + cosLatitudes[i] * cosLat * Math.cos(longitudes[i] - lon);
+                    // identical points are 0 apart, whatever the rounding of their cosine
+                    distances[i - start] = latitudes[i] == lat && longitudes[i] == lon
+                            ? 0 : Math.acos(Math.min(1, cos)) * KM_PER_RADIAN;
+                }
+            }
+        }
+
+        /**
+         * Calculates the distances of some of the points to a coordinate.
+         * @param indices The array holding the indices of the points.
+         * @param count The number of indices in the array.
+         * @param latitude Latitude of the coordinate.
+         * @param longitude Longitude of the coordinate.
+         * @param mode How the distances are calculated.
+         * @param distances The array the distance of point indices[i] is stored in at index i.
+         */
+        public void distances(int[] indices, int count, double latitude, double longitude, Mode mode, double[] distances)
+        {
+            double lat = deg2rad(latitude);
+            double lon = deg2rad(longitude);
+            double sinLat = Math.sin(lat);
+            double cosLat = Math.cos(lat);
+            if (mode == Mode.FAST) {
+                for (int i = 0; i < count; i++) {
+                    int index = indices[i];
+                    double x = (longitudes[index] - lon) * 0.5 * (cosLatitudes[index] + cosLat);
+                    double y = latitudes[index] - lat;
+                    distances[i] = Math.sqrt(x * x + y * y) * KM_PER_RADIAN;
+                }
+            }
+            else {
+                for (int i = 0; i < count; i++) {
+                    int index = indices[i];
+                    double cos = sinLatitudes[index] * sinLat + cosLatitudes[index] * cosLat * Math.cos(longitudes[index] - lon);
+                    distances[i] = latitudes[index] == lat && longitudes[index] == lon
+                            ? 0 : Math.acos(Math.min(1, cos)) * KM_PER_RADIAN;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,264 @@
+
+/**
+ * Parses numeric and date csv fields straight into primitives.
+ *
+ * The fields are read from the raw bytes of the file, so no String is
+ * created for them. Like the original DataLoader conversions, an empty
+ * or whitespace-only number is read as -1, and an empty date as NO_DATE.
+ */
+public abstract class FieldParser {
+
+    /**
+     * The value of an empty date field.
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    // powers of ten which can be represented exactly as a double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // the largest mantissa that can be converted to a double without rounding
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Parse an integer field.
+     * @param data The bytes holding the field.
+     * @param start The index of the first byte of the field.
+     * @param end The index after the last byte of the field.
+     * @return The value of the field, or -1 if the field is empty or just whitespace.
+     * @throws NumberFormatException If the field is not an integer.
+     */
+    public static int parseInt(byte[] data, int start, int end) {
+        while (start < end && (data[start] & 0xFF) <= ' ') start++;
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') end--;
+        if (start == end) {
+            return -1;
+        }
+
+        boolean negative = false;
+        int i = start;
+        if (data[i] == '-' || data[i] == '+') {
+            negative = data[i] == '-';
+            i++;
+            if (i == end) {
+                throw invalid(data, start, end);
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(data, start, end);
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw invalid(data, start, end);
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw invalid(data, start, end);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a decimal field. Plain decimals with up to 15 significant
+     * digits are converted without creating any objects; anything else
+     * (exponents, very long values) falls back to Double.parseDouble.
+     * @param data The bytes holding the field.
+     * @param start The index of the first byte of the field.
+     * @param end The index after the last byte of the field.
+     * @return The value of the field, or -1.0 if the field is empty or just whitespace.
+     * @throws NumberFormatException If the field is not a number.
+     */
+    public static double parseDouble(byte[] data, int start, int end) {
+        while (start < end && (data[start] & 0xFF) <= ' ') start++;
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') end--;
+        if (start == end) {
+            return -1.0;
+        }
+
+        boolean negative = false;
+        int i = start;
+        if (data[i] == '-' || data[i] == '+') {
+            negative = data[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int exponent = 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < end; i++) {
+            byte b = data[i];
+            int digit = b - '0';
+            if (digit >= 0 && digit <= 9) {
+                digits = true;
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    // too many significant digits to convert exactly
+                    return slowParseDouble(data, start, end);
+                }
+                mantissa = mantissa * 10 + digit;
+                if (point) {
+                    exponent--;
+                }
+            }
+            else if (b == '.' && !point) {
+                point = true;
+            }
+            else {
+                // exponents, "NaN", "Infinity" and invalid values
+                return slowParseDouble(data, start, end);
+            }
+        }
+        if (!digits) {
+            throw invalid(data, start, end);
+        }
+        if (-exponent >= POWERS_OF_TEN.length) {
+            return slowParseDouble(data, start, end);
+        }
+        // both operands are exact, so the division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a date field, written as dd/MM/yyyy or as yyyy-MM-dd.
+     * @param data The bytes holding the field.
+     * @param start The index of the first byte of the field.
+     * @param end The index after the last byte of the field.
+     * @return The date as the number of days since 1970-01-01, or NO_DATE if the field is empty or just whitespace.
+     * @throws NumberFormatException If the field is not a valid date.
+     */
+    public static int parseDate(byte[] data, int start, int end) {
+        while (start < end && (data[start] & 0xFF) <= ' ') start++;
+        while (end > start && (data[end - 1] & 0xFF) <= ' ') end--;
+        if (start == end) {
+            return NO_DATE;
+        }
+        if (end - start != 10) {
+            throw invalid(data, start, end);
+        }
+        int year;
+        int month;
+        int day;
+        if (data[start + 2] == '/' && data[start + 5] == '/') {
+            day = digits(data, start, start + 2);
+            month = digits(data, start + 3, start + 5);
+            year = digits(data, start + 6, start + 10);
+        }
+        else if (data[start + 4] == '-' && data[start + 7] == '-') {
+            year = digits(data, start, start + 4);
+            month = digits(data, start + 5, start + 7);
+            day = digits(data, start + 8, start + 10);
+        }
+        else {
+            throw invalid(data, start, end);
+        }
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            throw invalid(data, start, end);
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * @return The value of a run of digits, or -1 if there is anything else.
+     */
+    private static int digits(byte[] data, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * The number of days from 1970-01-01 to a date, counted in 400 year
+     * eras of the calendar starting in March, as LocalDate.toEpochDay does.
+     */
+    private static int epochDay(int year, int month, int day) {
+        if (month <= 2) {
+            year--;
+        }
+        int era = year / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Parse an integer field held in a String.
+     * @param value The field.
+     * @return The value of the field, or -1 if the field is null, empty or just whitespace.
+     * @throws NumberFormatException If the field is not an integer.
+     */
+    public static int parseInt(CharSequence value) {
+        if (value == null) {
+            return -1;
+        }
+        return parseInt(ascii(value), 0, value.length());
+    }
+
+    /**
+     * Parse a decimal field held in a String.
+     * @param value The field.
+     * @return The value of the field, or -1.0 if the field is null, empty or just whitespace.
+     * @throws NumberFormatException If the field is not a number.
+     */
+    public static double parseDouble(CharSequence value) {
+        if (value == null) {
+            return -1.0;
+        }
+        return parseDouble(ascii(value), 0, value.length());
+    }
+
+    /**
+     * Parse a date field held in a String.
+     * @param value The field, written as dd/MM/yyyy or as yyyy-MM-dd.
+     * @return The date as the number of days since 1970-01-01, or NO_DATE if the field is null, empty or just whitespace.
+     * @throws NumberFormatException If the field is not a valid date.
+     */
+    public static int parseDate(CharSequence value) {
+        if (value == null) {
+            return NO_DATE;
+        }
+        return parseDate(ascii(value), 0, value.length());
+    }
+
+    /**
+     * Convert a field to bytes; characters outside of the ASCII range
+     * can never be part of a number or date, so they are replaced by '?'.
+     */
+    private static byte[] ascii(CharSequence value) {
+        byte[] data = new byte[value.length()];
+        for (int i = 0; i < data.length; i++) {
+            char c = value.charAt(i);
+            data[i] = c < 128 ? (byte) c : (byte) '?';
+        }
+        return data;
+    }
+
+    private static double slowParseDouble(byte[] data, int start, int end) {
+        return Double.parseDouble(new String(data, start, end - start));
+    }
+
+    private static NumberFormatException invalid(byte[] data, int start, int end) {
+        return new NumberFormatException("For input string: \"" + new String(data, start, end - start) + "\"");
+    }
+}
@@ -0,0 +1,246 @@
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Filters the dataset to a price range and works out the statistics of
+ * the range on a thread of its own, so the application does not freeze
+ * while they are recomputed.
+ *
+ * A price range is only worked on once it has stayed the same for a short
+ * while (150 ms, or the milliseconds given by the -Dbookings.filterDelay
+ * option of the java command), so quickly editing both prices recomputes
+ * once. A range submitted while another is being worked on supersedes it:
+ * the older one stops at its next stage and is never shown. The results of
+ * a range are shown together, in a single pass on the JavaFX thread, and
+ * the next range is not started until they are.
+ *
+ * The time taken by each stage of the last range shown is kept, and
+ * printed when the application is run with -Dbookings.frameTimes=true.
+ */
+public class FilterPipeline {
+
+    /**
+     * The stages a price range goes through, in order.
+     */
+    public enum Stage {
+        // waiting for the range to stay the same
+        DELAY,
+        // filtering the listings to the range
+        FILTER,
+        // moving the statistics to the range
+        STATISTICS,
+        // waiting for the JavaFX thread and showing the results
+        PUBLISH
+    }
+
+    /**
+     * The views showing the results of a price range.
+     */
+    interface Views {
+        /**
+         * Work out the statistics of a range, on the pipeline thread.
+         * @param indexes The indexes of the listings.
+         * @param attractions The attractions of the dataset.
+         * @param minPrice The minimum price, inclusive.
+         * @param maxPrice The maximum price, inclusive.
+         */
+        void prepare(DataSet.Indexes indexes, List<Attraction> attractions, int minPrice, int maxPrice);
+
+        /**
+         * Show the results of the range last prepared.
+         * @param indexes The indexes of the listings.
+         * @param minPrice The minimum price, inclusive.
+         * @param maxPrice The maximum price, inclusive.
+         * @param listings The listings in the range, ordered by price.
+         */
+        void publish(DataSet.Indexes indexes, int minPrice, int maxPrice, ListingRows listings);
+    }
+
+    private static final long DELAY_MILLIS = Long.getLong("bookings.filterDelay", 150);
+
+    private final DataSet dataset;
+    private final Views views;
+    // runs the showing of the results, on the JavaFX thread
+    private final Executor publisher;
+    // the milliseconds a range has to stay the same before it is worked on
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+    // the number of the last range submitted; a range with a smaller number is superseded
+    private final AtomicLong latest = new AtomicLong();
+    // the last range submitted, if it has not started yet
+    private ScheduledFuture<?> pending;
+
+    // the nanoseconds each stage took for the last range shown
+    private final long[] stageNanos = new long[Stage.values().length];
+    private long publishedCount;
+    private long supersededCount;
+
+    /**
+     * Create the pipeline of a dataset and the views showing it.
+     * @param dataset The dataset to filter.
+     * @param mapController The map showing the number of listings in each borough.
+     * @param statisticsController The statistics of the listings in the range.
+     */
+    public FilterPipeline(DataSet dataset, MapController mapController, StatisticsController statisticsController) {
+        this(dataset, new Views() {
+            @Override
+            public void prepare(DataSet.Indexes indexes, List<Attraction> attractions, int minPrice, int maxPrice) {
+                statisticsController.prepare(indexes, attractions, minPrice, maxPrice);
+            }
+
+            @Override
+            public void publish(DataSet.Indexes indexes, int minPrice, int maxPrice, ListingRows listings) {
+                mapController.update(indexes, minPrice, maxPrice, listings);
+                statisticsController.publish();
+            }
+        }, Platform::runLater, DELAY_MILLIS);
+    }
+
+    /**
+     * Create the pipeline of a dataset and the views showing it, publishing
+     * through the given executor. Used by the tests to run without JavaFX.
+     * @param dataset The dataset to filter.
+     * @param views The views showing the results of a range.
+     * @param publisher Runs the showing of the results.
+     * @param delayMillis The milliseconds a range has to stay the same before it is worked on.
+     */
+    FilterPipeline(DataSet dataset, Views views, Executor publisher, long delayMillis) {
+        this.dataset = dataset;
+        this.views = views;
+        this.publisher = publisher;
+        this.delayMillis = delayMillis;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "filter-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Filter the dataset to a price range, once it has not changed for a
+     * while, superseding any range submitted before. Must be called on
+     * the JavaFX thread.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public void submit(int minPrice, int maxPrice) {
+        long number = latest.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        // the listings are taken now, as the loader may replace them meanwhile
+        DataSet.Indexes indexes = dataset.getIndexes();
+        List<Attraction> attractions = dataset.getAttractionsDataSet();
+        long submitted = System.nanoTime();
+        pending = executor.schedule(() -> run(number, submitted, indexes, attractions, minPrice, maxPrice),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Work out a price range on the pipeline thread, and show it on the JavaFX thread.
+     */
+    private void run(long number, long submitted, DataSet.Indexes indexes, List<Attraction> attractions,
+                     int minPrice, int maxPrice) {
+        long[] nanos = new long[stageNanos.length];
+        long start = System.nanoTime();
+        nanos[Stage.DELAY.ordinal()] = start - submitted;
+
+        ListingRows listings = indexes.getPriceIndex().range(minPrice, maxPrice);
+        start = endStage(nanos, Stage.FILTER, start);
+        if (isSuperseded(number)) {
+            return;
+        }
+
+        views.prepare(indexes, attractions, minPrice, maxPrice);
+        start = endStage(nanos, Stage.STATISTICS, start);
+        if (isSuperseded(number)) {
+            return;
+        }
+
+        long published = start;
+        CountDownLatch shown = new CountDownLatch(1);
+        publisher.execute(() -> {
+            try {
+                publish(number, published, nanos, indexes, minPrice, maxPrice, listings);
+            } finally {
+                shown.countDown();
+            }
+        });
+        try {
+            // the prepared statistics must stay at this range until they are swapped in
+            shown.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Show the results of a price range, unless it was superseded or the
+     * listings were replaced while it was worked on.
+     */
+    private void publish(long number, long start, long[] nanos, DataSet.Indexes indexes, int minPrice, int maxPrice,
+                         ListingRows listings) {
+        if (isSuperseded(number) || !dataset.filterPrice(indexes, minPrice, maxPrice, listings)) {
+            return;
+        }
+        views.publish(indexes, minPrice, maxPrice, listings);
+        endStage(nanos, Stage.PUBLISH, start);
+        synchronized (this) {
+            System.arraycopy(nanos, 0, stageNanos, 0, nanos.length);
+            publishedCount++;
+        }
+        if (FrameTimeMonitor.isEnabled()) {
+            report();
+        }
+    }
+
+    private static long endStage(long[] nanos, Stage stage, long start) {
+        long end = System.nanoTime();
+        nanos[stage.ordinal()] = end - start;
+        return end;
+    }
+
+    /**
+     * @return True if a range was submitted after the range with the number.
+     */
+    private boolean isSuperseded(long number) {
+        if (number == latest.get()) {
+            return false;
+        }
+        synchronized (this) {
+            supersededCount++;
+        }
+        return true;
+    }
+
+    /**
+     * @param stage A stage.
+     * @return The nanoseconds the stage took for the last range shown.
+     */
+    public synchronized long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Print the time each stage took for the last range shown, and the
+     * number of ranges shown and superseded so far.
+     */
+    public synchronized void report() {
+        StringBuilder line = new StringBuilder("Filter pipeline:");
+        for (Stage stage : Stage.values()) {
+            line.append(String.format(Locale.ROOT, " %s %.1f ms,",
+                    stage.name().toLowerCase(Locale.ROOT), stageNanos[stage.ordinal()] / 1e6));
+        }
+        line.append(String.format(Locale.ROOT, " %d shown, %d superseded", publishedCount, supersededCount));
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,86 @@
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Records the time between the frames JavaFX renders, to find out how
+ * smoothly a view scrolls and how long it stalls while changing.
+ *
+ * The monitor is started with the -Dbookings.frameTimes=true option of
+ * the java command; otherwise it records nothing.
+ */
+public class FrameTimeMonitor {
+
+    // the number of frame times kept; older ones are overwritten
+    private static final int CAPACITY = 4096;
+
+    private final AnimationTimer timer;
+    private final long[] frameTimes = new long[CAPACITY];
+    private int frameCount;
+    private long lastFrame;
+
+    /**
+     * Create a monitor. It records nothing until started.
+     */
+    public FrameTimeMonitor() {
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastFrame != 0) {
+                    frameTimes[frameCount++ % CAPACITY] = now - lastFrame;
+                }
+                lastFrame = now;
+            }
+        };
+    }
+
+    /**
+     * @return Whether frame times are to be recorded, as set by -Dbookings.frameTimes=true.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bookings.frameTimes");
+    }
+
+    /**
+     * Start recording frame times.
+     */
+    public void start() {
+        lastFrame = 0;
+        timer.start();
+    }
+
+    /**
+     * Stop recording frame times.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Forget the frame times recorded so far.
+     */
+    public void reset() {
+        frameCount = 0;
+    }
+
+    /**
+     * Print the frame times recorded since the last reset, then reset.
+     * @param label The name of what was shown while the frames were recorded.
+     */
+    public void report(String label) {
+        int count = Math.min(frameCount, CAPACITY);
+        if (count > 0) {
+            long[] times = Arrays.copyOf(frameTimes, count);
+            Arrays.sort(times);
+            long total = 0;
+            for (long time : times) {
+                total += time;
+            }
+            System.out.println(String.format(Locale.ROOT,
+                    "%s: %d frames, average %.1f ms, 95th percentile %.1f ms, longest %.1f ms",
+                    label, count, total / 1e6 / count, times[(int) (count * 0.95)] / 1e6, times[count - 1] / 1e6));
+        }
+        reset();
+    }
+}
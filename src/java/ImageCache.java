@@ -0,0 +1,166 @@
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.net.URL;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The images of the application, shared by every view that shows them.
+ *
+ * An image is decoded once per resource and size. Property photos are
+ * decoded in the background at the size they are shown at, rather than at
+ * full size, and a placeholder is shown until they are ready. The cache
+ * holds at most 64 MB of decoded pixels, or the number of bytes given by
+ * the -Dbookings.imageCacheBytes option of the java command; the images
+ * used least recently are evicted first.
+ */
+public abstract class ImageCache {
+
+    // the decoded size of an image is taken to be 4 bytes per pixel
+    private static final int BYTES_PER_PIXEL = 4;
+    // the key under which an image view keeps the image it is waiting for
+    private static final String PENDING = "ImageCache.pending";
+
+    private static final LruCache<Key, Image> cache = new LruCache<>(
+            Long.getLong("bookings.imageCacheBytes", 64L << 20), ImageCache::getBytes);
+
+    /**
+     * The resource path of an image and the size it is decoded at; a size
+     * of 0 means the size of the image itself.
+     */
+    private static class Key {
+        final String path;
+        final double width;
+        final double height;
+
+        Key(String path, double width, double height) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return path.equals(key.path) && width == key.width && height == key.height;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, width, height);
+        }
+    }
+
+    /**
+     * Get an image at its own size, such as an icon. It is loaded at once.
+     * @param path The resource path of the image, for example "/images/house.png".
+     * @return The image, or null if there is no such resource.
+     */
+    public static Image getImage(String path) {
+        return cache.get(new Key(path, 0, 0), key -> load(key, false));
+    }
+
+    /**
+     * Get an image decoded to fit in a width and height, keeping its
+     * proportions. It is loaded in the background; until its progress
+     * reaches 1 it shows nothing.
+     * @param path The resource path of the image.
+     * @param width The width to fit the image in.
+     * @param height The height to fit the image in.
+     * @return The image, or null if there is no such resource.
+     */
+    public static Image getImage(String path, double width, double height) {
+        return cache.get(new Key(path, width, height), key -> load(key, true));
+    }
+
+    /**
+     * Show an image in an image view, decoded at the fit size of the view.
+     * Until the image is loaded, the view shows a placeholder. If another
+     * image is set on the view meanwhile, as when a list cell is reused,
+     * the image is not shown when it finishes loading.
+     * @param view The view to show the image in.
+     * @param path The resource path of the image.
+     * @param placeholder The image shown while the image loads.
+     */
+    public static void setImage(ImageView view, String path, Image placeholder) {
+        Image image = getImage(path, view.getFitWidth(), view.getFitHeight());
+        if (image == null || image.getProgress() >= 1) {
+            view.getProperties().remove(PENDING);
+            view.setImage(image == null || image.isError() ? placeholder : image);
+            return;
+        }
+        view.getProperties().put(PENDING, image);
+        view.setImage(placeholder);
+        image.progressProperty().addListener(new InvalidationListener() {
+            @Override
+            public void invalidated(Observable observable) {
+                if (image.getProgress() < 1) {
+                    return;
+                }
+                image.progressProperty().removeListener(this);
+                if (view.getProperties().get(PENDING) == image) {
+                    view.getProperties().remove(PENDING);
+                    if (!image.isError()) {
+                        view.setImage(image);
+                    }
+                }
+            }
+        });
+    }
+
+    private static Image load(Key key, boolean backgroundLoading) {
+        URL url = ImageCache.class.getResource(key.path);
+        if (url == null) {
+            System.out.println("Image not found: " + key.path);
+            return null;
+        }
+        return new Image(url.toExternalForm(), key.width, key.height, true, true, backgroundLoading);
+    }
+
+    /**
+     * @return The bytes an image takes when decoded; for an image still
+     * loading, the bytes it takes at most.
+     */
+    private static long getBytes(Image image) {
+        double width = image.getWidth() > 0 ? image.getWidth() : image.getRequestedWidth();
+        double height = image.getHeight() > 0 ? image.getHeight() : image.getRequestedHeight();
+        return (long) Math.ceil(width) * (long) Math.ceil(height) * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * @return The number of lookups that found their image cached.
+     */
+    public static long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return The number of lookups that had to load their image.
+     */
+    public static long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return The bytes taken by the decoded images cached.
+     */
+    public static long getResidentBytes() {
+        return cache.getSize();
+    }
+
+    /**
+     * Print the number of hits, misses and evictions so far, and the memory taken by the images cached.
+     */
+    public static void report() {
+        System.out.println(String.format(Locale.ROOT,
+                "Image cache: %d hits, %d misses, %d evictions, %d images taking %.1f of %.1f MB",
+                cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount(), cache.getCount(),
+                cache.getSize() / 1048576.0, cache.getCapacity() / 1048576.0));
+    }
+}
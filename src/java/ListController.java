@@ -2,12 +2,10 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.geometry.Pos;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Pagination;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.VBox;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +32,10 @@ public class ListController {
     private List<Listing> listings;
     // List of sorted listings to show
     private List<Listing> sortedListings;
+    // The view showing the listings of the current page, shared by all pages
+    private ListView<Listing> listView;
+    // Records frame times while the list is shown, if enabled
+    private FrameTimeMonitor frameTimeMonitor;
 
     // Initial number of listings per page.
     int listingPerPage = 32;
@@ -50,6 +52,16 @@ public class ListController {
      */
     @FXML
     public void initialize() {
+        // the list view only creates cells for the listings on the screen, and reuses them while scrolling
+        listView = new ListView<>();
+        listView.setCellFactory(view -> new PropertySnippetCell(this));
+        listView.setPlaceholder(new Label("No listings found."));
+        listView.getStyleClass().add("snippet-list");
+        if (FrameTimeMonitor.isEnabled()) {
+            frameTimeMonitor = new FrameTimeMonitor();
+            frameTimeMonitor.start();
+        }
+
         pagination.setMaxPageIndicatorCount(5);
         pagination.setPageFactory(pageIndex -> fillPage(pageIndex, listings));
 
@@ -78,33 +90,28 @@ public class ListController {
     }
 
     /**
-     * Generates a scroll pane of listings according to the page of Pagination selected.
+     * Shows the listings of the page of Pagination selected in the list view.
      * @param pageIndex the page of the Pagination
      * @param listings List of properties to display
-     * @return scrollPane of listings for that page
+     * @return the list view, showing the listings of that page
      */
-    public ScrollPane fillPage(int pageIndex, List<Listing> listings) {
-        ScrollPane scrollPane = new ScrollPane();
-        sortedListings = listings;
-        scrollPane.setFitToWidth(true);
-        if (!listings.isEmpty()) {
-            VBox box = new VBox();
-            int pageStartingIndex = pageIndex * listingPerPage;
-            for (int i = pageStartingIndex; i < pageStartingIndex + listingPerPage && i < listings.size(); i++) {
-                Listing listing = listings.get(i);
-                box.getChildren().add(new PropertySnippet(listing, this));
-            }
-            scrollPane.setContent(box);
+    public ListView<Listing> fillPage(int pageIndex, List<Listing> listings) {
+        long start = System.nanoTime();
+        if (frameTimeMonitor != null) {
+            frameTimeMonitor.report("Frames before showing page " + pageIndex);
         }
-        else {
-            VBox box = new VBox();
-            Label label = new Label("No listings found.");
-            box.setAlignment(Pos.CENTER);
-            box.getChildren().add(label);
-            scrollPane.setContent(box);
+        sortedListings = listings;
+        int pageStartingIndex = Math.min(listings.size(), pageIndex * listingPerPage);
+        int pageEndingIndex = Math.min(listings.size(), pageStartingIndex + listingPerPage);
+        listView.getItems().setAll(listings.subList(pageStartingIndex, pageEndingIndex));
+        listView.scrollTo(0);
+        if (frameTimeMonitor != null) {
+            System.out.println(String.format("Page %d of %d listings filled in %.2f ms", pageIndex,
+                    pageEndingIndex - pageStartingIndex, (System.nanoTime() - start) / 1e6));
+            SnippetFactory.report();
+            ImageCache.report();
         }
-        return scrollPane;
-
+        return listView;
     }
 
     /**
@@ -193,29 +200,34 @@ public class ListController {
      * @param ascending String sort direction (valid strings include combobox strings)
      */
     public void refreshPage (String sortType, boolean ascending) {
+        // only the pages shown are sorted, as they are shown
+        List<Listing> sorted;
         switch (sortType) {
             case "Price (per Night)":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByPrice(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.PRICE, ascending, listingPerPage);
                 break;
             case "Minimum Price":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByMinimumPrice(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.MINIMUM_PRICE, ascending, listingPerPage);
                 break;
             case "Minimum Nights":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByMinNights(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.MINIMUM_NIGHTS, ascending, listingPerPage);
                 break;
             case "Number of Reviews":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByReviews(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.REVIEWS, ascending, listingPerPage);
                 break;
             case "Host Name":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByHostName(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.HOST_NAME, ascending, listingPerPage);
                 break;
             case "Host ID":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, Sorter.sortByHostID(listings, ascending)));
+                sorted = new PagedOrdering(listings, SortIndex.Key.HOST_ID, ascending, listingPerPage);
                 break;
             case "None":
-                pagination.setPageFactory(pageIndex -> fillPage(pageIndex, listings));
+                sorted = listings;
                 break;
+            default:
+                return;
         }
+        pagination.setPageFactory(pageIndex -> fillPage(pageIndex, sorted));
     }
 
     public List<Listing> getSortedListings() {
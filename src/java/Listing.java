@@ -2,182 +2,188 @@
 /**
  * Represents one listing of a property for rental on Airbnb.
  * This is essentially one row in the data table. Each column
- * has a corresponding field.
+ * has a corresponding accessor.
+ *
+ * A listing is a lightweight view of one row of a ListingTable;
+ * the values themselves are stored in the columns of the table.
  */
 public class Listing {
     /**
-     * The id and name of the individual property
-     */
-    private String id;
-    private String name;
-    /**
-     * The id and name of the host for this listing.
-     * Each listing has only one host, but one host may
-     * list many properties.
-     */
-    private String host_id;
-    private String host_name;
-
-    /**
-     * The grouped location to where the listed property is situated.
-     * For this data set, it is a london borough.
+     * The table holding the values of this listing, and the index of its row.
      */
-    private String neighbourhood;
+    private final ListingTable table;
+    private final int row;
 
     /**
-     * The location on a map where the property is situated.
-     */
-    private double latitude;
-    private double longitude;
-
-    /**
-     * The type of property, either "Private room" or "Entire Home/apt".
+     * Create a listing which is not part of a dataset, backed by a
+     * table of its own.
      */
-    private String room_type;
+    public Listing(String id, String name, String host_id,
+                   String host_name, String neighbourhood, double latitude,
+                   double longitude, String room_type, int price,
+                   int minimumNights, int numberOfReviews, String lastReview,
+                   double reviewsPerMonth, int calculatedHostListingsCount, int availability365) {
+        ListingTable.Builder builder = new ListingTable.Builder(1);
+        builder.add(id, name, host_id, host_name, neighbourhood, latitude, longitude, room_type,
+                price, minimumNights, numberOfReviews, lastReview,
+                reviewsPerMonth, calculatedHostListingsCount, availability365);
+        this.table = builder.build();
+        this.row = 0;
+    }
 
     /**
-     * The price per night's stay
+     * Create a view of a row of a table.
+     * @param table The table holding the listing.
+     * @param row The index of the row of the listing.
      */
-    private int price;
+    Listing(ListingTable table, int row) {
+        this.table = table;
+        this.row = row;
+    }
 
     /**
-     * The minimum number of nights the listed property must be booked for.
+     * @return The table holding the values of this listing.
      */
-    private int minimumNights;
-    private int numberOfReviews;
+    public ListingTable getTable() {
+        return table;
+    }
 
     /**
-     * The date of the last review, but as a String
+     * @return The index of the row of this listing in its table.
      */
-    private String lastReview;
-    private double reviewsPerMonth;
+    public int getRow() {
+        return row;
+    }
 
     /**
-     * The total number of listings the host holds across AirBnB
-     */
-    private int calculatedHostListingsCount;
-    /**
-     * The total number of days in the year that the property is available for
-     */
-    private int availability365;
-    /**
-     * The filename of the image associated with this property.
+     * The id and name of the individual property
      */
-    private String imageName;
-
-    public Listing(String id, String name, String host_id,
-                   String host_name, String neighbourhood, double latitude,
-                   double longitude, String room_type, int price,
-                   int minimumNights, int numberOfReviews, String lastReview,
-                   double reviewsPerMonth, int calculatedHostListingsCount, int availability365) {
-        this.id = id;
-        this.name = name;
-        this.host_id = host_id;
-        this.host_name = host_name;
-        this.neighbourhood = neighbourhood;
-        this.latitude = latitude;
-        this.longitude = longitude;
-        this.room_type = room_type;
-        this.price = price;
-        this.minimumNights = minimumNights;
-        this.numberOfReviews = numberOfReviews;
-        this.lastReview = lastReview;
-        this.reviewsPerMonth = reviewsPerMonth;
-        this.calculatedHostListingsCount = calculatedHostListingsCount;
-        this.availability365 = availability365;
-    }
-
-
-    public void addImageName(String imageName) {
-        this.imageName = imageName;
-    }
-
     public String getId() {
-        return id;
+        return table.getId(row);
     }
 
     public String getName() {
-        return name;
+        return table.getName(row);
     }
 
+    /**
+     * The id and name of the host for this listing.
+     * Each listing has only one host, but one host may
+     * list many properties.
+     */
     public String getHost_id() {
-        return host_id;
+        return table.getHostId(row);
     }
 
     public String getHost_name() {
-        return host_name;
+        return table.getHostName(row);
     }
 
+    /**
+     * The grouped location to where the listed property is situated.
+     * For this data set, it is a london borough.
+     */
     public String getNeighbourhood() {
-        return neighbourhood;
+        return table.getNeighbourhood(row);
     }
 
+    /**
+     * The location on a map where the property is situated.
+     */
     public double getLatitude() {
-        return latitude;
+        return table.getLatitude(row);
     }
 
     public double getLongitude() {
-        return longitude;
+        return table.getLongitude(row);
     }
 
+    /**
+     * The type of property, either "Private room" or "Entire Home/apt".
+     */
     public String getRoom_type() {
-        return room_type;
+        return table.getRoomType(row);
     }
 
+    /**
+     * The price per night's stay
+     */
     public int getPrice() {
-        return price;
+        return table.getPrice(row);
     }
 
+    /**
+     * The minimum number of nights the listed property must be booked for.
+     */
     public int getMinimumNights() {
-        return minimumNights;
+        return table.getMinimumNights(row);
     }
 
     public int getMinimumPrice() {
-        return minimumNights*price;
+        return getMinimumNights() * getPrice();
     }
 
     public int getNumberOfReviews() {
-        return numberOfReviews;
+        return table.getNumberOfReviews(row);
     }
 
+    /**
+     * The date of the last review as dd/MM/yyyy, or an empty String if there are no reviews.
+     */
     public String getLastReview() {
-        return lastReview;
+        return table.getLastReview(row);
+    }
+
+    /**
+     * The date of the last review in days since 1970-01-01, or FieldParser.NO_DATE if there are no reviews.
+     */
+    public int getLastReviewDay() {
+        return table.getLastReviewDay(row);
     }
 
     public double getReviewsPerMonth() {
-        return reviewsPerMonth;
+        return table.getReviewsPerMonth(row);
     }
 
+    /**
+     * The total number of listings the host holds across AirBnB
+     */
     public int getCalculatedHostListingsCount() {
-        return calculatedHostListingsCount;
+        return table.getCalculatedHostListingsCount(row);
     }
 
+    /**
+     * The total number of days in the year that the property is available for
+     */
     public int getAvailability365() {
-        return availability365;
+        return table.getAvailability365(row);
     }
 
+    /**
+     * The filename of the image associated with this property.
+     */
     public String getImageName() {
-        return imageName;
+        return table.getImageName(row);
     }
 
     @Override
     public String toString() {
         return "Listing{" +
-                "id='" + id + '\'' +
-                ", name='" + name + '\'' +
-                ", host_id='" + host_id + '\'' +
-                ", host_name='" + host_name + '\'' +
-                ", neighbourhood='" + neighbourhood + '\'' +
-                ", latitude=" + latitude +
-                ", longitude=" + longitude +
-                ", room_type='" + room_type + '\'' +
-                ", price=" + price +
-                ", minimumNights=" + minimumNights +
-                ", numberOfReviews=" + numberOfReviews +
-                ", lastReview='" + lastReview + '\'' +
-                ", reviewsPerMonth=" + reviewsPerMonth +
-                ", calculatedHostListingsCount=" + calculatedHostListingsCount +
-                ", availability365=" + availability365 +
+                "id='" + getId() + '\'' +
+                ", name='" + getName() + '\'' +
+                ", host_id='" + getHost_id() + '\'' +
+                ", host_name='" + getHost_name() + '\'' +
+                ", neighbourhood='" + getNeighbourhood() + '\'' +
+                ", latitude=" + getLatitude() +
+                ", longitude=" + getLongitude() +
+                ", room_type='" + getRoom_type() + '\'' +
+                ", price=" + getPrice() +
+                ", minimumNights=" + getMinimumNights() +
+                ", numberOfReviews=" + getNumberOfReviews() +
+                ", lastReview='" + getLastReview() + '\'' +
+                ", reviewsPerMonth=" + getReviewsPerMonth() +
+                ", calculatedHostListingsCount=" + getCalculatedHostListingsCount() +
+                ", availability365=" + getAvailability365() +
                 '}';
     }
 
@@ -190,6 +196,14 @@ public class Listing {
             return false;
         }
         Listing listing = (Listing) obj;
-        return (id.equals(listing.getId()) && host_id.equals(listing.getHost_id()));
+        return (getId().equals(listing.getId()) && getHost_id().equals(listing.getHost_id()));
+    }
+
+    /**
+     * Listings are equal if they have the same id and host id, whichever table they are in.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * getId().hashCode() + getHost_id().hashCode();
     }
 }
@@ -0,0 +1,515 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads an Airbnb listings csv file in parallel.
+ *
+ * The file is split into byte ranges which always start and end on a
+ * record boundary (quoted fields may contain line breaks, so the split
+ * points are found with a quote-aware scan). Every range is then parsed
+ * on its own fork-join task, and the results are merged back in file order.
+ *
+ * Rows that cannot be parsed are skipped and reported through getErrors(),
+ * each with its line number in the file.
+ */
+public class ListingIngester {
+
+    // number of columns in a row of the listings csv file
+    private static final int COLUMNS = 15;
+    // the names of the columns, used in the error messages
+    private static final String[] COLUMN_NAMES = {
+            "id", "name", "host_id", "host_name", "neighbourhood", "latitude", "longitude", "room_type",
+            "price", "minimum_nights", "number_of_reviews", "last_review", "reviews_per_month",
+            "calculated_host_listings_count", "availability_365"
+    };
+    // returned by date for a field which is not a date; no parsed date is this early
+    private static final int MALFORMED_DATE = FieldParser.NO_DATE + 1;
+    // ranges smaller than this are not worth a task of their own
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    private final ForkJoinPool pool;
+    // the smallest range of the file given a task of its own
+    private final int minChunkSize;
+    // the errors found during the last ingestion, in file order
+    private List<String> errors;
+    // the rows of the last ingestion kept without a field, in file order
+    private List<String> warnings;
+    // statistics of the last ingestion
+    private int rowCount;
+    private long elapsedNanos;
+
+    /**
+     * Create an ingester which runs on the common fork-join pool.
+     */
+    public ListingIngester() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create an ingester which runs on the given pool.
+     * @param pool The pool to parse the chunks of the file on.
+     */
+    public ListingIngester(ForkJoinPool pool) {
+        this(pool, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Create an ingester which runs on the given pool, splitting files into
+     * ranges of at least the given size. Used by the tests to split small files.
+     * @param pool The pool to parse the chunks of the file on.
+     * @param minChunkSize The smallest range of a file given a task of its own, in bytes.
+     */
+    ListingIngester(ForkJoinPool pool, int minChunkSize) {
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+        errors = new ArrayList<>();
+        warnings = new ArrayList<>();
+    }
+
+    /**
+     * Parse all the rows of the given csv file. The first row is
+     * expected to hold the column headers and is skipped.
+     * @param file The csv file to parse.
+     * @return A table of the listings of the file, in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public ListingTable ingest(Path file) throws IOException {
+        long start = System.nanoTime();
+        byte[] data = Files.readAllBytes(file);
+
+        List<Chunk> chunks = split(data, pool.getParallelism(), minChunkSize);
+        ChunkResult result = pool.invoke(new ChunkTask(data, chunks, 0, chunks.size()));
+
+        ListingTable table = result.rows.build();
+        errors = result.errors;
+        warnings = result.warnings;
+        rowCount = table.size();
+        elapsedNanos = System.nanoTime() - start;
+        return table;
+    }
+
+    /**
+     * Parse all the rows of the given csv file in batches, handing the rows
+     * parsed so far on after each batch. The first batch is a single range
+     * of the file, so the first rows are available quickly, and every batch
+     * after it is twice the size of the one before, so only a few tables
+     * are built on the way.
+     * @param file The csv file to parse.
+     * @param listener Receives the rows parsed so far after each batch, on the calling thread.
+     * @return A table of the listings of the file, in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public ListingTable ingest(Path file, BatchListener listener) throws IOException {
+        long start = System.nanoTime();
+        byte[] data = Files.readAllBytes(file);
+
+        List<Chunk> chunks = split(data, pool.getParallelism(), minChunkSize);
+        ChunkResult result = new ChunkResult();
+        ListingTable table = ListingTable.empty();
+        int batchSize = 1;
+        for (int from = 0; from < chunks.size(); from += batchSize, batchSize *= 2) {
+            int to = Math.min(chunks.size(), from + batchSize);
+            ChunkResult batch = pool.invoke(new ChunkTask(data, chunks, from, to));
+            result.rows.addAll(batch.rows);
+            result.errors.addAll(batch.errors);
+            result.warnings.addAll(batch.warnings);
+            table = result.rows.build();
+            listener.batchParsed(table, chunks.get(to - 1).end, data.length);
+        }
+
+        errors = result.errors;
+        warnings = result.warnings;
+        rowCount = table.size();
+        elapsedNanos = System.nanoTime() - start;
+        return table;
+    }
+
+    /**
+     * Receives the rows of a file parsed in batches.
+     */
+    public interface BatchListener {
+        /**
+         * Called after each batch.
+         * @param table The rows parsed so far, in file order.
+         * @param bytesParsed The number of bytes of the file parsed so far.
+         * @param bytesTotal The size of the file in bytes.
+         */
+        void batchParsed(ListingTable table, long bytesParsed, long bytesTotal);
+    }
+
+    /**
+     * @return The errors found in the last ingested file, one per malformed row skipped.
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return The warnings of the last ingested file, one per row kept without
+     *         its unreadable date of last review.
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * @return The number of rows successfully parsed from the last ingested file.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return The time the last ingestion took in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * @return The parsing throughput of the last ingestion in rows per second.
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return rowCount / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Split the data into roughly equal ranges, each starting right after
+     * a line break that is not inside a quoted field. The header row is
+     * never part of a range.
+     * @param data The content of the csv file.
+     * @param parallelism The number of threads the ranges will be parsed on.
+     * @param minChunkSize The smallest range worth a task of its own, in bytes.
+     * @return The ranges in file order.
+     */
+    static List<Chunk> split(byte[] data, int parallelism, int minChunkSize) {
+        int chunkSize = Math.max(minChunkSize, data.length / (parallelism * 4) + 1);
+        List<Chunk> chunks = new ArrayList<>();
+
+        boolean quoted = false;
+        boolean header = true;
+        int line = 1;
+        int chunkStart = 0;
+        int chunkLine = 1;
+        int nextSplit = 0;
+        for (int i = 0; i < data.length; i++) {
+            byte b = data[i];
+            if (b == '"') {
+                if (quoted) {
+                    if (i + 1 < data.length && data[i + 1] == '"') {
+                        // an escaped quote inside a quoted field
+                        i++;
+                    }
+                    else {
+                        quoted = false;
+                    }
+                }
+                else if (i == 0 || data[i - 1] == ',' || data[i - 1] == '\n') {
+                    quoted = true;
+                }
+            }
+            else if (b == '\n') {
+                line++;
+                if (!quoted) {
+                    if (header) {
+                        // the data starts after the column headers
+                        header = false;
+                        chunkStart = i + 1;
+                        chunkLine = line;
+                        nextSplit = chunkStart + chunkSize;
+                    }
+                    else if (i + 1 >= nextSplit) {
+                        chunks.add(new Chunk(chunkStart, i + 1, chunkLine));
+                        chunkStart = i + 1;
+                        chunkLine = line;
+                        nextSplit = chunkStart + chunkSize;
+                    }
+                }
+            }
+        }
+        if (!header && chunkStart < data.length) {
+            chunks.add(new Chunk(chunkStart, data.length, chunkLine));
+        }
+        return chunks;
+    }
+
+    /**
+     * Parse every record of a range of the file.
+     * @param data The content of the csv file.
+     * @param chunk The range to parse.
+     * @return The rows and errors of the range.
+     */
+    static ChunkResult parseChunk(byte[] data, Chunk chunk) {
+        ChunkResult result = new ChunkResult();
+        int[] starts = new int[COLUMNS];
+        int[] ends = new int[COLUMNS];
+        boolean[] escaped = new boolean[COLUMNS];
+
+        int position = chunk.start;
+        int line = chunk.firstLine;
+        while (position < chunk.end) {
+            int recordLine = line;
+            int fields = 0;
+            boolean quoted = false;
+            int fieldStart = position;
+            boolean fieldQuoted = false;
+            boolean fieldEscaped = false;
+            int i = position;
+            // find the field boundaries of one record
+            for (; i < chunk.end; i++) {
+                byte b = data[i];
+                if (b == '"') {
+                    if (quoted) {
+                        if (i + 1 < chunk.end && data[i + 1] == '"') {
+                            // an escaped quote inside a quoted field
+                            fieldEscaped = true;
+                            i++;
+                        }
+                        else {
+                            quoted = false;
+                        }
+                    }
+                    else if (i == fieldStart) {
+                        fieldQuoted = true;
+                        quoted = true;
+                    }
+                }
+                else if (b == '\n' && quoted) {
+                    line++;
+                }
+                else if ((b == ',' || b == '\n') && !quoted) {
+                    if (fields < COLUMNS) {
+                        setField(data, fields, fieldStart, i, fieldQuoted, fieldEscaped, starts, ends, escaped);
+                    }
+                    fields++;
+                    fieldStart = i + 1;
+                    fieldQuoted = false;
+                    fieldEscaped = false;
+                    if (b == '\n') {
+                        break;
+                    }
+                }
+            }
+            int recordEnd = i;
+            if (i >= chunk.end && fieldStart <= chunk.end) {
+                // last record of the file without a trailing line break
+                if (fieldStart < chunk.end || fields > 0) {
+                    if (fields < COLUMNS) {
+                        setField(data, fields, fieldStart, chunk.end, fieldQuoted, fieldEscaped, starts, ends, escaped);
+                    }
+                    fields++;
+                }
+            }
+            position = recordEnd + 1;
+            line++;
+
+            if (fields == 0 || (fields == 1 && ends[0] - starts[0] == 0)) {
+                // blank line
+                continue;
+            }
+            if (quoted) {
+                result.errors.add("Line " + recordLine + ": unterminated quoted field");
+                continue;
+            }
+            if (fields != COLUMNS) {
+                result.errors.add("Line " + recordLine + ": expected " + COLUMNS + " columns but found " + fields);
+                continue;
+            }
+            try {
+                addRow(result, recordLine, data, starts, ends, escaped);
+            }
+            catch (MalformedFieldException e) {
+                result.errors.add("Line " + recordLine + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Store the boundaries of a field, stripping the enclosing quotes
+     * and a trailing carriage return.
+     */
+    private static void setField(byte[] data, int field, int start, int end, boolean quoted, boolean escaped,
+                                 int[] starts, int[] ends, boolean[] escapedFields) {
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        if (quoted && end - start >= 2 && data[end - 1] == '"') {
+            start++;
+            end--;
+        }
+        starts[field] = start;
+        ends[field] = end;
+        escapedFields[field] = escaped;
+    }
+
+    /**
+     * Add the fields of one record to the table being built. A date of
+     * last review which cannot be parsed is reported as a warning, and the
+     * row is kept without one.
+     * @throws MalformedFieldException If a numeric field cannot be parsed.
+     */
+    private static void addRow(ChunkResult result, int line, byte[] data, int[] starts, int[] ends, boolean[] escaped)
+            throws MalformedFieldException {
+        String id = text(data, 0, starts, ends, escaped);
+        String name = text(data, 1, starts, ends, escaped);
+        String host_id = text(data, 2, starts, ends, escaped);
+        String host_name = text(data, 3, starts, ends, escaped);
+        String neighbourhood = text(data, 4, starts, ends, escaped);
+        double latitude = decimal(data, 5, starts, ends, escaped);
+        double longitude = decimal(data, 6, starts, ends, escaped);
+        String room_type = text(data, 7, starts, ends, escaped);
+        int price = integer(data, 8, starts, ends, escaped);
+        int minimumNights = integer(data, 9, starts, ends, escaped);
+        int numberOfReviews = integer(data, 10, starts, ends, escaped);
+        int lastReview = date(data, 11, starts, ends, escaped);
+        boolean malformedDate = lastReview == MALFORMED_DATE;
+        if (malformedDate) {
+            lastReview = FieldParser.NO_DATE;
+        }
+        double reviewsPerMonth = decimal(data, 12, starts, ends, escaped);
+        int calculatedHostListingsCount = integer(data, 13, starts, ends, escaped);
+        int availability365 = integer(data, 14, starts, ends, escaped);
+
+        result.rows.add(id, name, host_id,
+                host_name, neighbourhood, latitude, longitude, room_type,
+                price, minimumNights, numberOfReviews, lastReview,
+                reviewsPerMonth, calculatedHostListingsCount, availability365
+        );
+        // only a row which is kept is warned about
+        if (malformedDate) {
+            result.warnings.add("Line " + line + ": column '" + COLUMN_NAMES[11] + "' is not a date: '"
+                    + text(data, 11, starts, ends, escaped) + "', the listing is kept without it");
+        }
+    }
+
+    /**
+     * Decode a text field, replacing escaped double quotes.
+     */
+    private static String text(byte[] data, int field, int[] starts, int[] ends, boolean[] escaped) {
+        String value = new String(data, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+        if (escaped[field]) {
+            value = value.replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    private static double decimal(byte[] data, int field, int[] starts, int[] ends, boolean[] escaped)
+            throws MalformedFieldException {
+        try {
+            return FieldParser.parseDouble(data, starts[field], ends[field]);
+        }
+        catch (NumberFormatException e) {
+            throw new MalformedFieldException(field, text(data, field, starts, ends, escaped));
+        }
+    }
+
+    /**
+     * @return The day number of a date field, FieldParser.NO_DATE if it is empty,
+     *         or MALFORMED_DATE if it is not a date.
+     */
+    private static int date(byte[] data, int field, int[] starts, int[] ends, boolean[] escaped) {
+        try {
+            return FieldParser.parseDate(data, starts[field], ends[field]);
+        }
+        catch (NumberFormatException e) {
+            return MALFORMED_DATE;
+        }
+    }
+
+    private static int integer(byte[] data, int field, int[] starts, int[] ends, boolean[] escaped)
+            throws MalformedFieldException {
+        try {
+            return FieldParser.parseInt(data, starts[field], ends[field]);
+        }
+        catch (NumberFormatException e) {
+            throw new MalformedFieldException(field, text(data, field, starts, ends, escaped));
+        }
+    }
+
+    /**
+     * A range of the csv file which starts and ends on a record boundary.
+     */
+    static class Chunk {
+        final int start;
+        final int end;
+        // the line number of the first record in the range
+        final int firstLine;
+
+        Chunk(int start, int end, int firstLine) {
+            this.start = start;
+            this.end = end;
+            this.firstLine = firstLine;
+        }
+    }
+
+    /**
+     * The rows, errors and warnings parsed from one or more consecutive ranges.
+     */
+    static class ChunkResult {
+        final ListingTable.Builder rows = new ListingTable.Builder();
+        final List<String> errors = new ArrayList<>();
+        final List<String> warnings = new ArrayList<>();
+    }
+
+    /**
+     * Parses a run of consecutive ranges, splitting it in halves
+     * until a single range is left, and merges the halves in order.
+     */
+    private static class ChunkTask extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] data;
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(byte[] data, List<Chunk> chunks, int from, int to) {
+            this.data = data;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (to - from == 0) {
+                return new ChunkResult();
+            }
+            if (to - from == 1) {
+                return parseChunk(data, chunks.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(data, chunks, from, middle);
+            ChunkTask right = new ChunkTask(data, chunks, middle, to);
+            right.fork();
+            ChunkResult result = left.compute();
+            ChunkResult rightResult = right.join();
+            result.rows.addAll(rightResult.rows);
+            result.errors.addAll(rightResult.errors);
+            result.warnings.addAll(rightResult.warnings);
+            return result;
+        }
+    }
+
+    /**
+     * Thrown when a numeric field of a row does not hold a number.
+     */
+    private static class MalformedFieldException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        MalformedFieldException(int field, String value) {
+            super("column '" + COLUMN_NAMES[field] + "' is not a number: '" + value + "'");
+        }
+    }
+}
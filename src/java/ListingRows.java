@@ -0,0 +1,84 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of some of the rows of a ListingTable.
+ *
+ * The list holds the row indices only; the Listing views are created
+ * when an element is accessed.
+ */
+public class ListingRows extends AbstractList<Listing> implements RandomAccess {
+
+    private final ListingTable table;
+    // the row indices, of which [from, to) belong to this list
+    private final int[] rows;
+    private final int from;
+    private final int to;
+    // the position of each table row in this list, or -1; created on first use by indexOf
+    private int[] positions;
+
+    /**
+     * Create a list of the rows stored in rows[from] to rows[to - 1].
+     * The array is not copied, so it must not be changed afterwards.
+     * @param table The table the rows belong to.
+     * @param rows The array holding the row indices.
+     * @param from The index of the first row index in the array.
+     * @param to The index after the last row index in the array.
+     */
+    public ListingRows(ListingTable table, int[] rows, int from, int to) {
+        this.table = table;
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Listing get(int index) {
+        return table.get(rowAt(index));
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Find the position of a listing. For a listing of the same table, the
+     * position is looked up by its row, so only the first lookup scans the list.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Listing) || ((Listing) o).getTable() != table) {
+            return super.indexOf(o);
+        }
+        if (positions == null) {
+            int[] positions = new int[table.size()];
+            Arrays.fill(positions, -1);
+            // backwards, so a row listed twice maps to its first position
+            for (int i = to - 1; i >= from; i--) {
+                positions[rows[i]] = i - from;
+            }
+            this.positions = positions;
+        }
+        return positions[((Listing) o).getRow()];
+    }
+
+    /**
+     * @param index The position in the list.
+     * @return The index of the table row at the given position.
+     */
+    public int rowAt(int index) {
+        if (index < 0 || index >= to - from) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return rows[from + index];
+    }
+
+    /**
+     * @return The table the rows belong to.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list of distinct listings, in the order they were added, which tells
+ * in constant time whether a listing is in it, and adds and removes
+ * listings in constant time.
+ *
+ * A removed listing leaves a gap in the list, which is closed the next
+ * time the list is read by position; so reading is also constant time,
+ * except for the first read after a removal.
+ */
+public class ListingSet extends AbstractList<Listing> implements RandomAccess {
+
+    // the listings in order, with null where a listing was removed
+    private final List<Listing> listings = new ArrayList<>();
+    // the position of each listing in listings
+    private final Map<Listing, Integer> positions = new HashMap<>();
+    // the number of gaps in listings
+    private int gaps;
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public Listing get(int index) {
+        closeGaps();
+        return listings.get(index);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return positions.containsKey(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        closeGaps();
+        Integer position = positions.get(o);
+        return position == null ? -1 : position;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * Add a listing at the end, unless it is already in the set.
+     * @param listing The listing to add.
+     * @return True if the listing was added, false if it was already in the set.
+     */
+    @Override
+    public boolean add(Listing listing) {
+        if (positions.containsKey(listing)) {
+            return false;
+        }
+        positions.put(listing, listings.size());
+        listings.add(listing);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Integer position = positions.remove(o);
+        if (position == null) {
+            return false;
+        }
+        listings.set(position, null);
+        gaps++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove a listing if it is in the set, otherwise add it at the end.
+     * @param listing The listing.
+     * @return True if the listing is now in the set.
+     */
+    public boolean toggle(Listing listing) {
+        if (remove(listing)) {
+            return false;
+        }
+        add(listing);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        listings.clear();
+        positions.clear();
+        gaps = 0;
+        modCount++;
+    }
+
+    /**
+     * Move the listings after each gap forward, and update their positions.
+     */
+    private void closeGaps() {
+        if (gaps == 0) {
+            return;
+        }
+        int size = 0;
+        for (Listing listing : listings) {
+            if (listing != null) {
+                positions.put(listing, size);
+                listings.set(size++, listing);
+            }
+        }
+        listings.subList(size, listings.size()).clear();
+        gaps = 0;
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A binary snapshot of a parsed listings csv file, so later startups
+ * can skip parsing the csv.
+ *
+ * The snapshot stores the columns of a ListingTable one after another,
+ * and is read back through a memory mapping. Its header records the size
+ * and modification time of the csv it was made from, so the snapshot is
+ * ignored (and rewritten) as soon as the csv changes, as well as a CRC32
+ * checksum of the content, so a damaged snapshot is never used.
+ */
+public class ListingSnapshot {
+
+    // "BKSN", identifies the file as a snapshot
+    private static final int MAGIC = 0x424B534E;
+    // incremented every time the layout of the columns changes
+    private static final int VERSION = 2;
+    // magic, version, csv size, csv modification time, content length, checksum
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 8;
+
+    // the csv file the snapshot is made from
+    private final Path csvFile;
+    // the snapshot file
+    private final Path snapshotFile;
+
+    /**
+     * Create the snapshot of a csv file, stored in the cache directory
+     * of the application in the user's home directory.
+     * @param csvFile The csv file the snapshot is made from.
+     */
+    public ListingSnapshot(Path csvFile) {
+        this(csvFile, getDefaultCacheDirectory().resolve(csvFile.getFileName().toString() + ".snapshot"));
+    }
+
+    /**
+     * Create the snapshot of a csv file, stored in a cache directory.
+     * @param csvFile The csv file the snapshot is made from.
+     * @param cacheDirectory The directory holding the snapshots.
+     * @return The snapshot.
+     */
+    public static ListingSnapshot inDirectory(Path csvFile, Path cacheDirectory) {
+        return new ListingSnapshot(csvFile, cacheDirectory.resolve(csvFile.getFileName().toString() + ".snapshot"));
+    }
+
+    /**
+     * @return The cache directory of the application in the user's home directory.
+     */
+    public static Path getDefaultCacheDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".bookings", "cache");
+    }
+
+    /**
+     * Create the snapshot of a csv file, stored in the given file.
+     * @param csvFile The csv file the snapshot is made from.
+     * @param snapshotFile The file holding the snapshot.
+     */
+    public ListingSnapshot(Path csvFile, Path snapshotFile) {
+        this.csvFile = csvFile;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Read the snapshot if it exists and is valid for the current csv file.
+     * @return The table stored in the snapshot, or null if there is no usable snapshot.
+     */
+    public ListingTable read() {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            if (buffer.getLong() != Files.size(csvFile)
+                    || buffer.getLong() != Files.getLastModifiedTime(csvFile).toMillis()) {
+                // the csv file changed since the snapshot was written
+                return null;
+            }
+            long length = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (length != channel.size() - HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer content = buffer.slice();
+            CRC32 crc = new CRC32();
+            crc.update(content.duplicate());
+            if (crc.getValue() != checksum) {
+                return null;
+            }
+            return readColumns(content);
+        }
+        catch (IOException | RuntimeException e) {
+            // a snapshot which cannot be read is simply not used
+            return null;
+        }
+    }
+
+    /**
+     * Write a snapshot of the table. The snapshot is written to a temporary
+     * file first and moved into place when complete.
+     * @param table The table parsed from the csv file.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void write(ListingTable table) throws IOException {
+        Files.createDirectories(snapshotFile.getParent());
+        Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        long csvSize = Files.size(csvFile);
+        long csvModified = Files.getLastModifiedTime(csvFile).toMillis();
+
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporaryFile)) {
+            file.write(new byte[HEADER_SIZE]);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            writeColumns(table, out);
+            out.flush();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(temporaryFile.toFile(), "rw")) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeLong(csvSize);
+            file.writeLong(csvModified);
+            file.writeLong(file.length() - HEADER_SIZE);
+            file.writeLong(crc.getValue());
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return The file holding the snapshot.
+     */
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    private static void writeColumns(ListingTable table, DataOutputStream out) throws IOException {
+        int size = table.size();
+        out.writeInt(size);
+        for (int row = 0; row < size; row++) writeString(out, table.getId(row));
+        for (int row = 0; row < size; row++) writeString(out, table.getName(row));
+        for (int row = 0; row < size; row++) out.writeDouble(table.getLatitude(row));
+        for (int row = 0; row < size; row++) out.writeDouble(table.getLongitude(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getPrice(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getMinimumNights(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getNumberOfReviews(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getLastReviewDay(row));
+        for (int row = 0; row < size; row++) out.writeDouble(table.getReviewsPerMonth(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getCalculatedHostListingsCount(row));
+        for (int row = 0; row < size; row++) out.writeInt(table.getAvailability365(row));
+
+        for (int row = 0; row < size; row++) out.writeInt(table.getHostIdCode(row));
+        out.writeInt(table.getHostIdCount());
+        for (int code = 0; code < table.getHostIdCount(); code++) writeString(out, table.getHostIdValue(code));
+        for (int row = 0; row < size; row++) out.writeInt(table.getHostNameCode(row));
+        out.writeInt(table.getHostNameCount());
+        for (int code = 0; code < table.getHostNameCount(); code++) writeString(out, table.getHostNameValue(code));
+        for (int row = 0; row < size; row++) out.writeInt(table.getNeighbourhoodCode(row));
+        out.writeInt(table.getNeighbourhoodCount());
+        for (int code = 0; code < table.getNeighbourhoodCount(); code++) writeString(out, table.getNeighbourhoodValue(code));
+        for (int row = 0; row < size; row++) out.writeInt(table.getRoomTypeCode(row));
+        out.writeInt(table.getRoomTypeCount());
+        for (int code = 0; code < table.getRoomTypeCount(); code++) writeString(out, table.getRoomTypeValue(code));
+    }
+
+    private static ListingTable readColumns(ByteBuffer in) {
+        int size = in.getInt();
+        String[] ids = readStrings(in, size);
+        String[] names = readStrings(in, size);
+        double[] latitudes = readDoubles(in, size);
+        double[] longitudes = readDoubles(in, size);
+        int[] prices = readInts(in, size);
+        int[] minimumNights = readInts(in, size);
+        int[] numberOfReviews = readInts(in, size);
+        int[] lastReviews = readInts(in, size);
+        double[] reviewsPerMonth = readDoubles(in, size);
+        int[] calculatedHostListingsCounts = readInts(in, size);
+        int[] availability365 = readInts(in, size);
+
+        int[] hostIdCodes = readInts(in, size);
+        String[] hostIds = readStrings(in, in.getInt());
+        int[] hostNameCodes = readInts(in, size);
+        String[] hostNames = readStrings(in, in.getInt());
+        int[] neighbourhoodCodes = readInts(in, size);
+        String[] neighbourhoods = readStrings(in, in.getInt());
+        int[] roomTypeCodes = readInts(in, size);
+        String[] roomTypes = readStrings(in, in.getInt());
+
+        return new ListingTable(size, ids, names, latitudes, longitudes, prices, minimumNights,
+                numberOfReviews, lastReviews, reviewsPerMonth, calculatedHostListingsCounts, availability365,
+                hostIdCodes, hostIds, hostNameCodes, hostNames,
+                neighbourhoodCodes, neighbourhoods, roomTypeCodes, roomTypes);
+    }
+
+    /**
+     * Write a String as its length in bytes followed by its UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String[] readStrings(ByteBuffer in, int count) {
+        String[] values = new String[count];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < count; i++) {
+            int length = in.getInt();
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            in.get(bytes, 0, length);
+            values[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static double[] readDoubles(ByteBuffer in, int count) {
+        double[] values = new double[count];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + count * Double.BYTES);
+        return values;
+    }
+}
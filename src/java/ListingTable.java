@@ -0,0 +1,493 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column oriented storage of the listings of a dataset.
+ *
+ * Every column of the csv file is held in its own array, with one entry
+ * per row. Numeric columns are primitive arrays, the date of the last
+ * review is stored as a day number, and the columns with few distinct
+ * values (neighbourhood, room type, host id and host name) are dictionary
+ * encoded: the rows hold small integer codes and every distinct value is
+ * stored once.
+ *
+ * Listing objects are lightweight views of a single row, created on demand.
+ */
+public class ListingTable {
+
+    // the format the date of the last review is shown in, as in the csv file
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final int size;
+
+    private final String[] ids;
+    private final String[] names;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] prices;
+    private final int[] minimumNights;
+    private final int[] numberOfReviews;
+    // the days since 1970-01-01, or FieldParser.NO_DATE
+    private final int[] lastReviews;
+    private final double[] reviewsPerMonth;
+    private final int[] calculatedHostListingsCounts;
+    private final int[] availability365;
+
+    // dictionary encoded columns: the codes per row, and the value of each code
+    private final int[] hostIdCodes;
+    private final String[] hostIds;
+    private final int[] hostNameCodes;
+    private final String[] hostNames;
+    private final int[] neighbourhoodCodes;
+    private final String[] neighbourhoods;
+    // the borough id of each neighbourhood code, as used by the map
+    private final String[] neighbourhoodIds;
+    private final int[] roomTypeCodes;
+    private final String[] roomTypes;
+
+    // the sort orderings of the rows, created on first use
+    private SortIndex sortIndex;
+
+    /**
+     * Create a table from its columns. The arrays are not copied.
+     */
+    ListingTable(int size, String[] ids, String[] names, double[] latitudes, double[] longitudes,
+                 int[] prices, int[] minimumNights, int[] numberOfReviews, int[] lastReviews,
+                 double[] reviewsPerMonth, int[] calculatedHostListingsCounts, int[] availability365,
+                 int[] hostIdCodes, String[] hostIds, int[] hostNameCodes, String[] hostNames,
+                 int[] neighbourhoodCodes, String[] neighbourhoods, int[] roomTypeCodes, String[] roomTypes) {
+        this.size = size;
+        this.ids = ids;
+        this.names = names;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.prices = prices;
+        this.minimumNights = minimumNights;
+        this.numberOfReviews = numberOfReviews;
+        this.lastReviews = lastReviews;
+        this.reviewsPerMonth = reviewsPerMonth;
+        this.calculatedHostListingsCounts = calculatedHostListingsCounts;
+        this.availability365 = availability365;
+        this.hostIdCodes = hostIdCodes;
+        this.hostIds = hostIds;
+        this.hostNameCodes = hostNameCodes;
+        this.hostNames = hostNames;
+        this.neighbourhoodCodes = neighbourhoodCodes;
+        this.neighbourhoods = neighbourhoods;
+        neighbourhoodIds = new String[neighbourhoods.length];
+        for (int code = 0; code < neighbourhoods.length; code++) {
+            neighbourhoodIds[code] = Borough.getId(neighbourhoods[code]);
+        }
+        this.roomTypeCodes = roomTypeCodes;
+        this.roomTypes = roomTypes;
+    }
+
+    /**
+     * @return An empty table.
+     */
+    public static ListingTable empty() {
+        return new Builder().build();
+    }
+
+    /**
+     * @return The number of rows in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create a view of a single row.
+     * @param row The index of the row.
+     * @return The listing stored in the row.
+     */
+    public Listing get(int row) {
+        return new Listing(this, row);
+    }
+
+    /**
+     * @return The sort orderings of the rows, shared by every user of the table.
+     */
+    public synchronized SortIndex getSortIndex() {
+        if (sortIndex == null) {
+            sortIndex = new SortIndex(this);
+        }
+        return sortIndex;
+    }
+
+    /**
+     * @return A list view of all the rows of the table, in order.
+     */
+    public ListingRows rows() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return new ListingRows(this, rows, 0, size);
+    }
+
+    public String getId(int row) {
+        return ids[row];
+    }
+
+    public String getName(int row) {
+        return names[row];
+    }
+
+    public String getHostId(int row) {
+        return hostIds[hostIdCodes[row]];
+    }
+
+    public String getHostName(int row) {
+        return hostNames[hostNameCodes[row]];
+    }
+
+    public String getNeighbourhood(int row) {
+        return neighbourhoods[neighbourhoodCodes[row]];
+    }
+
+    public double getLatitude(int row) {
+        return latitudes[row];
+    }
+
+    public double getLongitude(int row) {
+        return longitudes[row];
+    }
+
+    public String getRoomType(int row) {
+        return roomTypes[roomTypeCodes[row]];
+    }
+
+    public int getPrice(int row) {
+        return prices[row];
+    }
+
+    public int getMinimumNights(int row) {
+        return minimumNights[row];
+    }
+
+    public int getNumberOfReviews(int row) {
+        return numberOfReviews[row];
+    }
+
+    /**
+     * @return The date of the last review of the row as dd/MM/yyyy, or an empty String if it has no reviews.
+     */
+    public String getLastReview(int row) {
+        int day = lastReviews[row];
+        return day == FieldParser.NO_DATE ? "" : LocalDate.ofEpochDay(day).format(DATE_FORMAT);
+    }
+
+    /**
+     * @return The date of the last review of the row in days since 1970-01-01, or FieldParser.NO_DATE.
+     */
+    public int getLastReviewDay(int row) {
+        return lastReviews[row];
+    }
+
+    public double getReviewsPerMonth(int row) {
+        return reviewsPerMonth[row];
+    }
+
+    public int getCalculatedHostListingsCount(int row) {
+        return calculatedHostListingsCounts[row];
+    }
+
+    public int getAvailability365(int row) {
+        return availability365[row];
+    }
+
+    /**
+     * @return The resource path of the image shown for the row, chosen by its id.
+     */
+    public String getImageName(int row) {
+        return PropertyImages.getImage(ids[row]);
+    }
+
+    /*
+     * Access to the dictionary encoded columns.
+     */
+
+    public int getHostIdCode(int row) {
+        return hostIdCodes[row];
+    }
+
+    public int getHostIdCount() {
+        return hostIds.length;
+    }
+
+    public String getHostIdValue(int code) {
+        return hostIds[code];
+    }
+
+    public int getHostNameCode(int row) {
+        return hostNameCodes[row];
+    }
+
+    public int getHostNameCount() {
+        return hostNames.length;
+    }
+
+    public String getHostNameValue(int code) {
+        return hostNames[code];
+    }
+
+    public int getNeighbourhoodCode(int row) {
+        return neighbourhoodCodes[row];
+    }
+
+    public int getNeighbourhoodCount() {
+        return neighbourhoods.length;
+    }
+
+    public String getNeighbourhoodValue(int code) {
+        return neighbourhoods[code];
+    }
+
+    /**
+     * @param code A neighbourhood code.
+     * @return The id of the borough of the neighbourhood, worked out once when the table is created.
+     */
+    public String getNeighbourhoodId(int code) {
+        return neighbourhoodIds[code];
+    }
+
+    /**
+     * @param neighbourhood The name of a neighbourhood.
+     * @return The code of the neighbourhood, or -1 if no row is in it.
+     */
+    public int findNeighbourhood(String neighbourhood) {
+        return indexOf(neighbourhoods, neighbourhood);
+    }
+
+    public int getRoomTypeCode(int row) {
+        return roomTypeCodes[row];
+    }
+
+    public int getRoomTypeCount() {
+        return roomTypes.length;
+    }
+
+    public String getRoomTypeValue(int code) {
+        return roomTypes[code];
+    }
+
+    /**
+     * @param roomType A room type, for example "Entire home/apt".
+     * @return The code of the room type, or -1 if no row has it.
+     */
+    public int findRoomType(String roomType) {
+        return indexOf(roomTypes, roomType);
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int code = 0; code < values.length; code++) {
+            if (values[code].equals(value)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Assigns integer codes to distinct String values, in order of
+     * first appearance.
+     */
+    static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        String[] toArray() {
+            return values.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Collects rows and builds a ListingTable from them.
+     */
+    static class Builder {
+        private int size;
+
+        private String[] ids;
+        private String[] names;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int[] prices;
+        private int[] minimumNights;
+        private int[] numberOfReviews;
+        private int[] lastReviews;
+        private double[] reviewsPerMonth;
+        private int[] calculatedHostListingsCounts;
+        private int[] availability365;
+        private int[] hostIdCodes;
+        private int[] hostNameCodes;
+        private int[] neighbourhoodCodes;
+        private int[] roomTypeCodes;
+
+        private final Dictionary hostIds = new Dictionary();
+        private final Dictionary hostNames = new Dictionary();
+        private final Dictionary neighbourhoods = new Dictionary();
+        private final Dictionary roomTypes = new Dictionary();
+
+        Builder() {
+            this(16);
+        }
+
+        Builder(int capacity) {
+            capacity = Math.max(capacity, 1);
+            ids = new String[capacity];
+            names = new String[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            prices = new int[capacity];
+            minimumNights = new int[capacity];
+            numberOfReviews = new int[capacity];
+            lastReviews = new int[capacity];
+            reviewsPerMonth = new double[capacity];
+            calculatedHostListingsCounts = new int[capacity];
+            availability365 = new int[capacity];
+            hostIdCodes = new int[capacity];
+            hostNameCodes = new int[capacity];
+            neighbourhoodCodes = new int[capacity];
+            roomTypeCodes = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Add one row to the table, with the date of the last review as written in the csv file.
+         * @throws NumberFormatException If the date of the last review is not a valid date.
+         */
+        void add(String id, String name, String host_id, String host_name, String neighbourhood,
+                 double latitude, double longitude, String room_type, int price, int minimumNights,
+                 int numberOfReviews, String lastReview, double reviewsPerMonth,
+                 int calculatedHostListingsCount, int availability365) {
+            add(id, name, host_id, host_name, neighbourhood, latitude, longitude, room_type, price, minimumNights,
+                    numberOfReviews, FieldParser.parseDate(lastReview), reviewsPerMonth,
+                    calculatedHostListingsCount, availability365);
+        }
+
+        /**
+         * Add one row to the table, with the date of the last review in days since 1970-01-01.
+         */
+        void add(String id, String name, String host_id, String host_name, String neighbourhood,
+                 double latitude, double longitude, String room_type, int price, int minimumNights,
+                 int numberOfReviews, int lastReview, double reviewsPerMonth,
+                 int calculatedHostListingsCount, int availability365) {
+            ensureCapacity(size + 1);
+            ids[size] = id;
+            names[size] = name;
+            hostIdCodes[size] = hostIds.encode(host_id);
+            hostNameCodes[size] = hostNames.encode(host_name);
+            neighbourhoodCodes[size] = neighbourhoods.encode(neighbourhood);
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            roomTypeCodes[size] = roomTypes.encode(room_type);
+            prices[size] = price;
+            this.minimumNights[size] = minimumNights;
+            this.numberOfReviews[size] = numberOfReviews;
+            lastReviews[size] = lastReview;
+            this.reviewsPerMonth[size] = reviewsPerMonth;
+            calculatedHostListingsCounts[size] = calculatedHostListingsCount;
+            this.availability365[size] = availability365;
+            size++;
+        }
+
+        /**
+         * Append all the rows of another builder after the rows of this one,
+         * translating its dictionary codes to the codes of this builder.
+         */
+        void addAll(Builder other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.ids, 0, ids, size, other.size);
+            System.arraycopy(other.names, 0, names, size, other.size);
+            System.arraycopy(other.latitudes, 0, latitudes, size, other.size);
+            System.arraycopy(other.longitudes, 0, longitudes, size, other.size);
+            System.arraycopy(other.prices, 0, prices, size, other.size);
+            System.arraycopy(other.minimumNights, 0, minimumNights, size, other.size);
+            System.arraycopy(other.numberOfReviews, 0, numberOfReviews, size, other.size);
+            System.arraycopy(other.lastReviews, 0, lastReviews, size, other.size);
+            System.arraycopy(other.reviewsPerMonth, 0, reviewsPerMonth, size, other.size);
+            System.arraycopy(other.calculatedHostListingsCounts, 0, calculatedHostListingsCounts, size, other.size);
+            System.arraycopy(other.availability365, 0, availability365, size, other.size);
+            recode(other.hostIdCodes, other.hostIds, hostIdCodes, hostIds, other.size);
+            recode(other.hostNameCodes, other.hostNames, hostNameCodes, hostNames, other.size);
+            recode(other.neighbourhoodCodes, other.neighbourhoods, neighbourhoodCodes, neighbourhoods, other.size);
+            recode(other.roomTypeCodes, other.roomTypes, roomTypeCodes, roomTypes, other.size);
+            size += other.size;
+        }
+
+        private void recode(int[] sourceCodes, Dictionary source, int[] targetCodes, Dictionary target, int count) {
+            int[] translation = new int[source.size()];
+            for (int code = 0; code < translation.length; code++) {
+                translation[code] = target.encode(source.decode(code));
+            }
+            for (int i = 0; i < count; i++) {
+                targetCodes[size + i] = translation[sourceCodes[i]];
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            names = Arrays.copyOf(names, newCapacity);
+            latitudes = Arrays.copyOf(latitudes, newCapacity);
+            longitudes = Arrays.copyOf(longitudes, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            minimumNights = Arrays.copyOf(minimumNights, newCapacity);
+            numberOfReviews = Arrays.copyOf(numberOfReviews, newCapacity);
+            lastReviews = Arrays.copyOf(lastReviews, newCapacity);
+            reviewsPerMonth = Arrays.copyOf(reviewsPerMonth, newCapacity);
+            calculatedHostListingsCounts = Arrays.copyOf(calculatedHostListingsCounts, newCapacity);
+            availability365 = Arrays.copyOf(availability365, newCapacity);
+            hostIdCodes = Arrays.copyOf(hostIdCodes, newCapacity);
+            hostNameCodes = Arrays.copyOf(hostNameCodes, newCapacity);
+            neighbourhoodCodes = Arrays.copyOf(neighbourhoodCodes, newCapacity);
+            roomTypeCodes = Arrays.copyOf(roomTypeCodes, newCapacity);
+        }
+
+        /**
+         * @return A table holding the rows added so far.
+         */
+        ListingTable build() {
+            return new ListingTable(size, Arrays.copyOf(ids, size), Arrays.copyOf(names, size),
+                    Arrays.copyOf(latitudes, size), Arrays.copyOf(longitudes, size),
+                    Arrays.copyOf(prices, size), Arrays.copyOf(minimumNights, size),
+                    Arrays.copyOf(numberOfReviews, size), Arrays.copyOf(lastReviews, size),
+                    Arrays.copyOf(reviewsPerMonth, size), Arrays.copyOf(calculatedHostListingsCounts, size),
+                    Arrays.copyOf(availability365, size),
+                    Arrays.copyOf(hostIdCodes, size), hostIds.toArray(),
+                    Arrays.copyOf(hostNameCodes, size), hostNames.toArray(),
+                    Arrays.copyOf(neighbourhoodCodes, size), neighbourhoods.toArray(),
+                    Arrays.copyOf(roomTypeCodes, size), roomTypes.toArray());
+        }
+    }
+}
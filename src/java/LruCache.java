@@ -0,0 +1,137 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache bounded by the total size of its values rather than their number.
+ *
+ * The size of each value is given by a weigher, for example the bytes an
+ * image takes in memory, and is taken once when the value is stored. When
+ * the total exceeds the capacity, the values used least recently are
+ * evicted until it fits again; the value just stored is never evicted, so a
+ * value larger than the whole capacity is still returned, and kept until
+ * the next one is stored. The cache counts hits, misses and evictions.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+
+    // the values with their sizes, in order of use, least recent first
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long capacity;
+    private final ToLongFunction<V> weigher;
+
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static class Entry<V> {
+        final V value;
+        final long size;
+
+        Entry(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Create an empty cache.
+     * @param capacity The largest total size of the values kept.
+     * @param weigher Gives the size of a value.
+     */
+    public LruCache(long capacity, ToLongFunction<V> weigher) {
+        this.capacity = capacity;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get the value of a key, creating and storing it if it is not cached.
+     * @param key The key.
+     * @param loader Creates the value of the key. If it returns null, nothing is stored.
+     * @return The value, or null if it was not cached and the loader returned null.
+     */
+    public synchronized V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    private void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, Math.max(0, weigher.applyAsLong(value)));
+        Entry<V> previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.size;
+        }
+        size += entry.size;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (size > capacity && entries.size() > 1) {
+            Entry<V> eldest = iterator.next().getValue();
+            iterator.remove();
+            size -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove all the values. The counts are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @return The number of values cached.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return The total size of the values cached.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The largest total size of the values kept.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of lookups that found their value cached.
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that had to create their value.
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return The number of values evicted to keep within the capacity.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
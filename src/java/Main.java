@@ -37,8 +37,9 @@ import java.util.logging.Logger;
  */
 public class Main extends Application {
 
-    // the main dataset of the application
-    private static DataSet dataset = new DataSet("airbnb-london");
+    // the main dataset of the application, filled in the background by the loader
+    private static DataSet dataset = new DataSet();
+    private static DataSetLoader dataSetLoader;
     // the mapping between borough id's and their object representations
     private static Map<String, Borough> boroughs;
     // the comparison pane's controller
@@ -51,6 +52,7 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage stage) throws IOException {
+        dataSetLoader = new DataSetLoader(dataset, "airbnb-london");
         Parent root = FXMLLoader.load(getClass().getResource("/fxml/main.fxml"));
         stage.setTitle("BooKing's");
         stage.setScene(new Scene(root));
@@ -63,6 +65,7 @@ public class Main extends Application {
             System.exit(0);
         });
         stage.show();
+        dataSetLoader.start();
     }
 
     public static void main(String[] args) {
@@ -76,6 +79,12 @@ public class Main extends Application {
      */
     public static DataSet getDataset() { return dataset; }
 
+    /**
+     * Accessor method for the loader filling the dataset.
+     * @return The loader of the dataset.
+     */
+    public static DataSetLoader getDataSetLoader() { return dataSetLoader; }
+
     /**
      * Accessor method for the Map of boroughs.
      * @return The Map of boroughs.
@@ -112,7 +112,7 @@ public class MapController {
                 propertyListStage.setMaxWidth(520);
 
                 ListController controller = loader.getController();
-                controller.setListingList(Main.getDataset().filterNeighbourhood(Main.getBoroughs().get(node.getId()).getName()), Main.getBoroughs().get(node.getId()).getName());
+                controller.setListingList(Main.getBoroughs().get(node.getId()).getListings(), Main.getBoroughs().get(node.getId()).getName());
 
                 propertyListStage.show();
             } catch (IOException e) {
@@ -152,14 +152,20 @@ public class MapController {
     }
 
     /**
-     * Update the values for listings in each borough.
+     * Update the number of listings in each borough to a price range.
+     * The counts are read off the histograms of the dataset, so this
+     * takes the same short time for any range.
+     * @param summary The histograms of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
      */
-    private void updateListingCounts() {
-        Main.clearBoroughs();
-        for (Listing listing : Main.getDataset().getFilteredDatasetList()) {
-            String id = listing.getNeighbourhood().replaceAll(" ", "_").toLowerCase();
-            Main.getBoroughs().get(id).addCount();
-            Main.getBoroughs().get(id).addListing(listing);
+    private void updateListingCounts(RangeSummary summary, int minPrice, int maxPrice) {
+        for (Borough borough : Main.getBoroughs().values()) {
+            borough.setCount(0);
+        }
+        long[] counts = summary.getNeighbourhoodCounts(minPrice, maxPrice);
+        for (int code = 0; code < counts.length; code++) {
+            Main.getBoroughs().get(summary.getTable().getNeighbourhoodId(code)).setCount((int) counts[code]);
         }
     }
 
@@ -167,7 +173,35 @@ public class MapController {
      * Update the filtering, the listing counts and the map visually.
      */
     public void update() {
-        updateListingCounts();
+        DataSet dataset = Main.getDataset();
+        update(dataset.getIndexes(), dataset.getFilterMinPrice(), dataset.getFilterMaxPrice(),
+                dataset.getFilteredDatasetList());
+    }
+
+    /**
+     * Update the listings and counts of the boroughs to a price range,
+     * and the map visually.
+     * @param indexes The listings of the dataset with their indexes.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @param listings The listings in the range.
+     */
+    public void update(DataSet.Indexes indexes, int minPrice, int maxPrice, ListingRows listings) {
+        Main.clearBoroughs();
+        // the listings of a borough are only selected if it is clicked, through its posting list;
+        // the rows of the range are put in a bitmap once, for the first borough clicked
+        RowBitmap[] rows = new RowBitmap[1];
+        ListingTable table = indexes.getTable();
+        for (int code = 0; code < table.getNeighbourhoodCount(); code++) {
+            int neighbourhood = code;
+            Main.getBoroughs().get(table.getNeighbourhoodId(code)).setListings(() -> {
+                if (rows[0] == null) {
+                    rows[0] = RowBitmap.of(listings);
+                }
+                return indexes.selectNeighbourhood(neighbourhood, rows[0]);
+            });
+        }
+        updateListingCounts(indexes.getSummary(), minPrice, maxPrice);
         updateMap();
         if (legendBox.getChildren().size() > 0) { legendBox.getChildren().remove(0); }
         legendBox.getChildren().add(0, createLegendLabels());
@@ -175,6 +209,20 @@ public class MapController {
         oldWidth = mapPane.getWidth();
     }
 
+    /**
+     * Show the number of listings of each borough in a price range, as
+     * the range is dragged. Only the counts are changed; the listings of
+     * the boroughs are replaced by the next update.
+     * @param summary The histograms of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public void preview(RangeSummary summary, int minPrice, int maxPrice) {
+        updateListingCounts(summary, minPrice, maxPrice);
+        updateMap();
+        legendBox.getChildren().set(0, createLegendLabels());
+    }
+
     /**
      * Create the labels for the numbering of the legend
      * and space them in a VBox.
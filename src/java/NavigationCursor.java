@@ -0,0 +1,109 @@
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * The position of a listing in the ordering of a list view, for moving to
+ * the next and the previous listing.
+ *
+ * The cursor keeps the position of its listing, so moving takes constant
+ * time. Before every move it checks, also in constant time, that the
+ * listing is still at that position in the current ordering; if the list
+ * was sorted differently or changed meanwhile, the listing is looked up
+ * again in the new ordering.
+ */
+public class NavigationCursor {
+
+    // gives the current ordering of the list view
+    private final Supplier<List<Listing>> orderings;
+    // the ordering the position is in
+    private List<Listing> ordering;
+    // the position of the listing in the ordering, or -1 if it is not in it
+    private int position;
+    private Listing listing;
+
+    /**
+     * Create a cursor at a listing.
+     * @param orderings Gives the current ordering of the listings.
+     * @param listing The listing the cursor is at.
+     */
+    public NavigationCursor(Supplier<List<Listing>> orderings, Listing listing) {
+        this.orderings = orderings;
+        this.listing = listing;
+        position = -1;
+    }
+
+    /**
+     * @return The listing the cursor is at.
+     */
+    public Listing getListing() {
+        return listing;
+    }
+
+    /**
+     * @return The position of the listing in the current ordering, or -1 if it is not in it.
+     */
+    public int getPosition() {
+        locate();
+        return position;
+    }
+
+    /**
+     * @return True if there is a listing after this one.
+     */
+    public boolean hasNext() {
+        locate();
+        return position >= 0 && position < ordering.size() - 1;
+    }
+
+    /**
+     * @return True if there is a listing before this one.
+     */
+    public boolean hasPrevious() {
+        locate();
+        return position >= 1;
+    }
+
+    /**
+     * Move to the next listing.
+     * @return The next listing.
+     * @throws NoSuchElementException If this is the last listing.
+     */
+    public Listing next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        listing = ordering.get(++position);
+        return listing;
+    }
+
+    /**
+     * Move to the previous listing.
+     * @return The previous listing.
+     * @throws NoSuchElementException If this is the first listing.
+     */
+    public Listing previous() {
+        if (!hasPrevious()) {
+            throw new NoSuchElementException();
+        }
+        listing = ordering.get(--position);
+        return listing;
+    }
+
+    /**
+     * Look the listing up again if the ordering changed since the position was found.
+     */
+    private void locate() {
+        List<Listing> current = orderings.get();
+        if (current == null) {
+            ordering = null;
+            position = -1;
+            return;
+        }
+        if (current != ordering || position < 0 || position >= current.size()
+                || !current.get(position).equals(listing)) {
+            ordering = current;
+            position = current.indexOf(listing);
+        }
+    }
+}
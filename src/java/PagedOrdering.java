@@ -0,0 +1,212 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+/**
+ * A list of listings in sorted order, which only sorts the pages that
+ * are read.
+ *
+ * The order is the one a stable sort gives, but nothing is sorted up
+ * front. When a page is first read, a quickselect moves the listings of
+ * the page between those of the earlier and the later pages, and only the
+ * page itself is then sorted. The splits made on the way are kept as
+ * boundaries, so later pages select within ever smaller parts of the list,
+ * and pages already sorted are read directly.
+ *
+ * A large list of table rows in table order, such as the listings of a
+ * borough, is instead ordered whole when it is created, by picking its
+ * rows out of the permutation the SortIndex of the table keeps for the
+ * attribute, which costs about as much as selecting the first page.
+ */
+public class PagedOrdering extends AbstractList<Listing> implements RandomAccess {
+
+    // ranges at most this long are sorted rather than split further
+    private static final int SORT_THRESHOLD = 16;
+
+    private final List<Listing> listings;
+    private final int pageSize;
+    // the sort key of each listing in the high bits and its position in the low bits,
+    // which makes the items distinct and keeps equal keys in list order
+    private final long[] items;
+    // positions p with items[0..p) all smaller than items[p..size)
+    private final TreeSet<Integer> boundaries = new TreeSet<>();
+    // the positions whose item is in its final place
+    private final BitSet sorted = new BitSet();
+
+    /**
+     * Create the ordering of a list. No listing is sorted until it is read.
+     * @param listings The listings to order.
+     * @param key The attribute to sort by.
+     * @param ascending Whether to sort in ascending order, or descending.
+     * @param pageSize The number of listings sorted together when one of them is read.
+     */
+    public PagedOrdering(List<Listing> listings, SortIndex.Key key, boolean ascending, int pageSize) {
+        this.listings = listings;
+        this.pageSize = Math.max(1, pageSize);
+        int[] order = null;
+        if (listings instanceof ListingRows) {
+            ListingRows rows = (ListingRows) listings;
+            order = rows.getTable().getSortIndex().pickOrder(rows, key, ascending);
+        }
+        if (order != null) {
+            // every item is in its final place; only its position is needed
+            items = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                items[i] = order[i];
+            }
+            sorted.set(0, items.length);
+        }
+        else {
+            int[] keys = Sorter.getKeys(listings, key);
+            items = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                // inverting the key reverses the order, but not that of the positions
+                items[i] = ((long) (ascending ? keys[i] : ~keys[i]) << 32) | i;
+            }
+        }
+        boundaries.add(0);
+        boundaries.add(items.length);
+    }
+
+    @Override
+    public Listing get(int index) {
+        if (index < 0 || index >= items.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (!sorted.get(index)) {
+            int start = index - index % pageSize;
+            sort(start, Math.min(items.length, start + pageSize));
+        }
+        return listings.get((int) items[index]);
+    }
+
+    @Override
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Find the position of a listing in the ordering, without sorting.
+     * The position of the listing in the unordered list is looked up, and
+     * its position in the ordering is the number of items before it.
+     */
+    @Override
+    public int indexOf(Object o) {
+        int position = listings.indexOf(o);
+        if (position < 0) {
+            return -1;
+        }
+        int index = 0;
+        while ((int) items[index] != position) {
+            index++;
+        }
+        if (sorted.get(index)) {
+            return index;
+        }
+        long item = items[index];
+        int smaller = 0;
+        for (long other : items) {
+            if (other < item) {
+                smaller++;
+            }
+        }
+        return smaller;
+    }
+
+    /**
+     * Get a page of the ordering.
+     * @param pageIndex The index of the page, starting at 0.
+     * @return The listings of the page, in order; empty past the last page.
+     */
+    public List<Listing> getPage(int pageIndex) {
+        int start = (int) Math.min(items.length, (long) pageIndex * pageSize);
+        int end = Math.min(items.length, start + pageSize);
+        sort(start, end);
+        return subList(start, end);
+    }
+
+    /**
+     * Put the items of positions [start, end) in their final place.
+     */
+    private void sort(int start, int end) {
+        if (sorted.nextClearBit(start) >= end) {
+            return;
+        }
+        partitionAt(end);
+        partitionAt(start);
+        Arrays.sort(items, start, end);
+        sorted.set(start, end);
+    }
+
+    /**
+     * Make a position a boundary, selecting within the part of the list
+     * between the boundaries around it.
+     */
+    private void partitionAt(int position) {
+        if (boundaries.contains(position)) {
+            return;
+        }
+        int from = boundaries.lower(position);
+        int to = boundaries.higher(position);
+        // a sorted range has boundaries at both ends, so this part is sorted either entirely or not at all
+        if (!sorted.get(from)) {
+            select(from, to, position);
+        }
+        boundaries.add(position);
+    }
+
+    /**
+     * Reorder the items of [from, to), a part of the list between two
+     * boundaries, so that the smaller items are before position k and the
+     * larger ones from k on. An introselect: if the pivots keep splitting
+     * unevenly, the range is sorted instead.
+     */
+    private void select(int from, int to, int k) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        while (to - from > SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                break;
+            }
+            int middle = (from + to) >>> 1;
+            long pivot = median(items[from], items[middle], items[to - 1]);
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (items[i] < pivot) {
+                    i++;
+                }
+                while (items[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long item = items[i];
+                    items[i] = items[j];
+                    items[j] = item;
+                    i++;
+                    j--;
+                }
+            }
+            // now [from, j] holds the items up to the pivot, and [i, to) those from the pivot on;
+            // the split is kept, so the part not searched further is split faster later
+            if (k <= j) {
+                boundaries.add(j + 1);
+                to = j + 1;
+            }
+            else if (k >= i) {
+                boundaries.add(i);
+                from = i;
+            }
+            else {
+                return;
+            }
+        }
+        Arrays.sort(items, from, to);
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
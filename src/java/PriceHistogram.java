@@ -0,0 +1,120 @@
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The running totals of a value of the listings over price, kept for each
+ * of a number of categories, such as the neighbourhoods.
+ *
+ * Built once from a PriceIndex. For every distinct price it stores the
+ * total of each category over the listings costing less, so the total of a
+ * category over any price range is the difference of two stored totals:
+ * a price range is answered by two binary searches over the distinct
+ * prices and one subtraction per category, however many listings it holds.
+ * Counts are totals of the value 1.
+ */
+public class PriceHistogram {
+
+    // the distinct prices, ascending
+    private final int[] prices;
+    private final int categoryCount;
+    // totals[k * categoryCount + c] is the total of category c over the listings cheaper than prices[k]
+    private final long[] totals;
+
+    /**
+     * Build the histogram of a value.
+     * @param priceIndex The listings ordered by price.
+     * @param categoryCount The number of categories.
+     * @param category Gives the category of a row, or -1 if the row is in none.
+     * @param value Gives the value of a row.
+     */
+    public PriceHistogram(PriceIndex priceIndex, int categoryCount, IntUnaryOperator category, IntToLongFunction value) {
+        this.categoryCount = categoryCount;
+        int size = priceIndex.size();
+        int[] distinct = new int[size];
+        int distinctCount = 0;
+        for (int position = 0; position < size; position++) {
+            int price = priceIndex.priceAt(position);
+            if (distinctCount == 0 || distinct[distinctCount - 1] != price) {
+                distinct[distinctCount++] = price;
+            }
+        }
+        prices = Arrays.copyOf(distinct, distinctCount);
+
+        // one row of totals per distinct price, and one after the last
+        totals = new long[(distinctCount + 1) * categoryCount];
+        int position = 0;
+        for (int k = 0; k < distinctCount; k++) {
+            int next = (k + 1) * categoryCount;
+            System.arraycopy(totals, k * categoryCount, totals, next, categoryCount);
+            for (; position < size && priceIndex.priceAt(position) == prices[k]; position++) {
+                int row = priceIndex.rowAt(position);
+                int code = category.applyAsInt(row);
+                if (code >= 0) {
+                    totals[next + code] += value.applyAsLong(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the histogram of the number of listings.
+     * @param priceIndex The listings ordered by price.
+     * @param categoryCount The number of categories.
+     * @param category Gives the category of a row, or -1 if the row is in none.
+     */
+    public PriceHistogram(PriceIndex priceIndex, int categoryCount, IntUnaryOperator category) {
+        this(priceIndex, categoryCount, category, row -> 1);
+    }
+
+    /**
+     * @return The number of categories.
+     */
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    /**
+     * @param category A category.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The total of the category over the listings in the price range.
+     */
+    public long getTotal(int category, int minPrice, int maxPrice) {
+        int from = lowerBound(minPrice);
+        int to = Math.max(from, upperBound(maxPrice));
+        return totals[to * categoryCount + category] - totals[from * categoryCount + category];
+    }
+
+    /**
+     * Get the totals of all the categories over a price range.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @param result The array to fill, at least as long as the number of categories.
+     * @return The result array, holding the total of each category.
+     */
+    public long[] getTotals(int minPrice, int maxPrice, long[] result) {
+        int from = lowerBound(minPrice) * categoryCount;
+        int to = Math.max(from, upperBound(maxPrice) * categoryCount);
+        for (int category = 0; category < categoryCount; category++) {
+            result[category] = totals[to + category] - totals[from + category];
+        }
+        return result;
+    }
+
+    /**
+     * @return The index of the first distinct price at least the price.
+     */
+    private int lowerBound(int price) {
+        int index = Arrays.binarySearch(prices, price);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return The index of the first distinct price above the price.
+     */
+    private int upperBound(int price) {
+        int index = Arrays.binarySearch(prices, price);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.Arrays;
+
+/**
+ * The rows of a ListingTable ordered by price.
+ *
+ * Built once when the dataset is loaded. Any price range then maps to a
+ * contiguous slice of the ordering, found by binary search, so filtering
+ * by price needs neither a scan of the dataset nor a copy of the result.
+ * Rows with the same price keep their order in the table.
+ */
+public class PriceIndex {
+
+    private final ListingTable table;
+    // the row indices ordered by price
+    private final int[] rows;
+    // the price of each row in the ordering, so prices[i] is the price of rows[i]
+    private final int[] prices;
+
+    /**
+     * Build the index of a table.
+     * @param table The table to index.
+     */
+    public PriceIndex(ListingTable table) {
+        this.table = table;
+        int size = table.size();
+
+        // sort the price and row pairs together; the row in the
+        // low bits keeps rows with equal prices in table order
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = ((long) table.getPrice(row) << 32) | row;
+        }
+        Arrays.sort(keys);
+
+        rows = new int[size];
+        prices = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) keys[i];
+            prices[i] = (int) (keys[i] >> 32);
+        }
+    }
+
+    /**
+     * Get the listings within a price range, ordered by price.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return A view of the listings in the range.
+     */
+    public ListingRows range(int minPrice, int maxPrice) {
+        int from = lowerBound(minPrice);
+        int to = Math.max(from, upperBound(maxPrice));
+        return new ListingRows(table, rows, from, to);
+    }
+
+    /**
+     * @param price A price.
+     * @return The position in the ordering of the first row costing at least the price.
+     */
+    public int lowerBound(int price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < price) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param price A price.
+     * @return The position in the ordering of the first row costing more than the price.
+     */
+    public int upperBound(int price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] <= price) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The lowest price in the table, or 0 if the table is empty.
+     */
+    public int getMinPrice() {
+        return prices.length > 0 ? prices[0] : 0;
+    }
+
+    /**
+     * @return The highest price in the table, or 0 if the table is empty.
+     */
+    public int getMaxPrice() {
+        return prices.length > 0 ? prices[prices.length - 1] : 0;
+    }
+
+    /**
+     * @param position A position in the ordering.
+     * @return The index of the row at the position.
+     */
+    public int rowAt(int position) {
+        return rows[position];
+    }
+
+    /**
+     * @param position A position in the ordering.
+     * @return The price of the row at the position.
+     */
+    public int priceAt(int position) {
+        return prices[position];
+    }
+
+    /**
+     * @return The number of rows in the index.
+     */
+    public int size() {
+        return rows.length;
+    }
+}
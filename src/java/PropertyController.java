@@ -4,11 +4,9 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tab;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
-import javafx.util.Pair;
 
 /**
  *  This class allows to control the property main view,
@@ -19,6 +17,8 @@ import javafx.util.Pair;
 public class PropertyController {
 
     private Listing listing;
+    // the position of the listing in the list it was opened from
+    private NavigationCursor cursor;
     private ComparisonController comparisonController;
     private ListController listController;
     private Stage propertyStage;
@@ -45,7 +45,15 @@ public class PropertyController {
      * @param listing Single Airbnb property.
      */
     public void setListing(Listing listing) {
-        this.listing = listing;
+        cursor = new NavigationCursor(listController::getSortedListings, listing);
+        showListing();
+    }
+
+    /**
+     * Show the listing the cursor is at.
+     */
+    private void showListing() {
+        listing = cursor.getListing();
         fillData();
         this.comparisonController = Main.getComparisonController();
         final MapView map = new MapView(listing.getLatitude(), listing.getLongitude());
@@ -65,7 +73,7 @@ public class PropertyController {
      *  Fill in data into the panes and views.
      */
     private void fillData() {
-        propertyImage.setImage(new Image(getClass().getResourceAsStream(listing.getImageName())));
+        ImageCache.setImage(propertyImage, listing.getImageName(), ImageCache.getImage("/images/house.png"));
         propertyStage.setTitle(listing.getId());
         nameLabel.setText(listing.getName());
         typeLabel.setText(listing.getRoom_type());
@@ -76,9 +84,8 @@ public class PropertyController {
         reviewsLabel.setText(listing.getNumberOfReviews() + " reviews (last: " + listing.getLastReview() + ")");
         availabilityLabel.setText("Available " + listing.getAvailability365() + " days in a year");
 
-        Pair<Boolean, Boolean> navBounds = navBounds(getCurrentIndex());
-        previousButton.setVisible(navBounds.getKey());
-        nextButton.setVisible(navBounds.getValue());
+        previousButton.setVisible(cursor.hasPrevious());
+        nextButton.setVisible(cursor.hasNext());
     }
 
     /**
@@ -97,8 +104,9 @@ public class PropertyController {
      */
     @FXML
     private void next() {
-        if (navBounds(getCurrentIndex()).getValue()) {
-            setListing(listController.getSortedListings().get(getCurrentIndex() + 1));
+        if (cursor.hasNext()) {
+            cursor.next();
+            showListing();
         }
         else {
             nextButton.setVisible(false);
@@ -110,21 +118,12 @@ public class PropertyController {
      */
     @FXML
     private void previous() {
-        if (navBounds(getCurrentIndex()).getKey()) {
-            setListing(listController.getSortedListings().get(getCurrentIndex() - 1));
+        if (cursor.hasPrevious()) {
+            cursor.previous();
+            showListing();
         }
         else {
             previousButton.setVisible(false);
         }
     }
-
-    private Pair<Boolean, Boolean> navBounds(int index) {
-        Boolean previousInBound = index >= 1 ? Boolean.TRUE : Boolean.FALSE;
-        Boolean nextInBound = index < listController.getSortedListings().size() - 1 ? Boolean.TRUE : Boolean.FALSE;
-        return new Pair<>(previousInBound, nextInBound);
-    }
-
-    private int getCurrentIndex() {
-        return listController.getSortedListings().indexOf(listing);
-    }
 }
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+/**
+ * The photos shown for the listings.
+ *
+ * The dataset has no photos, so every listing is shown with one of the
+ * images in the property-images folder, chosen by a hash of its id. The
+ * choice is made when the image is shown, and is the same every time the
+ * application runs. The folder is listed once, on first use.
+ */
+public abstract class PropertyImages {
+
+    // the resource folder holding the images
+    private static final String FOLDER = "/images/property-images";
+
+    // the resource paths of the images, sorted; listed on first use
+    private static String[] images;
+
+    /**
+     * Get the image of a listing.
+     * @param id The id of the listing.
+     * @return The resource path of the image, or null if there are no images.
+     */
+    public static String getImage(String id) {
+        String[] images = getImages();
+        if (images.length == 0) {
+            return null;
+        }
+        // spread the bits of the hash, so ids differing in their last digit get different images
+        int hash = id.hashCode() * 0x9E3779B9;
+        return images[Math.floorMod(hash ^ (hash >>> 16), images.length)];
+    }
+
+    /**
+     * @return The resource paths of all the images, sorted.
+     */
+    private static synchronized String[] getImages() {
+        if (images == null) {
+            images = listImages();
+        }
+        return images;
+    }
+
+    /**
+     * List the images in the resource folder, which may be a directory or
+     * a folder of the application's jar file.
+     */
+    private static String[] listImages() {
+        URL url = PropertyImages.class.getResource(FOLDER);
+        if (url == null) {
+            System.out.println("Image folder not found: " + FOLDER);
+            return new String[0];
+        }
+        try {
+            URI uri = url.toURI();
+            if (uri.getScheme().equals("jar")) {
+                try {
+                    try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+                        return listImages(jar.getPath(FOLDER));
+                    }
+                } catch (FileSystemAlreadyExistsException e) {
+                    // the jar is already open elsewhere, so it is used without being closed
+                    return listImages(FileSystems.getFileSystem(uri).getPath(FOLDER));
+                }
+            }
+            return listImages(Paths.get(uri));
+        } catch (IOException | URISyntaxException e) {
+            e.printStackTrace();
+            return new String[0];
+        }
+    }
+
+    private static String[] listImages(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> FOLDER + "/" + file.getFileName())
+                    .sorted()
+                    .toArray(String[]::new);
+        }
+    }
+}
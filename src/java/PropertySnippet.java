@@ -1,5 +1,6 @@
-import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ContextMenu;
@@ -9,16 +10,18 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
 /**
  * Represents the graphical interface of one property 'snippet',
  * which is displayed on a list window for a borough or favourites list.
- * The snippets are loaded onto a vBox of a scroll pane for users to scroll through and interact with.
+ * The snippets are the cells of a list view for users to scroll through and interact with,
+ * and are reused for whichever listings are scrolled into view.
  */
 public class PropertySnippet extends BorderPane {
 
@@ -26,40 +29,37 @@ public class PropertySnippet extends BorderPane {
     private ListController listController;
 
     // Label that shows type of property
-    @FXML private Label typeLabel;
+    private Label typeLabel;
     // Label that shows minimum nights of property
-    @FXML private Label nightsLabel ;
+    private Label nightsLabel ;
     // Label that shows host name of property
-    @FXML private Label hostLabel ;
+    private Label hostLabel ;
     // Label that shows number of reviews of property
-    @FXML private Label reviewLabel ;
+    private Label reviewLabel ;
     // Label that shows price per night of property
-    @FXML private Label priceLabel ;
+    private Label priceLabel ;
     // Label that shows id of property
-    @FXML private Label idLabel ;
+    private Label idLabel ;
     // Label that shows favourite star for property
-    @FXML private ImageView star;
+    private ImageView star;
     // image of the property
-    @FXML private ImageView propertyImage;
+    private ImageView propertyImage;
 
-    File starOutlineFile = new File("src/res/images/star-outline.png");
-    File starFilledFile = new File("src/res/images/star-filled.png");
-    Image starOutline = new Image(starOutlineFile.toURI().toString());
-    Image starFilled = new Image(starFilledFile.toURI().toString());
+    Image starOutline = ImageCache.getImage("/images/star-outline.png");
+    Image starFilled = ImageCache.getImage("/images/star-filled.png");
 
     // Context menu and menu items for each snipppet. Includes functions that the user can do to interact with the property.
-    @FXML private ContextMenu contextMenu;
-    @FXML private MenuItem favourite;
-    @FXML private MenuItem compare;
-    @FXML private MenuItem open;
+    private ContextMenu contextMenu;
+    private MenuItem favourite;
+    private MenuItem compare;
+    private MenuItem open;
 
     ComparisonController comparisonController = Main.getComparisonController();
 
     /**
-     * Initialize method to set all the JavaFX code actions to the correct methods.
+     * Set all the actions of the snippet's nodes to the correct methods.
      */
-    @FXML
-    private void initialize() {
+    private void setHandlers() {
         this.setOnContextMenuRequested(event -> contextMenu.show(this, event.getScreenX(), event.getScreenY()));
         this.setOnMouseClicked(event -> {
             MouseButton button = event.getButton();
@@ -100,37 +100,112 @@ public class PropertySnippet extends BorderPane {
     }
 
     /**
-     * Constructor for the property snippet. Includes filling out all the details available on the snippet.
-     * @param listing the listing being represented in the snippet.
+     * Constructor for a property snippet without a listing, to be filled in by setListing.
+     * The nodes are built once here, so the snippet can be reused for any number of listings.
+     * Snippets are created through SnippetFactory.
      * @param controller the list controller the property snippet belongs to.
      */
-    public PropertySnippet(Listing listing, ListController controller) {
-        this.listing = listing;
+    PropertySnippet(ListController controller) {
         listController = controller;
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/propertySnippet.fxml"));
-        loader.setController(this);
-        loader.setRoot(this);
-        try {
-            loader.load();
-            propertyImage.setImage(new Image(getClass().getResourceAsStream(listing.getImageName())));
-            this.setId(listing.getId() + "");
-            idLabel.setText("#" + listing.getId() + "");
-            if (Main.getDataset().getFavourites().contains(listing)) {
-                idLabel.setId("idLabelFavourite");
-                favourite.setText("Remove from Favourites");
-                star.setId("starFilled");
-                star.setImage(starFilled);
-            }
-            typeLabel.setText(listing.getRoom_type());
-            nightsLabel.setText(listing.getMinimumNights() + "");
-            hostLabel.setText(listing.getHost_name());
-            reviewLabel.setText(listing.getNumberOfReviews() + "");
-            priceLabel.setText(listing.getPrice() + "");
+        buildNodes();
+        setHandlers();
+    }
+
+    /**
+     * Build the nodes of the snippet.
+     */
+    private void buildNodes() {
+        open = new MenuItem("Open");
+        favourite = new MenuItem("Add to Favourites");
+        compare = new MenuItem("Compare");
+        contextMenu = new ContextMenu(open, favourite, compare);
+
+        propertyImage = new ImageView(ImageCache.getImage("/images/house.png"));
+        propertyImage.setFitHeight(115.0);
+        propertyImage.setFitWidth(115.0);
+        propertyImage.setPickOnBounds(true);
+        propertyImage.setPreserveRatio(true);
+        HBox.setMargin(propertyImage, new Insets(0, 0, 0, 15.0));
 
+        idLabel = new Label("IDNUM");
+        idLabel.setId("idLabel");
+        star = new ImageView(starOutline);
+        star.setId("starOutline");
+        star.setFitHeight(13.0);
+        star.setFitWidth(13.0);
+        star.setPickOnBounds(true);
+        star.setPreserveRatio(true);
+        HBox.setMargin(star, new Insets(1.0));
+        typeLabel = boldLabel("Type");
+        typeLabel.getStyleClass().add("bold");
+        nightsLabel = new Label("Nights");
+        hostLabel = new Label("Host");
+        VBox details = new VBox(5.0,
+                new HBox(idLabel, star),
+                typeLabel,
+                new HBox(boldLabel("MInimum number of nights: "), nightsLabel),
+                new HBox(boldLabel("Host: "), hostLabel));
+
+        HBox center = new HBox(5.0, propertyImage, details);
+        BorderPane.setAlignment(center, Pos.CENTER);
+        BorderPane.setMargin(center, new Insets(0));
+        setCenter(center);
+
+        reviewLabel = new Label("Review");
+        HBox top = new HBox(reviewLabel, new Label(" Reviews"));
+        top.setAlignment(Pos.TOP_RIGHT);
+        BorderPane.setAlignment(top, Pos.CENTER);
+        setTop(top);
+
+        priceLabel = boldLabel("Price");
+        HBox bottom = new HBox(boldLabel("£"), priceLabel, new Label(" (per Night)"));
+        bottom.setAlignment(Pos.BOTTOM_RIGHT);
+        BorderPane.setAlignment(bottom, Pos.CENTER);
+        setBottom(bottom);
+
+        setMaxHeight(USE_PREF_SIZE);
+        setMaxWidth(Double.MAX_VALUE);
+        setMinHeight(USE_PREF_SIZE);
+        setMinWidth(350.0);
+        setPadding(new Insets(5.0));
+        getStyleClass().add("snippet");
+        getStylesheets().addAll(SnippetFactory.getStylesheet("/stylesheets/fonts.css"),
+                SnippetFactory.getStylesheet("/stylesheets/list.css"),
+                SnippetFactory.getStylesheet("/stylesheets/main.css"));
+    }
+
+    private static Label boldLabel(String text) {
+        Label label = new Label(text);
+        label.setId("boldtext");
+        return label;
+    }
 
-        } catch (IOException exc) {
-            throw new RuntimeException(exc);
+    /**
+     * Fill out all the details of a listing, replacing those of the listing shown before.
+     * @param listing the listing being represented in the snippet.
+     */
+    public void setListing(Listing listing) {
+        this.listing = listing;
+        ImageCache.setImage(propertyImage, listing.getImageName(), ImageCache.getImage("/images/house.png"));
+        this.setId(listing.getId() + "");
+        idLabel.setText("#" + listing.getId() + "");
+        if (Main.getDataset().isFavourite(listing)) {
+            idLabel.setId("idLabelFavourite");
+            favourite.setText("Remove from Favourites");
+            star.setId("starFilled");
+            star.setImage(starFilled);
+        }
+        else {
+            idLabel.setId("idLabel");
+            favourite.setText("Add to Favourites");
+            star.setId("starOutline");
+            star.setImage(starOutline);
         }
+        typeLabel.setText(listing.getRoom_type());
+        nightsLabel.setText(listing.getMinimumNights() + "");
+        hostLabel.setText(listing.getHost_name());
+        reviewLabel.setText(listing.getNumberOfReviews() + "");
+        priceLabel.setText(listing.getPrice() + "");
     }
 
     // Open the listing in a new window if not already open.
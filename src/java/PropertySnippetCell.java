@@ -0,0 +1,33 @@
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+
+/**
+ * A cell of the listing list view. Each cell owns one PropertySnippet,
+ * created once, and shows in it whichever listing the list view gives the
+ * cell, so only as many snippets exist as fit on the screen.
+ */
+public class PropertySnippetCell extends ListCell<Listing> {
+
+    private final PropertySnippet snippet;
+
+    /**
+     * Create a cell and its snippet.
+     * @param controller the list controller the cell belongs to.
+     */
+    public PropertySnippetCell(ListController controller) {
+        snippet = SnippetFactory.createPropertySnippet(controller);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(Listing listing, boolean empty) {
+        super.updateItem(listing, empty);
+        if (empty || listing == null) {
+            setGraphic(null);
+        }
+        else {
+            snippet.setListing(listing);
+            setGraphic(snippet);
+        }
+    }
+}
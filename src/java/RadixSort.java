@@ -0,0 +1,188 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A stable least significant digit radix sort of integer keys.
+ *
+ * The keys are offset by their minimum (or, in descending order, taken
+ * from their maximum), so only as many 8 bit digits are sorted as the
+ * range of the keys needs: prices, nights and review counts take one or
+ * two counting passes. Each pass counts the digits, then moves every key
+ * to its place; both steps are split over a ForkJoinPool for large inputs,
+ * with each chunk given its own part of every digit's output so the sort
+ * stays stable. Very small inputs are insertion sorted instead.
+ */
+public abstract class RadixSort {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    // inputs up to this size are insertion sorted
+    private static final int INSERTION_THRESHOLD = 32;
+    // inputs of at least this size are sorted in parallel
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Sort the positions of keys by key, using the common pool for large inputs.
+     * @param keys The keys to sort by.
+     * @param ascending Whether to sort in ascending order, or descending.
+     * @return The positions of the keys in order; equal keys keep their order.
+     */
+    public static int[] order(int[] keys, boolean ascending) {
+        return order(keys, ascending, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sort the positions of keys by key.
+     * @param keys The keys to sort by.
+     * @param ascending Whether to sort in ascending order, or descending.
+     * @param pool The pool large inputs are sorted on.
+     * @return The positions of the keys in order; equal keys keep their order.
+     */
+    public static int[] order(int[] keys, boolean ascending, ForkJoinPool pool) {
+        int size = keys.length;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        // the keys as unsigned distances from the first key in order
+        int[] digits = new int[size];
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            digits[i] = ascending ? keys[i] - min : max - keys[i];
+            positions[i] = i;
+        }
+        if (size <= INSERTION_THRESHOLD) {
+            insertionSort(digits, positions);
+            return positions;
+        }
+
+        long range = size == 0 ? 0 : (long) max - min;
+        int bits = 64 - Long.numberOfLeadingZeros(range);
+        boolean parallel = size >= PARALLEL_THRESHOLD && pool.getParallelism() > 1;
+        int[] nextDigits = new int[size];
+        int[] nextPositions = new int[size];
+        for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+            if (parallel) {
+                parallelPass(digits, positions, nextDigits, nextPositions, shift, pool);
+            }
+            else {
+                pass(digits, positions, nextDigits, nextPositions, shift);
+            }
+            int[] swap = digits;
+            digits = nextDigits;
+            nextDigits = swap;
+            swap = positions;
+            positions = nextPositions;
+            nextPositions = swap;
+        }
+        return positions;
+    }
+
+    /**
+     * Move the keys into the next arrays in order of one digit.
+     */
+    private static void pass(int[] digits, int[] positions, int[] nextDigits, int[] nextPositions, int shift) {
+        int[] starts = new int[RADIX];
+        for (int digit : digits) {
+            starts[(digit >>> shift) & (RADIX - 1)]++;
+        }
+        int total = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = starts[digit];
+            starts[digit] = total;
+            total += count;
+        }
+        scatter(digits, positions, nextDigits, nextPositions, shift, starts, 0, digits.length);
+    }
+
+    /**
+     * The same as pass, with the input split into chunks counted and moved in parallel.
+     */
+    private static void parallelPass(int[] digits, int[] positions, int[] nextDigits, int[] nextPositions,
+                                     int shift, ForkJoinPool pool) {
+        int size = digits.length;
+        int chunks = pool.getParallelism() * 4;
+        int chunkSize = (size + chunks - 1) / chunks;
+        int[][] starts = new int[chunks][RADIX];
+        pool.invoke(new ChunkTask(chunk -> {
+            int end = Math.min(size, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                starts[chunk][(digits[i] >>> shift) & (RADIX - 1)]++;
+            }
+        }, 0, chunks));
+        // every digit's output holds the keys of the first chunk, then the second, and so on
+        int total = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int count = starts[chunk][digit];
+                starts[chunk][digit] = total;
+                total += count;
+            }
+        }
+        pool.invoke(new ChunkTask(chunk -> scatter(digits, positions, nextDigits, nextPositions, shift,
+                starts[chunk], chunk * chunkSize, Math.min(size, (chunk + 1) * chunkSize)), 0, chunks));
+    }
+
+    /**
+     * Move the keys at [from, to) to the next free place of their digit.
+     */
+    private static void scatter(int[] digits, int[] positions, int[] nextDigits, int[] nextPositions,
+                                int shift, int[] starts, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int index = starts[(digits[i] >>> shift) & (RADIX - 1)]++;
+            nextDigits[index] = digits[i];
+            nextPositions[index] = positions[i];
+        }
+    }
+
+    private static void insertionSort(int[] digits, int[] positions) {
+        for (int i = 1; i < digits.length; i++) {
+            int digit = digits[i];
+            int position = positions[i];
+            int j = i - 1;
+            // the digits are unsigned
+            while (j >= 0 && Integer.compareUnsigned(digits[j], digit) > 0) {
+                digits[j + 1] = digits[j];
+                positions[j + 1] = positions[j];
+                j--;
+            }
+            digits[j + 1] = digit;
+            positions[j + 1] = position;
+        }
+    }
+
+    /**
+     * Runs an action on each of a run of chunks, splitting the run in halves
+     * until a single chunk is left.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+
+        ChunkTask(IntConsumer action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(action, from, middle);
+            ChunkTask right = new ChunkTask(action, middle, to);
+            right.fork();
+            left.compute();
+            right.join();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+/**
+ * A horizontal slider with two thumbs, choosing a range between a minimum
+ * and a maximum.
+ *
+ * Either thumb can be dragged, and pressing the track moves the nearer
+ * thumb there. The low value never passes the high value. While a thumb is
+ * dragged, valueChanging is true, so a listener can show the range as it
+ * changes and do the costly work once it is released. The slider is
+ * styled with the range-slider, track, range-bar and thumb style classes.
+ */
+public class RangeSlider extends Region {
+
+    private static final double THUMB_SIZE = 16;
+    private static final double TRACK_HEIGHT = 6;
+
+    private final DoubleProperty min = new SimpleDoubleProperty(this, "min", 0);
+    private final DoubleProperty max = new SimpleDoubleProperty(this, "max", 100);
+    private final DoubleProperty lowValue = new SimpleDoubleProperty(this, "lowValue", 0);
+    private final DoubleProperty highValue = new SimpleDoubleProperty(this, "highValue", 100);
+    private final BooleanProperty valueChanging = new SimpleBooleanProperty(this, "valueChanging", false);
+
+    private final Region track = new Region();
+    private final Region rangeBar = new Region();
+    private final Region lowThumb = new Region();
+    private final Region highThumb = new Region();
+    // the thumb being dragged, or null
+    private Region dragged;
+
+    /**
+     * Create a slider from 0 to 100, with the whole range chosen.
+     */
+    public RangeSlider() {
+        getStyleClass().add("range-slider");
+        track.getStyleClass().add("track");
+        rangeBar.getStyleClass().add("range-bar");
+        lowThumb.getStyleClass().add("thumb");
+        highThumb.getStyleClass().add("thumb");
+        getChildren().addAll(track, rangeBar, lowThumb, highThumb);
+        // the mouse is handled by the slider, so a thumb can be dragged past the other
+        rangeBar.setMouseTransparent(true);
+        lowThumb.setMouseTransparent(true);
+        highThumb.setMouseTransparent(true);
+
+        min.addListener(observable -> requestLayout());
+        max.addListener(observable -> requestLayout());
+        lowValue.addListener(observable -> requestLayout());
+        highValue.addListener(observable -> requestLayout());
+
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, this::mouseDragged);
+        addEventHandler(MouseEvent.MOUSE_RELEASED, this::mouseReleased);
+    }
+
+    private void mousePressed(MouseEvent event) {
+        if (isDisabled()) {
+            return;
+        }
+        double value = valueAt(event.getX());
+        // the nearer thumb is dragged; the high one when both are at the same value and it is to the right
+        boolean high = Math.abs(value - getHighValue()) < Math.abs(value - getLowValue())
+                || (getLowValue() == getHighValue() && value > getHighValue());
+        dragged = high ? highThumb : lowThumb;
+        valueChanging.set(true);
+        moveDragged(value);
+        event.consume();
+    }
+
+    private void mouseDragged(MouseEvent event) {
+        if (dragged != null) {
+            moveDragged(valueAt(event.getX()));
+            event.consume();
+        }
+    }
+
+    private void mouseReleased(MouseEvent event) {
+        if (dragged != null) {
+            dragged = null;
+            valueChanging.set(false);
+            event.consume();
+        }
+    }
+
+    private void moveDragged(double value) {
+        if (dragged == lowThumb) {
+            setLowValue(Math.min(value, getHighValue()));
+        }
+        else {
+            setHighValue(Math.max(value, getLowValue()));
+        }
+    }
+
+    /**
+     * @return The value at an x coordinate of the slider, within the minimum and maximum.
+     */
+    private double valueAt(double x) {
+        double width = trackWidth();
+        double fraction = width > 0 ? (x - snappedLeftInset() - THUMB_SIZE / 2) / width : 0;
+        fraction = Math.max(0, Math.min(1, fraction));
+        return getMin() + fraction * (getMax() - getMin());
+    }
+
+    /**
+     * @return The x coordinate of the centre of a thumb at a value.
+     */
+    private double positionOf(double value) {
+        double range = getMax() - getMin();
+        double fraction = range > 0 ? (value - getMin()) / range : 0;
+        fraction = Math.max(0, Math.min(1, fraction));
+        return snappedLeftInset() + THUMB_SIZE / 2 + fraction * trackWidth();
+    }
+
+    private double trackWidth() {
+        return getWidth() - snappedLeftInset() - snappedRightInset() - THUMB_SIZE;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double centre = snappedTopInset() + (getHeight() - snappedTopInset() - snappedBottomInset()) / 2;
+        double low = positionOf(getLowValue());
+        double high = positionOf(getHighValue());
+        track.resizeRelocate(snappedLeftInset() + THUMB_SIZE / 2, centre - TRACK_HEIGHT / 2, trackWidth(), TRACK_HEIGHT);
+        rangeBar.resizeRelocate(low, centre - TRACK_HEIGHT / 2, high - low, TRACK_HEIGHT);
+        lowThumb.resizeRelocate(low - THUMB_SIZE / 2, centre - THUMB_SIZE / 2, THUMB_SIZE, THUMB_SIZE);
+        highThumb.resizeRelocate(high - THUMB_SIZE / 2, centre - THUMB_SIZE / 2, THUMB_SIZE, THUMB_SIZE);
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return snappedLeftInset() + 200 + snappedRightInset();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + THUMB_SIZE + snappedBottomInset();
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    public DoubleProperty minProperty() { return min; }
+    public double getMin() { return min.get(); }
+    public void setMin(double value) { min.set(value); }
+
+    public DoubleProperty maxProperty() { return max; }
+    public double getMax() { return max.get(); }
+    public void setMax(double value) { max.set(value); }
+
+    public DoubleProperty lowValueProperty() { return lowValue; }
+    public double getLowValue() { return lowValue.get(); }
+    public void setLowValue(double value) { lowValue.set(value); }
+
+    public DoubleProperty highValueProperty() { return highValue; }
+    public double getHighValue() { return highValue.get(); }
+    public void setHighValue(double value) { highValue.set(value); }
+
+    /**
+     * @return True while a thumb is being dragged.
+     */
+    public BooleanProperty valueChangingProperty() { return valueChanging; }
+    public boolean isValueChanging() { return valueChanging.get(); }
+}
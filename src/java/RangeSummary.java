@@ -0,0 +1,119 @@
+/**
+ * The statistics of a price range which can be read off PriceHistograms,
+ * for showing while the price range is dragged: the number of listings,
+ * the average number of reviews, the number of entire homes, the most
+ * expensive borough and the number of listings in each borough.
+ *
+ * The histograms are built with the rest of the indexes when the dataset
+ * is loaded, so any price range is then answered in time proportional to
+ * the number of boroughs rather than the number of listings. The other
+ * statistics are left to the StatisticsEngine.
+ */
+public class RangeSummary {
+
+    // the room type counted by the entire homes statistic
+    private static final String ENTIRE_HOME = "Entire home/apt";
+
+    private final ListingTable table;
+    private final PriceIndex priceIndex;
+    // the room type code of entire homes, -1 if there are none
+    private final int entireHome;
+
+    // the number of listings of each neighbourhood code
+    private final PriceHistogram neighbourhoods;
+    // the sums of price * minimum nights and of minimum nights, by neighbourhood code
+    private final PriceHistogram neighbourhoodPriceNights;
+    private final PriceHistogram neighbourhoodNights;
+    // the number of listings of each room type code
+    private final PriceHistogram roomTypes;
+    // the number of reviews of all the listings
+    private final PriceHistogram reviews;
+
+    /**
+     * Build the histograms of a table.
+     * @param table The listings.
+     * @param priceIndex The price ordering of the table.
+     */
+    public RangeSummary(ListingTable table, PriceIndex priceIndex) {
+        this.table = table;
+        this.priceIndex = priceIndex;
+        entireHome = table.findRoomType(ENTIRE_HOME);
+        int neighbourhoodCount = table.getNeighbourhoodCount();
+        neighbourhoods = new PriceHistogram(priceIndex, neighbourhoodCount, table::getNeighbourhoodCode);
+        neighbourhoodPriceNights = new PriceHistogram(priceIndex, neighbourhoodCount, table::getNeighbourhoodCode,
+                row -> (long) table.getPrice(row) * table.getMinimumNights(row));
+        neighbourhoodNights = new PriceHistogram(priceIndex, neighbourhoodCount, table::getNeighbourhoodCode,
+                table::getMinimumNights);
+        roomTypes = new PriceHistogram(priceIndex, table.getRoomTypeCount(), table::getRoomTypeCode);
+        reviews = new PriceHistogram(priceIndex, 1, row -> 0, table::getNumberOfReviews);
+    }
+
+    /**
+     * @return The table of listings.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+
+    /**
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The number of listings in the price range.
+     */
+    public int getCount(int minPrice, int maxPrice) {
+        int from = priceIndex.lowerBound(minPrice);
+        return Math.max(from, priceIndex.upperBound(maxPrice)) - from;
+    }
+
+    /**
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The average number of reviews of the listings in the price range, 0 if there are none.
+     */
+    public double getAverageReviews(int minPrice, int maxPrice) {
+        int count = getCount(minPrice, maxPrice);
+        return count > 0 ? reviews.getTotal(0, minPrice, maxPrice) / (double) count : 0;
+    }
+
+    /**
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The number of entire homes in the price range.
+     */
+    public int getEntireHomes(int minPrice, int maxPrice) {
+        return entireHome >= 0 ? (int) roomTypes.getTotal(entireHome, minPrice, maxPrice) : 0;
+    }
+
+    /**
+     * The borough with the highest average price per night, weighting each
+     * listing by its minimum number of nights, as the StatisticsEngine does.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The name of the most expensive borough, or null if the price range is empty.
+     */
+    public String getMostExpensiveBorough(int minPrice, int maxPrice) {
+        long[] priceNights = neighbourhoodPriceNights.getTotals(minPrice, maxPrice, new long[table.getNeighbourhoodCount()]);
+        long[] nights = neighbourhoodNights.getTotals(minPrice, maxPrice, new long[table.getNeighbourhoodCount()]);
+        int mostExpensive = -1;
+        double highestAverage = 0;
+        for (int code = 0; code < nights.length; code++) {
+            if (nights[code] > 0) {
+                double average = priceNights[code] / (double) nights[code];
+                if (mostExpensive == -1 || average > highestAverage) {
+                    mostExpensive = code;
+                    highestAverage = average;
+                }
+            }
+        }
+        return mostExpensive >= 0 ? table.getNeighbourhoodValue(mostExpensive) : null;
+    }
+
+    /**
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @return The number of listings in the price range of each neighbourhood code.
+     */
+    public long[] getNeighbourhoodCounts(int minPrice, int maxPrice) {
+        return neighbourhoods.getTotals(minPrice, maxPrice, new long[table.getNeighbourhoodCount()]);
+    }
+}
@@ -0,0 +1,518 @@
+import java.util.Arrays;
+
+/**
+ * An immutable compressed set of row indices.
+ *
+ * The rows are split into containers of 65536 rows by their upper 16 bits.
+ * A container holding few rows stores them as a sorted array of their lower
+ * 16 bits, and a container holding many rows stores them as a bitset, so
+ * both sparse and dense sets stay small and intersect quickly.
+ */
+public class RowBitmap {
+
+    // the largest number of rows a container stores as an array
+    private static final int ARRAY_LIMIT = 4096;
+    // the number of longs in the bitset of a container
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private static final RowBitmap EMPTY = new RowBitmap(new char[0], new Container[0], 0);
+
+    // the upper 16 bits of the rows in each container, ascending
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private RowBitmap(char[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @return The bitmap holding no rows.
+     */
+    public static RowBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Create the bitmap of the rows stored in rows[from] to rows[to - 1],
+     * which must be ascending and without duplicates.
+     * @param rows The array holding the rows.
+     * @param from The index of the first row in the array.
+     * @param to The index after the last row in the array.
+     * @return The bitmap of the rows.
+     */
+    public static RowBitmap ofSorted(int[] rows, int from, int to) {
+        char[] keys = new char[8];
+        Container[] containers = new Container[8];
+        int count = 0;
+        int start = from;
+        while (start < to) {
+            int high = rows[start] >>> 16;
+            int end = start + 1;
+            while (end < to && rows[end] >>> 16 == high) {
+                end++;
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                containers = Arrays.copyOf(containers, count * 2);
+            }
+            keys[count] = (char) high;
+            containers[count] = end - start <= ARRAY_LIMIT
+                    ? ArrayContainer.of(rows, start, end)
+                    : BitmapContainer.of(rows, start, end);
+            count++;
+            start = end;
+        }
+        return create(keys, containers, count);
+    }
+
+    /**
+     * Create the bitmap of the rows stored in rows[from] to rows[to - 1],
+     * in any order. The array is not changed.
+     * @param rows The array holding the rows.
+     * @param from The index of the first row in the array.
+     * @param to The index after the last row in the array.
+     * @return The bitmap of the rows.
+     */
+    public static RowBitmap of(int[] rows, int from, int to) {
+        int[] sorted = Arrays.copyOfRange(rows, from, to);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return ofSorted(sorted, 0, unique);
+    }
+
+    /**
+     * Create the bitmap of the rows in a list.
+     * @param rows The list of rows.
+     * @return The bitmap of the rows.
+     */
+    public static RowBitmap of(ListingRows rows) {
+        int[] indices = new int[rows.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rows.rowAt(i);
+        }
+        return of(indices, 0, indices.length);
+    }
+
+    /**
+     * @param row A row index.
+     * @return True if the bitmap holds the row.
+     */
+    public boolean contains(int row) {
+        int index = Arrays.binarySearch(keys, (char) (row >>> 16));
+        return index >= 0 && containers[index].contains((char) row);
+    }
+
+    /**
+     * @return The number of rows in the bitmap.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return True if the bitmap holds no rows.
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @param other Another bitmap.
+     * @return The bitmap of the rows held by both bitmaps.
+     */
+    public RowBitmap and(RowBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        char[] resultKeys = new char[capacity];
+        Container[] resultContainers = new Container[capacity];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            }
+            else if (keys[i] > other.keys[j]) {
+                j++;
+            }
+            else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container != null) {
+                    resultKeys[count] = keys[i];
+                    resultContainers[count] = container;
+                    count++;
+                }
+                i++;
+                j++;
+            }
+        }
+        return create(resultKeys, resultContainers, count);
+    }
+
+    /**
+     * Count the rows held by both bitmaps, without creating their intersection.
+     * @param other Another bitmap.
+     * @return The number of rows held by both bitmaps.
+     */
+    public int andCardinality(RowBitmap other) {
+        int result = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            }
+            else if (keys[i] > other.keys[j]) {
+                j++;
+            }
+            else {
+                result += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param other Another bitmap.
+     * @return The bitmap of the rows held by either bitmap.
+     */
+    public RowBitmap or(RowBitmap other) {
+        int capacity = keys.length + other.keys.length;
+        char[] resultKeys = new char[capacity];
+        Container[] resultContainers = new Container[capacity];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                resultKeys[count] = keys[i];
+                resultContainers[count++] = containers[i++];
+            }
+            else if (i == keys.length || keys[i] > other.keys[j]) {
+                resultKeys[count] = other.keys[j];
+                resultContainers[count++] = other.containers[j++];
+            }
+            else {
+                resultKeys[count] = keys[i];
+                resultContainers[count++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        return create(resultKeys, resultContainers, count);
+    }
+
+    /**
+     * @return The rows in the bitmap, ascending.
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality];
+        int offset = 0;
+        for (int i = 0; i < keys.length; i++) {
+            offset = containers[i].fill(rows, offset, keys[i] << 16);
+        }
+        return rows;
+    }
+
+    /**
+     * @param table The table the rows belong to.
+     * @return The list of the rows in the bitmap, in table order.
+     */
+    public ListingRows toRows(ListingTable table) {
+        int[] rows = toArray();
+        return new ListingRows(table, rows, 0, rows.length);
+    }
+
+    private static RowBitmap create(char[] keys, Container[] containers, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        int cardinality = 0;
+        for (int i = 0; i < count; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return new RowBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count), cardinality);
+    }
+
+    /**
+     * The lower 16 bits of the rows sharing the same upper 16 bits.
+     */
+    private static abstract class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /**
+         * @return The intersection of the containers, or null if it is empty.
+         */
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container or(Container other);
+
+        /**
+         * Store the rows of the container in an array, ascending.
+         * @return The index after the last row stored.
+         */
+        abstract int fill(int[] rows, int offset, int high);
+    }
+
+    /**
+     * A container storing its values in a sorted array.
+     */
+    private static class ArrayContainer extends Container {
+
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        static ArrayContainer of(int[] rows, int from, int to) {
+            char[] values = new char[to - from];
+            for (int i = from; i < to; i++) {
+                values[i - from] = (char) rows[i];
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(values.length, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                char[] otherValues = ((ArrayContainer) other).values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < otherValues.length) {
+                    if (values[i] < otherValues[j]) {
+                        i++;
+                    }
+                    else if (values[i] > otherValues[j]) {
+                        j++;
+                    }
+                    else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        result[count++] = value;
+                    }
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(Arrays.copyOf(result, count));
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                char[] otherValues = ((ArrayContainer) other).values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < otherValues.length) {
+                    if (values[i] < otherValues[j]) {
+                        i++;
+                    }
+                    else if (values[i] > otherValues[j]) {
+                        j++;
+                    }
+                    else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            char[] otherValues = ((ArrayContainer) other).values;
+            char[] result = new char[values.length + otherValues.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < values.length || j < otherValues.length) {
+                if (j == otherValues.length || (i < values.length && values[i] < otherValues[j])) {
+                    result[count++] = values[i++];
+                }
+                else if (i == values.length || values[i] > otherValues[j]) {
+                    result[count++] = otherValues[j++];
+                }
+                else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            if (count > ARRAY_LIMIT) {
+                long[] words = new long[BITMAP_WORDS];
+                for (int k = 0; k < count; k++) {
+                    words[result[k] >>> 6] |= 1L << result[k];
+                }
+                return new BitmapContainer(words, count);
+            }
+            return new ArrayContainer(Arrays.copyOf(result, count));
+        }
+
+        @Override
+        int fill(int[] rows, int offset, int high) {
+            for (char value : values) {
+                rows[offset++] = high | value;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * A container storing its values in a bitset of 65536 bits.
+     */
+    private static class BitmapContainer extends Container {
+
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer of(int[] rows, int from, int to) {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = from; i < to; i++) {
+                int value = rows[i] & 0xFFFF;
+                words[value >>> 6] |= 1L << value;
+            }
+            return new BitmapContainer(words, to - from);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (count <= ARRAY_LIMIT) {
+                char[] values = new char[count];
+                fill(result, values);
+                return new ArrayContainer(values);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                for (char value : ((ArrayContainer) other).values) {
+                    result[value >>> 6] |= 1L << value;
+                }
+            }
+            else {
+                long[] otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= otherWords[i];
+                }
+            }
+            int count = 0;
+            for (long word : result) {
+                count += Long.bitCount(word);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        int fill(int[] rows, int offset, int high) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    rows[offset++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        /**
+         * Store the set bits of a bitset in an array, ascending.
+         */
+        private static void fill(long[] words, char[] values) {
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * The posting lists of a ListingTable: for every neighbourhood and every
+ * room type, the bitmap of the rows having it.
+ *
+ * Built once when the dataset is loaded, so filtering by neighbourhood
+ * or room type intersects bitmaps instead of scanning the rows.
+ */
+public class SecondaryIndex {
+
+    private final ListingTable table;
+    // the rows of each neighbourhood, by dictionary code
+    private final RowBitmap[] neighbourhoods;
+    // the rows of each room type, by dictionary code
+    private final RowBitmap[] roomTypes;
+    // all the rows of the table
+    private final RowBitmap all;
+
+    /**
+     * Build the index of a table.
+     * @param table The table to index.
+     */
+    public SecondaryIndex(ListingTable table) {
+        this.table = table;
+        int size = table.size();
+
+        int[] neighbourhoodCodes = new int[size];
+        int[] roomTypeCodes = new int[size];
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            neighbourhoodCodes[row] = table.getNeighbourhoodCode(row);
+            roomTypeCodes[row] = table.getRoomTypeCode(row);
+            rows[row] = row;
+        }
+        neighbourhoods = postingLists(neighbourhoodCodes, table.getNeighbourhoodCount());
+        roomTypes = postingLists(roomTypeCodes, table.getRoomTypeCount());
+        all = RowBitmap.ofSorted(rows, 0, size);
+    }
+
+    /**
+     * Group the rows by their code with a counting sort, which keeps
+     * the rows of each code ascending.
+     */
+    private static RowBitmap[] postingLists(int[] codes, int codeCount) {
+        int[] starts = new int[codeCount + 1];
+        for (int code : codes) {
+            starts[code + 1]++;
+        }
+        for (int code = 0; code < codeCount; code++) {
+            starts[code + 1] += starts[code];
+        }
+        int[] rows = new int[codes.length];
+        int[] next = starts.clone();
+        for (int row = 0; row < codes.length; row++) {
+            rows[next[codes[row]]++] = row;
+        }
+        RowBitmap[] lists = new RowBitmap[codeCount];
+        for (int code = 0; code < codeCount; code++) {
+            lists[code] = RowBitmap.ofSorted(rows, starts[code], starts[code + 1]);
+        }
+        return lists;
+    }
+
+    /**
+     * @param neighbourhood The name of a neighbourhood.
+     * @return The rows in the neighbourhood, empty if there are none.
+     */
+    public RowBitmap getNeighbourhood(String neighbourhood) {
+        int code = table.findNeighbourhood(neighbourhood);
+        return code >= 0 ? neighbourhoods[code] : RowBitmap.empty();
+    }
+
+    /**
+     * @param neighbourhood The dictionary code of a neighbourhood.
+     * @return The rows in the neighbourhood.
+     */
+    public RowBitmap getNeighbourhood(int neighbourhood) {
+        return neighbourhoods[neighbourhood];
+    }
+
+    /**
+     * @param neighbourhood The names of neighbourhoods.
+     * @return The rows in any of the neighbourhoods.
+     */
+    public RowBitmap getNeighbourhoods(String ... neighbourhood) {
+        RowBitmap rows = RowBitmap.empty();
+        for (String name : neighbourhood) {
+            rows = rows.or(getNeighbourhood(name));
+        }
+        return rows;
+    }
+
+    /**
+     * @param roomType The name of a room type.
+     * @return The rows of the room type, empty if there are none.
+     */
+    public RowBitmap getRoomType(String roomType) {
+        int code = table.findRoomType(roomType);
+        return code >= 0 ? roomTypes[code] : RowBitmap.empty();
+    }
+
+    /**
+     * @param roomType The dictionary code of a room type.
+     * @return The rows of the room type.
+     */
+    public RowBitmap getRoomType(int roomType) {
+        return roomTypes[roomType];
+    }
+
+    /**
+     * @return All the rows of the table.
+     */
+    public RowBitmap getAll() {
+        return all;
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Represents a single statistic in the application that has
@@ -21,6 +22,8 @@ public class SingleStatistic {
     private List<String> list;
     // List of properties that show up then you click "show details" button.
     private List<Listing> statisticListings;
+    // Creates the list of properties when it is asked for, if set.
+    private Supplier<List<Listing>> listingsSupplier;
     // StatisticsSnippet, on which the SingleStatistic is displayed.
     private StatisticsSnippet statisticsSnippet;
 
@@ -67,6 +70,16 @@ public class SingleStatistic {
         attributeValue = newValue;
     }
 
+    /**
+     * Sets how the list of properties is created, so it is only
+     * worked out when the "show details" button is clicked.
+     * @param supplier Creates the list of properties.
+     */
+    public void setStatisticListings(Supplier<List<Listing>> supplier)
+    {
+        listingsSupplier = supplier;
+    }
+
     /**
      * Sets the StatisticsSnippet.
      * @param snippet StatisticsSnippet to be set.
@@ -113,6 +126,9 @@ public class SingleStatistic {
      */
     public List<Listing> getStatisticListings()
     {
+        if (listingsSupplier != null && statisticListings != null) {
+            return listingsSupplier.get();
+        }
         return statisticListings;
     }
 
@@ -0,0 +1,115 @@
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates the snippets shown in lists: property snippets, comparison
+ * property snippets and statistics snippets.
+ *
+ * Loading a snippet through FXMLLoader parsed its FXML file and wired the
+ * controller by reflection every time, which dominated the cost of
+ * opening a list. Instead each snippet class builds its nodes in code
+ * and assigns its own fields. The stylesheets the templates share are looked up once here,
+ * and their images come from ImageCache. The factory also records how
+ * long each template takes to instantiate.
+ */
+public abstract class SnippetFactory {
+
+    /**
+     * The snippet templates.
+     */
+    public enum Template {
+        PROPERTY,
+        COMPARISON_PROPERTY,
+        STATISTICS
+    }
+
+    // per template, the number of snippets created and the total time taken in nanoseconds
+    private static final Map<Template, long[]> timings = new EnumMap<>(Template.class);
+    // the shared stylesheet urls, by resource path
+    private static final Map<String, String> stylesheets = new HashMap<>();
+
+    /**
+     * Create a property snippet, with no listing shown yet.
+     * @param controller the list controller the snippet belongs to.
+     * @return the new snippet.
+     */
+    public static PropertySnippet createPropertySnippet(ListController controller) {
+        long start = System.nanoTime();
+        PropertySnippet snippet = new PropertySnippet(controller);
+        record(Template.PROPERTY, start);
+        return snippet;
+    }
+
+    /**
+     * Create a snippet for the comparison view.
+     * @param listing the listing shown in the snippet.
+     * @param distance the distance of the listing to Central London in kilometres.
+     * @param controller the comparison controller the snippet belongs to.
+     * @return the new snippet.
+     */
+    public static ComparisonPropertySnippet createComparisonPropertySnippet(Listing listing, double distance,
+                                                                            ComparisonController controller) {
+        long start = System.nanoTime();
+        ComparisonPropertySnippet snippet = new ComparisonPropertySnippet(listing, distance, controller);
+        record(Template.COMPARISON_PROPERTY, start);
+        return snippet;
+    }
+
+    /**
+     * Create a statistics snippet. Its nodes are in the pane returned by getPane.
+     * @return the new snippet.
+     */
+    public static StatisticsSnippet createStatisticsSnippet() {
+        long start = System.nanoTime();
+        StatisticsSnippet snippet = new StatisticsSnippet();
+        record(Template.STATISTICS, start);
+        return snippet;
+    }
+
+    private static synchronized void record(Template template, long start) {
+        long[] timing = timings.computeIfAbsent(template, t -> new long[2]);
+        timing[0]++;
+        timing[1] += System.nanoTime() - start;
+    }
+
+    /**
+     * @param template a snippet template.
+     * @return the number of snippets of the template created so far.
+     */
+    public static synchronized long getInstantiationCount(Template template) {
+        long[] timing = timings.get(template);
+        return timing == null ? 0 : timing[0];
+    }
+
+    /**
+     * @param template a snippet template.
+     * @return the average time taken to create a snippet of the template in milliseconds, or 0 if none was created.
+     */
+    public static synchronized double getAverageInstantiationTime(Template template) {
+        long[] timing = timings.get(template);
+        return timing == null ? 0 : timing[1] / 1e6 / timing[0];
+    }
+
+    /**
+     * Print the number of snippets of each template created so far, and the average time taken.
+     */
+    public static synchronized void report() {
+        for (Template template : Template.values()) {
+            if (getInstantiationCount(template) > 0) {
+                System.out.println(String.format(Locale.ROOT, "%s snippets: %d created, %.3f ms each",
+                        template, getInstantiationCount(template), getAverageInstantiationTime(template)));
+            }
+        }
+    }
+
+    /**
+     * Get the url of a stylesheet, as added to the stylesheets of a node.
+     * @param path the resource path of the stylesheet, for example "/stylesheets/list.css".
+     * @return the url of the stylesheet.
+     */
+    public static synchronized String getStylesheet(String path) {
+        return stylesheets.computeIfAbsent(path, p -> SnippetFactory.class.getResource(p).toExternalForm());
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+
+/**
+ * The orderings of the rows of a ListingTable by each of the attributes
+ * the listings can be sorted by.
+ *
+ * Each ordering is computed once, the first time it is needed, as a
+ * permutation of the rows. The whole table is then sorted without any
+ * work, and a subset of its rows either by picking its rows out of the
+ * permutation or, for a small subset, by radix sorting the keys of the
+ * subset alone. Like a stable sort, listings with equal keys keep the
+ * order they had in the subset, in both directions.
+ */
+public class SortIndex {
+
+    /**
+     * The attributes the listings can be sorted by.
+     */
+    public enum Key {
+        PRICE,
+        MINIMUM_PRICE,
+        MINIMUM_NIGHTS,
+        REVIEWS,
+        HOST_NAME,
+        HOST_ID,
+        NEIGHBOURHOOD
+    }
+
+    private final ListingTable table;
+    // per key, created on first use: the sort key of each row (for the text
+    // attributes the position of the value in alphabetical order), and the
+    // rows in ascending and descending order
+    private final int[][] keys = new int[Key.values().length][];
+    private final int[][] ascending = new int[Key.values().length][];
+    private final int[][] descending = new int[Key.values().length][];
+
+    /**
+     * Create the index of a table. No ordering is computed until it is needed.
+     * @param table The table to index.
+     */
+    public SortIndex(ListingTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Sort some of the rows of the table.
+     * @param rows The rows to sort, each appearing once.
+     * @param key The attribute to sort by.
+     * @param sortAscending Whether to sort in ascending order, or descending.
+     * @return A list of the rows in order.
+     */
+    public ListingRows sort(ListingRows rows, Key key, boolean sortAscending) {
+        int size = rows.size();
+        if (size == table.size() && isInTableOrder(rows)) {
+            return new ListingRows(table, getOrder(key, sortAscending), 0, size);
+        }
+
+        int[] positions = pickOrder(rows, key, sortAscending);
+        if (positions == null) {
+            // sort the keys of the subset alone; the sort is stable
+            int[] rowKeys = getKeys(key);
+            int[] subsetKeys = new int[size];
+            for (int i = 0; i < size; i++) {
+                subsetKeys[i] = rowKeys[rows.rowAt(i)];
+            }
+            positions = RadixSort.order(subsetKeys, sortAscending);
+        }
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = rows.rowAt(positions[i]);
+        }
+        return new ListingRows(table, sorted, 0, size);
+    }
+
+    /**
+     * Order a subset of the rows by picking them out of the permutation of
+     * the table. This visits every row of the table, so it is only done for
+     * a large subset; it also puts equal keys in table order, which keeps
+     * their order in the subset only if that is the table order.
+     * @param rows The rows to order, each appearing once.
+     * @param key The attribute to sort by.
+     * @param sortAscending Whether to sort in ascending order, or descending.
+     * @return The positions of the rows in the subset, in sorted order, or null
+     *         if the subset is too small or not in table order.
+     */
+    public int[] pickOrder(ListingRows rows, Key key, boolean sortAscending) {
+        int size = rows.size();
+        if ((long) size * (32 - Integer.numberOfLeadingZeros(size)) < table.size() || !isInTableOrder(rows)) {
+            return null;
+        }
+        // the members of the subset, and the number of members before each word,
+        // which give the position of a member in the subset
+        long[] members = new long[(table.size() + 63) >> 6];
+        for (int i = 0; i < size; i++) {
+            int row = rows.rowAt(i);
+            members[row >> 6] |= 1L << row;
+        }
+        int[] wordPositions = new int[members.length];
+        for (int word = 1; word < members.length; word++) {
+            wordPositions[word] = wordPositions[word - 1] + Long.bitCount(members[word - 1]);
+        }
+        int[] positions = new int[size];
+        int count = 0;
+        for (int row : getOrder(key, sortAscending)) {
+            long word = members[row >> 6];
+            if ((word & (1L << row)) != 0) {
+                positions[count++] = wordPositions[row >> 6] + Long.bitCount(word & ((1L << row) - 1));
+            }
+        }
+        return positions;
+    }
+
+    private static boolean isInTableOrder(ListingRows rows) {
+        for (int i = 1; i < rows.size(); i++) {
+            if (rows.rowAt(i - 1) >= rows.rowAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param key The attribute to sort by.
+     * @param sortAscending Whether to sort in ascending order, or descending.
+     * @return All the rows of the table in order, rows with equal keys in table order.
+     *         The array must not be changed.
+     */
+    public synchronized int[] getOrder(Key key, boolean sortAscending) {
+        int index = key.ordinal();
+        int[][] orders = sortAscending ? ascending : descending;
+        if (orders[index] == null) {
+            // the descending order is sorted again rather than reversed, to keep equal keys in table order
+            orders[index] = RadixSort.order(getKeys(key), sortAscending);
+        }
+        return orders[index];
+    }
+
+    /**
+     * @param key The attribute to sort by.
+     * @return The sort key of each row, which orders the rows as the attribute does.
+     *         The array must not be changed.
+     */
+    public synchronized int[] getKeys(Key key) {
+        int index = key.ordinal();
+        if (keys[index] == null) {
+            keys[index] = computeKeys(key);
+        }
+        return keys[index];
+    }
+
+    private int[] computeKeys(Key key) {
+        int size = table.size();
+        int[] rowKeys = new int[size];
+        switch (key) {
+            case PRICE:
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = table.getPrice(row);
+                }
+                break;
+            case MINIMUM_PRICE:
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = table.getMinimumNights(row) * table.getPrice(row);
+                }
+                break;
+            case MINIMUM_NIGHTS:
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = table.getMinimumNights(row);
+                }
+                break;
+            case REVIEWS:
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = table.getNumberOfReviews(row);
+                }
+                break;
+            case HOST_NAME: {
+                String[] values = new String[table.getHostNameCount()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = table.getHostNameValue(code);
+                }
+                int[] codeRanks = alphabeticalRanks(values);
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = codeRanks[table.getHostNameCode(row)];
+                }
+                break;
+            }
+            case HOST_ID: {
+                String[] values = new String[table.getHostIdCount()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = table.getHostIdValue(code);
+                }
+                int[] codeRanks = alphabeticalRanks(values);
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = codeRanks[table.getHostIdCode(row)];
+                }
+                break;
+            }
+            case NEIGHBOURHOOD: {
+                String[] values = new String[table.getNeighbourhoodCount()];
+                for (int code = 0; code < values.length; code++) {
+                    values[code] = table.getNeighbourhoodValue(code);
+                }
+                int[] codeRanks = alphabeticalRanks(values);
+                for (int row = 0; row < size; row++) {
+                    rowKeys[row] = codeRanks[table.getNeighbourhoodCode(row)];
+                }
+                break;
+            }
+        }
+        return rowKeys;
+    }
+
+    /**
+     * @param values The distinct values of a dictionary encoded column, by code.
+     * @return The position of each code's value in alphabetical order.
+     */
+    private static int[] alphabeticalRanks(String[] values) {
+        Integer[] codes = new Integer[values.length];
+        for (int code = 0; code < codes.length; code++) {
+            codes[code] = code;
+        }
+        Arrays.sort(codes, (a, b) -> values[a].compareTo(values[b]));
+        int[] codeRanks = new int[values.length];
+        for (int i = 0; i < codes.length; i++) {
+            codeRanks[codes[i]] = i;
+        }
+        return codeRanks;
+    }
+
+    /**
+     * @return The table the index belongs to.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+}
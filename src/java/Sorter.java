@@ -1,12 +1,134 @@
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Sorter class that is able to sort Lists based on property attributes.
+ *
+ * Listings are sorted by a radix sort of integer keys: the attribute
+ * itself for the numeric attributes, and the position of the value in
+ * alphabetical order for the text attributes, so no comparisons are made
+ * per listing. Lists of table rows take their keys from the SortIndex of
+ * their table, so the keys are computed once per dataset, and stay lists
+ * of rows once sorted. Either way, the sort is stable.
  */
 public abstract class Sorter {
 
+    /**
+     * Sort a list of table rows through the sort keys of its table.
+     * @param listings list of listings to be sorted
+     * @param key the attribute to sort by
+     * @param sortAscending whether to sort by ascending or not (descending).
+     * @return the sorted rows
+     */
+    private static List<Listing> sortByIndex(ListingRows listings, SortIndex.Key key, boolean sortAscending) {
+        return listings.getTable().getSortIndex().sort(listings, key, sortAscending);
+    }
+
+    /**
+     * Sort a list of listings by their keys.
+     * @param listings list of listings to be sorted
+     * @param key the attribute to sort by
+     * @param sortAscending whether to sort by ascending or not (descending).
+     * @return a new list of the sorted listings
+     */
+    private static List<Listing> sortByKeys(List<Listing> listings, SortIndex.Key key, boolean sortAscending) {
+        int[] order = RadixSort.order(getKeys(listings, key), sortAscending);
+        List<Listing> sortedListings = new ArrayList<>(order.length);
+        for (int position : order) {
+            sortedListings.add(listings.get(position));
+        }
+        return sortedListings;
+    }
+
+    /**
+     * Get the integer keys the listings are sorted by. Sorting the keys
+     * orders the listings as the attribute does.
+     * @param listings list of listings
+     * @param key the attribute to sort by
+     * @return the sort key of each listing
+     */
+    public static int[] getKeys(List<Listing> listings, SortIndex.Key key) {
+        int[] keys = new int[listings.size()];
+        if (listings instanceof ListingRows) {
+            ListingRows rows = (ListingRows) listings;
+            int[] tableKeys = rows.getTable().getSortIndex().getKeys(key);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = tableKeys[rows.rowAt(i)];
+            }
+            return keys;
+        }
+        ListingTable table = listings.isEmpty() ? null : listings.get(0).getTable();
+        for (Listing listing : listings) {
+            if (listing.getTable() != table) {
+                table = null;
+                break;
+            }
+        }
+        if (table != null) {
+            // the keys cached by the table, with the text values already in alphabetical order
+            int[] tableKeys = table.getSortIndex().getKeys(key);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = tableKeys[listings.get(i).getRow()];
+            }
+            return keys;
+        }
+        switch (key) {
+            case PRICE:
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = listings.get(i).getPrice();
+                }
+                break;
+            case MINIMUM_PRICE:
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = listings.get(i).getMinimumPrice();
+                }
+                break;
+            case MINIMUM_NIGHTS:
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = listings.get(i).getMinimumNights();
+                }
+                break;
+            case REVIEWS:
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = listings.get(i).getNumberOfReviews();
+                }
+                break;
+            case HOST_NAME:
+                return getTextKeys(listings, Listing::getHost_name);
+            case HOST_ID:
+                return getTextKeys(listings, Listing::getHost_id);
+            case NEIGHBOURHOOD:
+                return getTextKeys(listings, Listing::getNeighbourhood);
+        }
+        return keys;
+    }
+
+    /**
+     * @param listings list of listings
+     * @param attribute the text attribute to sort by
+     * @return the position of each listing's value among the distinct values in alphabetical order
+     */
+    private static int[] getTextKeys(List<Listing> listings, Function<Listing, String> attribute) {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (Listing listing : listings) {
+            ranks.put(attribute.apply(listing), 0);
+        }
+        String[] values = ranks.keySet().toArray(new String[0]);
+        Arrays.sort(values);
+        for (int i = 0; i < values.length; i++) {
+            ranks.put(values[i], i);
+        }
+        int[] keys = new int[listings.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ranks.get(attribute.apply(listings.get(i)));
+        }
+        return keys;
+    }
+
     /**
      * Sort list by price
      * @param listings list of listings to be sorted
@@ -14,17 +136,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByPrice(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getPrice))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getPrice).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.PRICE, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.PRICE, sortAscending);
     }
 
     /**
@@ -34,17 +149,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByHostID(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getHost_id))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getHost_id).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.HOST_ID, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.HOST_ID, sortAscending);
     }
 
     /**
@@ -54,17 +162,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByNeighbourhood(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getNeighbourhood))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getNeighbourhood).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.NEIGHBOURHOOD, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.NEIGHBOURHOOD, sortAscending);
     }
 
     /**
@@ -74,17 +175,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByHostName(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getHost_name))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getHost_name).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.HOST_NAME, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.HOST_NAME, sortAscending);
     }
 
     /**
@@ -94,17 +188,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByReviews(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getNumberOfReviews))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getNumberOfReviews).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.REVIEWS, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.REVIEWS, sortAscending);
     }
 
     /**
@@ -114,17 +201,10 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByMinNights(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getMinimumNights))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getMinimumNights).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.MINIMUM_NIGHTS, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.MINIMUM_NIGHTS, sortAscending);
     }
 
     /**
@@ -134,16 +214,9 @@ public abstract class Sorter {
      * @return
      */
     public static List<Listing> sortByMinimumPrice(List<Listing> listings, boolean sortAscending) {
-        List<Listing> sortedListings;
-        if (sortAscending) {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getMinimumPrice))
-                    .collect(Collectors.toList());
-        } else {
-            sortedListings = listings.stream()
-                    .sorted(Comparator.comparing(Listing::getMinimumPrice).reversed())
-                    .collect(Collectors.toList());
+        if (listings instanceof ListingRows) {
+            return sortByIndex((ListingRows) listings, SortIndex.Key.MINIMUM_PRICE, sortAscending);
         }
-        return sortedListings;
+        return sortByKeys(listings, SortIndex.Key.MINIMUM_PRICE, sortAscending);
     }
 }
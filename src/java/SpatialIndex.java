@@ -0,0 +1,308 @@
+import java.util.Arrays;
+
+/**
+ * A uniform grid over the coordinates of the listings of a ListingTable.
+ *
+ * The bounding box of the listings is divided into cells of roughly equal
+ * size in kilometres, and the rows of each cell are stored together. A
+ * radius query only visits the cells overlapping the bounding box of the
+ * circle, compares coordinates against that box first, and computes the
+ * distances of the listings inside it in one batch. A nearest neighbour query
+ * visits rings of cells outwards from the query point, and stops once no
+ * unvisited cell can be closer than the k-th nearest listing found.
+ */
+public class SpatialIndex {
+
+    // the kilometres in one degree of latitude, as used by Distance
+    private static final double KM_PER_DEGREE = 60 * 1.1515 * 1.609344;
+    // the preferred size of a cell in kilometres
+    private static final double CELL_SIZE = 0.5;
+    // the grid is made coarser if it would have more cells than this
+    private static final int MAX_CELLS = 1 << 20;
+
+    private final ListingTable table;
+    // the corner of the grid and the size of a cell in degrees
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double cellLatitude;
+    private final double cellLongitude;
+    private final int gridRows;
+    private final int gridColumns;
+    // the smallest side of a cell in kilometres
+    private final double minCellSize;
+    // the rows of each cell, stored as cellRows[cellStarts[cell]] to cellRows[cellStarts[cell + 1] - 1],
+    // and their coordinates in the same order
+    private final int[] cellStarts;
+    private final int[] cellRows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // the same coordinates prepared for batch distances
+    private final Distance.Points points;
+
+    /**
+     * Build the index of a table.
+     * @param table The table to index.
+     */
+    public SpatialIndex(ListingTable table) {
+        this.table = table;
+        int size = table.size();
+
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        for (int row = 0; row < size; row++) {
+            minLat = Math.min(minLat, table.getLatitude(row));
+            maxLat = Math.max(maxLat, table.getLatitude(row));
+            minLon = Math.min(minLon, table.getLongitude(row));
+            maxLon = Math.max(maxLon, table.getLongitude(row));
+        }
+        if (size == 0) {
+            minLat = maxLat = minLon = maxLon = 0;
+        }
+
+        // cells are CELL_SIZE wide at the latitude furthest from the equator
+        double widestCos = Math.max(0.01, Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat)))));
+        double latitudeStep = CELL_SIZE / KM_PER_DEGREE;
+        double longitudeStep = CELL_SIZE / (KM_PER_DEGREE * widestCos);
+        double scale = 1;
+        while (cells(maxLat - minLat, latitudeStep * scale) * (long) cells(maxLon - minLon, longitudeStep * scale) > MAX_CELLS) {
+            scale *= 2;
+        }
+        minLatitude = minLat;
+        minLongitude = minLon;
+        cellLatitude = latitudeStep * scale;
+        cellLongitude = longitudeStep * scale;
+        gridRows = cells(maxLat - minLat, cellLatitude);
+        gridColumns = cells(maxLon - minLon, cellLongitude);
+        minCellSize = CELL_SIZE * scale;
+
+        // group the rows by cell with a counting sort
+        int[] cellOfRow = new int[size];
+        cellStarts = new int[gridRows * gridColumns + 1];
+        for (int row = 0; row < size; row++) {
+            cellOfRow[row] = latitudeCell(table.getLatitude(row)) * gridColumns + longitudeCell(table.getLongitude(row));
+            cellStarts[cellOfRow[row] + 1]++;
+        }
+        for (int cell = 0; cell < gridRows * gridColumns; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        cellRows = new int[size];
+        latitudes = new double[size];
+        longitudes = new double[size];
+        int[] next = Arrays.copyOf(cellStarts, gridRows * gridColumns);
+        for (int row = 0; row < size; row++) {
+            int index = next[cellOfRow[row]]++;
+            cellRows[index] = row;
+            latitudes[index] = table.getLatitude(row);
+            longitudes[index] = table.getLongitude(row);
+        }
+        points = new Distance.Points(latitudes, longitudes);
+    }
+
+    private static int cells(double extent, double step) {
+        return Math.max(1, (int) Math.ceil(extent / step) + 1);
+    }
+
+    private int latitudeCell(double latitude) {
+        return clamp((int) Math.floor((latitude - minLatitude) / cellLatitude), gridRows);
+    }
+
+    private int longitudeCell(double longitude) {
+        return clamp((int) Math.floor((longitude - minLongitude) / cellLongitude), gridColumns);
+    }
+
+    private static int clamp(int cell, int count) {
+        return Math.max(0, Math.min(count - 1, cell));
+    }
+
+    /**
+     * Find the listings within a distance of a point.
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @param radius The distance in kilometres.
+     * @return The rows of the listings within the distance, ascending.
+     */
+    public int[] withinRadius(double latitude, double longitude, double radius) {
+        return withinRadius(latitude, longitude, radius, Distance.Mode.EXACT);
+    }
+
+    /**
+     * Find the listings within a distance of a point.
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @param radius The distance in kilometres.
+     * @param mode How the distances are calculated.
+     * @return The rows of the listings within the distance, ascending.
+     */
+    public int[] withinRadius(double latitude, double longitude, double radius, Distance.Mode mode) {
+        // the bounding box of the circle, in degrees
+        double latitudeDelta = radius / KM_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latitudeDelta)));
+        double longitudeDelta = cos > 1e-9 ? radius / (KM_PER_DEGREE * cos) : 360;
+        double south = latitude - latitudeDelta;
+        double north = latitude + latitudeDelta;
+        double west = longitude - longitudeDelta;
+        double east = longitude + longitudeDelta;
+
+        // the listings inside the bounding box
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        int lastRow = latitudeCell(north);
+        int lastColumn = longitudeCell(east);
+        for (int gridRow = latitudeCell(south); gridRow <= lastRow; gridRow++) {
+            // the cells of a grid row are stored one after another
+            int start = cellStarts[gridRow * gridColumns + longitudeCell(west)];
+            int end = cellStarts[gridRow * gridColumns + lastColumn + 1];
+            for (int index = start; index < end; index++) {
+                double rowLatitude = latitudes[index];
+                double rowLongitude = longitudes[index];
+                if (rowLatitude >= south && rowLatitude <= north && rowLongitude >= west && rowLongitude <= east) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = index;
+                }
+            }
+        }
+
+        // the distances, for the candidates only
+        double[] distances = new double[candidateCount];
+        points.distances(candidates, candidateCount, latitude, longitude, mode, distances);
+        int[] result = new int[candidateCount];
+        int count = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            if (distances[i] <= radius) {
+                result[count++] = cellRows[candidates[i]];
+            }
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Find the listings nearest to a point.
+     * @param latitude The latitude of the point.
+     * @param longitude The longitude of the point.
+     * @param k The number of listings to find.
+     * @return The rows of the k nearest listings (fewer if the table is smaller), nearest first.
+     */
+    public int[] nearest(double latitude, double longitude, int k) {
+        k = Math.min(k, cellRows.length);
+        if (k <= 0) {
+            return new int[0];
+        }
+        // a max-heap of the nearest listings found so far
+        double[] heapDistances = new double[k];
+        int[] heapRows = new int[k];
+        int heapSize = 0;
+        // the distances of the listings of one cell
+        double[] distances = new double[16];
+
+        int centreRow = latitudeCell(latitude);
+        int centreColumn = longitudeCell(longitude);
+        int maxRing = Math.max(gridRows, gridColumns);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every listing in this ring is at least ring - 1 whole cells away;
+            // the margin covers the difference between the grid and the sphere
+            if (heapSize == k && (ring - 1) * minCellSize * 0.99 > heapDistances[0]) {
+                break;
+            }
+            for (int gridRow = centreRow - ring; gridRow <= centreRow + ring; gridRow++) {
+                if (gridRow < 0 || gridRow >= gridRows) {
+                    continue;
+                }
+                boolean edge = gridRow == centreRow - ring || gridRow == centreRow + ring;
+                int step = edge ? 1 : Math.max(1, 2 * ring);
+                for (int gridColumn = centreColumn - ring; gridColumn <= centreColumn + ring; gridColumn += step) {
+                    if (gridColumn < 0 || gridColumn >= gridColumns) {
+                        continue;
+                    }
+                    int cell = gridRow * gridColumns + gridColumn;
+                    int start = cellStarts[cell];
+                    int end = cellStarts[cell + 1];
+                    if (end - start > distances.length) {
+                        distances = new double[end - start];
+                    }
+                    points.distances(start, end, latitude, longitude, Distance.Mode.EXACT, distances);
+                    for (int index = start; index < end; index++) {
+                        double distance = distances[index - start];
+                        int row = cellRows[index];
+                        if (heapSize < k) {
+                            heapDistances[heapSize] = distance;
+                            heapRows[heapSize] = row;
+                            siftUp(heapDistances, heapRows, heapSize++);
+                        }
+                        else if (isCloser(distance, row, heapDistances[0], heapRows[0])) {
+                            heapDistances[0] = distance;
+                            heapRows[0] = row;
+                            siftDown(heapDistances, heapRows, heapSize);
+                        }
+                    }
+                }
+            }
+        }
+
+        // empty the heap from the furthest listing back
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heapRows[0];
+            heapDistances[0] = heapDistances[i];
+            heapRows[0] = heapRows[i];
+            siftDown(heapDistances, heapRows, i);
+        }
+        return result;
+    }
+
+    /**
+     * Order the listings by distance, the lower row first on equal distances.
+     */
+    private static boolean isCloser(double distance, int row, double otherDistance, int otherRow) {
+        return distance < otherDistance || (distance == otherDistance && row < otherRow);
+    }
+
+    private static void siftUp(double[] distances, int[] rows, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isCloser(distances[parent], rows[parent], distances[index], rows[index])) {
+                break;
+            }
+            swap(distances, rows, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(double[] distances, int[] rows, int size) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (isCloser(distances[largest], rows[largest], distances[child], rows[child])) {
+                    largest = child;
+                }
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(distances, rows, largest, index);
+            index = largest;
+        }
+    }
+
+    private static void swap(double[] distances, int[] rows, int i, int j) {
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+    }
+
+    /**
+     * @return The table the index belongs to.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Aggregates one or more statistics over the listings in a price range.
+ *
+ * A StatisticsEngine passes every listing entering or leaving the price
+ * range to all of its accumulators in a single pass. To spread a large
+ * pass over several cores, each core fills an empty copy of the accumulator
+ * and the copies are merged back, so an accumulator has to produce the same
+ * result whichever way its rows were split.
+ */
+public interface StatisticAccumulator {
+
+    /**
+     * Add a row to the aggregates, or remove it.
+     * @param row The index of the row in the table.
+     * @param sign 1 to add the row, -1 to remove it.
+     */
+    void add(int row, int sign);
+
+    /**
+     * @return An accumulator of the same statistics with no rows added, sharing
+     *         everything which does not depend on the rows.
+     */
+    StatisticAccumulator createEmpty();
+
+    /**
+     * Add the rows added to (and remove the rows removed from) another
+     * accumulator, which was created by createEmpty.
+     * @param other The accumulator to merge.
+     */
+    void merge(StatisticAccumulator other);
+}
@@ -1,3 +1,4 @@
+import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
@@ -15,8 +16,12 @@ public class Statistics {
     private List<SingleStatistic> statistics;
     // Map of attribute names (like "entireHomes"), and their values to be represented on StatisticsSnippets.
     private Map<String, String> attributes;
-    // List of the filtered DataSet used across whole application.
-    private List<Listing> listings;
+    // Keeps the statistics of the filtered DataSet up to date as the price range changes.
+    // The statistics shown are read from it, on the JavaFX thread only.
+    private StatisticsEngine engine;
+    // Moved to the next price range by the FilterPipeline on its own thread, then swapped
+    // with engine once that range is shown. Guarded by this.
+    private StatisticsEngine nextEngine;
 
     // Names of attractions to be put in one ComboBox.
     private List<String> attractions;
@@ -49,17 +54,65 @@ public class Statistics {
         statistics = new ArrayList<>();
         attributes = new HashMap<>();
 
-        updateListings();
+        updateEngine();
         createComboBoxLists();
         createSingleStatistics();
     }
 
     /**
-     * Update the List of Listings by getting the filtered dataset.
+     * Move the engine to the price range of the filtered dataset, creating
+     * it again if the dataset was reloaded. Once a prepared engine has been
+     * swapped in by usePrepared, it is already there.
      */
-    private void updateListings()
+    private void updateEngine()
     {
-        listings = Main.getDataset().getFilteredDatasetList();
+        DataSet dataset = Main.getDataset();
+        engine = moveEngine(engine, dataset.getIndexes(), dataset.getAttractionsDataSet(),
+                dataset.getFilterMinPrice(), dataset.getFilterMaxPrice());
+    }
+
+    /**
+     * Move a second engine to a price range of some listings, creating it
+     * again if the listings were replaced. This does the work of
+     * updateStatistics which depends on the size of the dataset, and can be
+     * called on any thread; the statistics shown do not change until
+     * usePrepared swaps it in.
+     * @param indexes The listings with their indexes.
+     * @param attractions The attractions of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public synchronized void prepare(DataSet.Indexes indexes, List<Attraction> attractions, int minPrice, int maxPrice)
+    {
+        nextEngine = moveEngine(nextEngine, indexes, attractions, minPrice, maxPrice);
+    }
+
+    /**
+     * Swap in the engine moved by the last call to prepare, so the next
+     * updateStatistics shows its price range. Must be called on the JavaFX
+     * thread, while prepare is not running.
+     */
+    public synchronized void usePrepared()
+    {
+        StatisticsEngine shown = engine;
+        engine = nextEngine;
+        // the engine shown before is moved to the price range after the next
+        nextEngine = shown;
+    }
+
+    /**
+     * @param engine An engine, or null.
+     * @return The engine moved to the price range, or a new one if it was null or of other listings.
+     */
+    private static StatisticsEngine moveEngine(StatisticsEngine engine, DataSet.Indexes indexes,
+                                               List<Attraction> attractions, int minPrice, int maxPrice)
+    {
+        if (engine == null || engine.getTable() != indexes.getTable()) {
+            engine = new StatisticsEngine(indexes.getTable(), indexes.getPriceIndex(),
+                    indexes.getSecondaryIndex(), indexes.getSpatialIndex(), attractions);
+        }
+        engine.setPriceRange(minPrice, maxPrice);
+        return engine;
     }
 
     /**
@@ -98,6 +151,17 @@ public class Statistics {
         boroughs.sort(String::compareToIgnoreCase);
 
         attractions = new ArrayList<>();
+        updateAttractionNames();
+    }
+
+    /**
+     * Fill the attractions ComboBox list with the names of the attractions
+     * of the dataset, replacing those it held. The list is kept, as it
+     * identifies its statistic in updateComboBoxStatistic.
+     */
+    public void updateAttractionNames()
+    {
+        attractions.clear();
         for (Attraction attraction : Main.getDataset().getAttractionsDataSet()) {
             attractions.add(attraction.getName());
         }
@@ -109,7 +173,7 @@ public class Statistics {
      */
     public void updateStatistics()
     {
-        updateListings();
+        updateEngine();
         updateAvailableProperties();
         updateAvgNumberOfReviews();
         updateMostExpensiveBorough();
@@ -120,6 +184,32 @@ public class Statistics {
         updateAttractionProperties();
     }
 
+    /**
+     * Updates the statistics which can be read off the histograms of the
+     * dataset to a price range, leaving the others as they are.
+     * Used while the price range is dragged.
+     * @param summary The histograms of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public void previewStatistics(RangeSummary summary, int minPrice, int maxPrice)
+    {
+        availableProperties = summary.getCount(minPrice, maxPrice);
+        attributes.put("availableProperties", Integer.toString(availableProperties));
+
+        avgNumberOfReviews = Math.round(summary.getAverageReviews(minPrice, maxPrice) * 10.0) / 10.0;
+        attributes.put("avgNumberOfReviews", Double.toString(avgNumberOfReviews));
+
+        mostExpensiveBorough = summary.getMostExpensiveBorough(minPrice, maxPrice);
+        if (mostExpensiveBorough == null) {
+            mostExpensiveBorough = "There are no available properties within this price range";
+        }
+        attributes.put("mostExpensiveBorough", mostExpensiveBorough);
+
+        entireHomes = summary.getEntireHomes(minPrice, maxPrice);
+        attributes.put("entireHomes", Integer.toString(entireHomes));
+    }
+
     /**
      * Takes a list that is assigned to one of the StatisticsSnippets
      * with ComboBox and calls the corresponding method that updates
@@ -144,7 +234,7 @@ public class Statistics {
      */
     private void updateAvailableProperties()
     {
-        availableProperties = listings.size();
+        availableProperties = engine.getAvailableProperties();
         attributes.put("availableProperties", Integer.toString(availableProperties));
     }
 
@@ -153,15 +243,7 @@ public class Statistics {
      */
     private void updateAvgNumberOfReviews()
     {
-        avgNumberOfReviews = 0;
-        for (Listing listing : listings) {
-            avgNumberOfReviews += listing.getNumberOfReviews();
-        }
-        if (availableProperties != 0) {
-            avgNumberOfReviews /= availableProperties;
-        } else {
-            avgNumberOfReviews = 0;
-        }
+        avgNumberOfReviews = engine.getAverageReviews();
         avgNumberOfReviews = Math.round(avgNumberOfReviews * 10.0) / 10.0; // Rounding double to 1 decimal place.
         attributes.put("avgNumberOfReviews", Double.toString(avgNumberOfReviews));
     }
@@ -172,19 +254,9 @@ public class Statistics {
      */
     private void updateMostExpensiveBorough()
     {
-        mostExpensiveBorough = "There are no available properties within this price range";
-        for (Borough borough : Main.getBoroughs().values()) {
-            int boroughPrices = 0;
-            int boroughNights = 0;
-            int priceOfMostExpensive = 0;
-            for (Listing listing : borough.getListings()) {
-                boroughPrices += (listing.getPrice() * listing.getMinimumNights());
-                boroughNights += listing.getMinimumNights();
-                if ((boroughPrices / boroughNights) > priceOfMostExpensive) {
-                    priceOfMostExpensive = boroughPrices / boroughNights;
-                    mostExpensiveBorough = borough.getName();
-                }
-            }
+        mostExpensiveBorough = engine.getMostExpensiveBorough();
+        if (mostExpensiveBorough == null) {
+            mostExpensiveBorough = "There are no available properties within this price range";
         }
         attributes.put("mostExpensiveBorough", mostExpensiveBorough);
     }
@@ -194,12 +266,7 @@ public class Statistics {
      */
     private void updateEntireHomes()
     {
-        entireHomes = 0;
-        for (Listing listing : listings) {
-            if (listing.getRoom_type().equals("Entire home/apt")) {
-                entireHomes++;
-            }
-        }
+        entireHomes = engine.getEntireHomes();
         attributes.put("entireHomes", Integer.toString(entireHomes));
     }
 
@@ -209,25 +276,15 @@ public class Statistics {
     private void updateMostReviewedHost()
     {
         mostReviewedHost = "There are no available properties within the price range";
-        List<Listing> temporaryList = new ArrayList<>();
-        List<Listing> hostListings = findStatistic("mostReviewedHost").getStatisticListings();
-        int biggestAmountOfReviews = 0;
-        int numberOfReviews = 0;
-        String currentHostId = "";
-        for (Listing listing : Sorter.sortByHostID(listings, true)) {
-            if (!listing.getHost_id().equals(currentHostId)) {
-                currentHostId = listing.getHost_id();
-                numberOfReviews = 0;
-                temporaryList.clear();
-            }
-            temporaryList.add(listing);
-            numberOfReviews += listing.getNumberOfReviews();
-            if (numberOfReviews > biggestAmountOfReviews) {
-                hostListings.clear();
-                hostListings.addAll(temporaryList);
-                biggestAmountOfReviews = numberOfReviews;
-                mostReviewedHost = listing.getHost_name();
-            }
+        SingleStatistic statistic = findStatistic("mostReviewedHost");
+        StatisticsEngine engine = this.engine;
+        int host = engine.getMostReviewedHost();
+        if (host >= 0) {
+            mostReviewedHost = engine.getHostName(host);
+            statistic.setStatisticListings(() -> engine.getHostListings(host));
+        }
+        else {
+            statistic.setStatisticListings(Collections::emptyList);
         }
         attributes.put("mostReviewedHost", mostReviewedHost);
     }
@@ -237,17 +294,11 @@ public class Statistics {
      */
     private void updateGardenProperties()
     {
-        gardenProperties = 0;
         SingleStatistic statistic = findStatistic("gardenProperties");
         String gardenType = statistic.getStatisticsSnippet().getComboBoxChoice();
-        statistic.getStatisticListings().clear();
-
-        for (Listing listing : listings) {
-            if (listing.getName().toLowerCase().contains(gardenType)) {
-                gardenProperties++;
-                statistic.getStatisticListings().add(listing);
-            }
-        }
+        StatisticsEngine engine = this.engine;
+        gardenProperties = engine.getGardenProperties(gardenType);
+        statistic.setStatisticListings(() -> engine.getGardenListings(gardenType));
         attributes.put("gardenProperties", Integer.toString(gardenProperties));
     }
 
@@ -263,51 +314,32 @@ public class Statistics {
         // This class is used to align the cheapestHome String correctly in the Label.
         StringAlignUtils util = new StringAlignUtils(50, StringAlignUtils.Alignment.CENTER);
 
-        int priceOfCheapestHome = 0;
-        boolean assigned = false;
-        for (Borough borough : Main.getBoroughs().values()) {
-            if (borough.getName().equals(boroughString)) {
-                for (Listing listing : borough.getListings()) {
-                    if (listing.getRoom_type().equals("Entire home/apt")) {
-                        if(listing.getPrice() < priceOfCheapestHome || !assigned)
-                        {
-                            statistic.getStatisticListings().clear();
-                            priceOfCheapestHome = listing.getPrice();
-                            cheapestHome = "Property ID: " + listing.getId() + "\nProperty name: " +
-                                    listing.getName() + "\nPrice: £" + priceOfCheapestHome;
-                            util.format(cheapestHome);
-                            statistic.getStatisticListings().add(listing);
-                            assigned = true;
-                        }
-                    }
-                }
-            }
+        StatisticsEngine engine = this.engine;
+        int row = engine.getCheapestEntireHome(boroughString);
+        if (row >= 0) {
+            Listing listing = engine.getTable().get(row);
+            cheapestHome = "Property ID: " + listing.getId() + "\nProperty name: " +
+                    listing.getName() + "\nPrice: £" + listing.getPrice();
+            util.format(cheapestHome);
+            statistic.setStatisticListings(() -> Collections.singletonList(listing));
+        }
+        else {
+            statistic.setStatisticListings(Collections::emptyList);
         }
         attributes.put("cheapestHome", cheapestHome);
     }
 
     /**
      * Updates the attribute "attractionProperties" by checking if
-     * the property are placed within 1 km from chosen attraction (in straight line).
+     * the property are placed within 1 km from chosen attraction (in straight line).
      */
     private void updateAttractionProperties()
     {
-        attractionProperties = 0;
         SingleStatistic statistic = findStatistic("attractionProperties");
         String attractionType = statistic.getStatisticsSnippet().getComboBoxChoice();
-        statistic.getStatisticListings().clear();
-
-        for (Attraction attraction : Main.getDataset().getAttractionsDataSet()) {
-            if (attraction.getName().equals(attractionType)) {
-                for (Listing listing : Main.getDataset().getFilteredDatasetList()) {
-                    if (Distance.calculateDistance(listing.getLatitude(), listing.getLongitude(),
-                            attraction.getLatitude(), attraction.getLongitude()) <= 1.0) {
-                        attractionProperties++;
-                        statistic.getStatisticListings().add(listing);
-                    }
-                }
-            }
-        }
+        StatisticsEngine engine = this.engine;
+        attractionProperties = engine.getAttractionProperties(attractionType);
+        statistic.setStatisticListings(() -> engine.getAttractionListings(attractionType));
         attributes.put("attractionProperties", Integer.toString(attractionProperties));
     }
 
@@ -2,14 +2,12 @@ import javafx.animation.FadeTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.util.Duration;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,6 +46,9 @@ public class StatisticsController {
         createStatisticsSnippets();
         update();
         fillPanes();
+
+        // the attractions are loaded in the background, after the panel is created
+        Main.getDataset().addAttractionsListener(this::updateAttractions);
     }
 
     /**
@@ -71,41 +72,77 @@ public class StatisticsController {
     {
         for (SingleStatistic singleStatistic : statistics.getStatistics()) {
 
-            try {
-                FXMLLoader snippetLoader = new FXMLLoader(getClass().getResource("/fxml/statisticsSnippet.fxml"));
-                BorderPane snippetPane = snippetLoader.load();
-                StatisticsSnippet snippet = snippetLoader.getController();
-
-                snippet.changeNameLabel(singleStatistic.getDescription());
-                snippet.setSingleStatistic(singleStatistic);
-                statisticsPanes.add(snippetPane);
-                statistics.getAttributes().put(singleStatistic.getAttributeName(), singleStatistic.getAttributeValue());
-                singleStatistic.setStatisticsSnippet(snippet);
-
-                if (singleStatistic.getStatisticListings() == null) {
-                    snippet.removeShowButton();
-                }
-                else {
-                    snippet.setNewStyleClass();
-                }
-
-                if (singleStatistic.getList() == null) {
-                    snippet.removeComboBox();
-                }
-                else {
-                    snippet.setBoxMargin();
-                    ObservableList<String> observableList = FXCollections.observableArrayList(singleStatistic.getList());
-                    snippet.setComboBox(observableList);
-                    snippet.getComboBox().valueProperty().addListener(observable -> updateComboBoxSnippet(singleStatistic.getList(), singleStatistic));
-                    snippet.getComboBox().getSelectionModel().select(0);
-                }
+            StatisticsSnippet snippet = SnippetFactory.createStatisticsSnippet();
+            BorderPane snippetPane = snippet.getPane();
+
+            snippet.changeNameLabel(singleStatistic.getDescription());
+            snippet.setSingleStatistic(singleStatistic);
+            statisticsPanes.add(snippetPane);
+            statistics.getAttributes().put(singleStatistic.getAttributeName(), singleStatistic.getAttributeValue());
+            singleStatistic.setStatisticsSnippet(snippet);
+
+            if (singleStatistic.getStatisticListings() == null) {
+                snippet.removeShowButton();
+            }
+            else {
+                snippet.setNewStyleClass();
+            }
+
+            if (singleStatistic.getList() == null) {
+                snippet.removeComboBox();
             }
-            catch (IOException e) {
-                e.printStackTrace();
+            else {
+                snippet.setBoxMargin();
+                ObservableList<String> observableList = FXCollections.observableArrayList(singleStatistic.getList());
+                snippet.setComboBox(observableList);
+                snippet.getComboBox().valueProperty().addListener(observable -> updateComboBoxSnippet(singleStatistic.getList(), singleStatistic));
+                snippet.getComboBox().getSelectionModel().select(0);
+            }
+        }
+    }
+
+    /**
+     * Refills the ComboBox of the attractions statistic with the attractions
+     * of the dataset, and selects the first one.
+     */
+    private void updateAttractions()
+    {
+        statistics.updateAttractionNames();
+        for (SingleStatistic singleStatistic : statistics.getStatistics()) {
+            if (singleStatistic.getAttributeName().equals("attractionProperties")) {
+                StatisticsSnippet snippet = singleStatistic.getStatisticsSnippet();
+                snippet.setComboBox(FXCollections.observableArrayList(singleStatistic.getList()));
+                snippet.getComboBox().getSelectionModel().select(0);
             }
         }
     }
 
+    /**
+     * Move the statistics to a price range ahead of the next publish,
+     * off the JavaFX thread, without changing those shown.
+     * @param indexes The listings with their indexes.
+     * @param attractions The attractions of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public void prepare(DataSet.Indexes indexes, List<Attraction> attractions, int minPrice, int maxPrice)
+    {
+        statistics.prepare(indexes, attractions, minPrice, maxPrice);
+    }
+
+    /**
+     * Updates the statistics that can be read off histograms, and their
+     * statisticSnippets, while the price range is dragged.
+     * @param summary The histograms of the dataset.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public void preview(RangeSummary summary, int minPrice, int maxPrice)
+    {
+        statistics.previewStatistics(summary, minPrice, maxPrice);
+        updateSnippets();
+    }
+
     /**
      * Updates statistics, and their statisticSnippets
      * with every change in the input price range.
@@ -116,6 +153,16 @@ public class StatisticsController {
         updateSnippets();
     }
 
+    /**
+     * Shows the statistics moved to a price range by the last prepare,
+     * and updates their statisticSnippets.
+     */
+    public void publish()
+    {
+        statistics.usePrepared();
+        update();
+    }
+
     /**
      * Updates the attribute values in each SingleStatistic from statistics List.
      * It updates the StatisticsSnippet by calling updateSingleSnippet method.
@@ -212,10 +259,10 @@ public class StatisticsController {
         ImageView imageView = (ImageView) event.getTarget();
         Image hoverImage = null;
         if (clickedBorderPane.getLeft() == event.getTarget()) {
-            hoverImage = new Image("/images/statistics-left-red.png");
+            hoverImage = ImageCache.getImage("/images/statistics-left-red.png");
         }
         else {
-            hoverImage = new Image("/images/statistics-right-red.png");
+            hoverImage = ImageCache.getImage("/images/statistics-right-red.png");
         }
         imageView.setImage(hoverImage);
     }
@@ -232,10 +279,10 @@ public class StatisticsController {
         ImageView imageView = (ImageView) event.getTarget();
         Image normalImage = null;
         if (clickedBorderPane.getLeft() == event.getTarget()) {
-            normalImage = new Image("/images/statistics-left.png");
+            normalImage = ImageCache.getImage("/images/statistics-left.PNG");
         }
         else {
-            normalImage = new Image("/images/statistics-right.png");
+            normalImage = ImageCache.getImage("/images/statistics-right.PNG");
         }
         imageView.setImage(normalImage);
     }
@@ -0,0 +1,846 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Keeps the statistics of the listings in the filtered price range up to date.
+ *
+ * The listings in a price range are a contiguous range of positions in the
+ * PriceIndex ordering. When the price range changes, only the listings at
+ * the positions entering or leaving the range are passed to the registered
+ * StatisticAccumulators, all of them in a single pass, so an update takes
+ * time proportional to the change rather than to the size of the dataset.
+ * Large passes (such as the first one) are split over the fork-join pool
+ * and the partial accumulators merged. Everything which does not depend on
+ * the price range (which listings mention a garden, the entire homes of
+ * each borough) is worked out once, and the listings near an attraction are
+ * found through the SpatialIndex the first time the attraction is asked for.
+ *
+ * The engine is safe to use from several threads: the price range is moved
+ * by the filter pipeline in the background while the statistics are read
+ * on the JavaFX thread.
+ */
+public class StatisticsEngine {
+
+    // the room type counted by the entire homes statistics
+    private static final String ENTIRE_HOME = "Entire home/apt";
+    // the words looked for in the names of the listings
+    private static final String[] GARDEN_WORDS = {"garden", "terrace", "balcony"};
+    // the default distance in kilometres within which a listing is near an attraction
+    private static final double ATTRACTION_DISTANCE = 1.0;
+    // passes over fewer rows than this are not split over the pool
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final ListingTable table;
+    private final PriceIndex priceIndex;
+    private final SpatialIndex spatialIndex;
+    private final ForkJoinPool pool;
+    // the position of each row in the price ordering
+    private final int[] positions;
+    // the positions of the listings in the price range are [from, to)
+    private int from;
+    private int to;
+
+    // the accumulators every row entering or leaving the range is passed to
+    private final List<StatisticAccumulator> accumulators;
+    private final ReviewAccumulator reviews;
+    private final RoomTypeAccumulator entireHomes;
+    private final BoroughPriceAccumulator boroughPrices;
+    private final GardenAccumulator gardens;
+    private final AttractionAccumulator attractions;
+    private final HostReviewAccumulator hostReviews;
+
+    // the positions of the entire homes of each neighbourhood, ascending
+    private final int[][] boroughEntireHomes;
+    // the rows with each garden word in their name
+    private final int[][] gardenRows;
+    // the rows near each attraction, found when the attraction is first asked for
+    private final int[][] attractionRows;
+    // the distance in kilometres within which a listing is near an attraction
+    private double attractionDistance;
+    // the rows of each host code, stored as hostRows[hostStarts[code]] to hostRows[hostStarts[code + 1] - 1]
+    private final int[] hostStarts;
+    private final int[] hostRows;
+
+    /**
+     * Create the engine for a table, starting with an empty price range.
+     * @param table The table of listings.
+     * @param priceIndex The price ordering of the table.
+     * @param secondaryIndex The posting lists of the table.
+     * @param spatialIndex The grid of the coordinates of the table.
+     * @param attractions The attractions for the attraction statistic.
+     */
+    public StatisticsEngine(ListingTable table, PriceIndex priceIndex, SecondaryIndex secondaryIndex,
+                            SpatialIndex spatialIndex, List<Attraction> attractions) {
+        this(table, priceIndex, secondaryIndex, spatialIndex, attractions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create the engine for a table, starting with an empty price range.
+     * @param table The table of listings.
+     * @param priceIndex The price ordering of the table.
+     * @param secondaryIndex The posting lists of the table.
+     * @param spatialIndex The grid of the coordinates of the table.
+     * @param attractions The attractions for the attraction statistic.
+     * @param pool The pool large passes are split over.
+     */
+    public StatisticsEngine(ListingTable table, PriceIndex priceIndex, SecondaryIndex secondaryIndex,
+                            SpatialIndex spatialIndex, List<Attraction> attractions, ForkJoinPool pool) {
+        this.table = table;
+        this.priceIndex = priceIndex;
+        this.spatialIndex = spatialIndex;
+        this.pool = pool;
+        int size = table.size();
+
+        positions = new int[size];
+        for (int position = 0; position < size; position++) {
+            positions[priceIndex.rowAt(position)] = position;
+        }
+
+        int neighbourhoodCount = table.getNeighbourhoodCount();
+        boroughEntireHomes = new int[neighbourhoodCount][];
+        RowBitmap entireHomeRows = secondaryIndex.getRoomType(ENTIRE_HOME);
+        for (int code = 0; code < neighbourhoodCount; code++) {
+            int[] rows = secondaryIndex.getNeighbourhood(code).and(entireHomeRows).toArray();
+            boroughEntireHomes[code] = sortedPositions(rows);
+        }
+
+        byte[] gardenFlags = new byte[size];
+        int[] gardenSizes = new int[GARDEN_WORDS.length];
+        for (int row = 0; row < size; row++) {
+            String name = table.getName(row).toLowerCase();
+            for (int word = 0; word < GARDEN_WORDS.length; word++) {
+                if (name.contains(GARDEN_WORDS[word])) {
+                    gardenFlags[row] |= 1 << word;
+                    gardenSizes[word]++;
+                }
+            }
+        }
+        gardenRows = new int[GARDEN_WORDS.length][];
+        for (int word = 0; word < GARDEN_WORDS.length; word++) {
+            gardenRows[word] = new int[gardenSizes[word]];
+            gardenSizes[word] = 0;
+        }
+        for (int row = 0; row < size; row++) {
+            for (int word = 0; word < GARDEN_WORDS.length; word++) {
+                if ((gardenFlags[row] & (1 << word)) != 0) {
+                    gardenRows[word][gardenSizes[word]++] = row;
+                }
+            }
+        }
+
+        attractionRows = new int[attractions.size()][];
+        attractionDistance = ATTRACTION_DISTANCE;
+
+        int hostCount = table.getHostIdCount();
+        hostStarts = new int[hostCount + 1];
+        for (int row = 0; row < size; row++) {
+            hostStarts[table.getHostIdCode(row) + 1]++;
+        }
+        for (int code = 0; code < hostCount; code++) {
+            hostStarts[code + 1] += hostStarts[code];
+        }
+        hostRows = new int[size];
+        int[] next = Arrays.copyOf(hostStarts, hostCount);
+        for (int row = 0; row < size; row++) {
+            hostRows[next[table.getHostIdCode(row)]++] = row;
+        }
+
+        accumulators = new ArrayList<>();
+        reviews = new ReviewAccumulator(table);
+        entireHomes = new RoomTypeAccumulator(table, table.findRoomType(ENTIRE_HOME));
+        boroughPrices = new BoroughPriceAccumulator(table);
+        gardens = new GardenAccumulator(gardenFlags, GARDEN_WORDS.length);
+        this.attractions = new AttractionAccumulator(attractions);
+        hostReviews = new HostReviewAccumulator(table);
+        register(reviews);
+        register(entireHomes);
+        register(boroughPrices);
+        register(gardens);
+        register(this.attractions);
+        register(hostReviews);
+    }
+
+    /**
+     * Add an accumulator to the engine. The listings already in the price
+     * range are added to it straight away.
+     * @param accumulator The accumulator to add.
+     */
+    public synchronized void register(StatisticAccumulator accumulator) {
+        accumulators.add(accumulator);
+        accumulate(Collections.singletonList(accumulator), from, to, 1);
+    }
+
+    /**
+     * Move the price range, adding the listings entering it to the
+     * statistics and removing the listings leaving it.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     */
+    public synchronized void setPriceRange(int minPrice, int maxPrice) {
+        int newFrom = priceIndex.lowerBound(minPrice);
+        int newTo = Math.max(newFrom, priceIndex.upperBound(maxPrice));
+
+        // the positions of the old range outside the new one
+        accumulate(accumulators, from, Math.min(to, newFrom), -1);
+        accumulate(accumulators, Math.max(from, newTo), to, -1);
+        // the positions of the new range outside the old one
+        accumulate(accumulators, newFrom, Math.min(newTo, from), 1);
+        accumulate(accumulators, Math.max(newFrom, to), newTo, 1);
+
+        from = newFrom;
+        to = newTo;
+    }
+
+    /**
+     * Pass the listings at positions [start, end) to the accumulators, splitting
+     * the pass over the pool if it is large enough.
+     */
+    private void accumulate(List<StatisticAccumulator> targets, int start, int end, int sign) {
+        if (end - start >= PARALLEL_THRESHOLD && pool.getParallelism() > 1) {
+            int chunkSize = Math.max(PARALLEL_THRESHOLD / 4, (end - start) / (pool.getParallelism() * 4) + 1);
+            List<StatisticAccumulator> partial = pool.invoke(
+                    new AccumulateTask(priceIndex, targets, start, end, sign, chunkSize));
+            for (int i = 0; i < targets.size(); i++) {
+                targets.get(i).merge(partial.get(i));
+            }
+        }
+        else {
+            accumulate(priceIndex, targets, start, end, sign);
+        }
+    }
+
+    /**
+     * The fused pass: every row is read once and given to each accumulator.
+     */
+    private static void accumulate(PriceIndex priceIndex, List<StatisticAccumulator> targets,
+                                   int start, int end, int sign) {
+        for (int position = start; position < end; position++) {
+            int row = priceIndex.rowAt(position);
+            for (int i = 0; i < targets.size(); i++) {
+                targets.get(i).add(row, sign);
+            }
+        }
+    }
+
+    /**
+     * @return The table of listings.
+     */
+    public ListingTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return The number of listings in the price range.
+     */
+    public synchronized int getAvailableProperties() {
+        return to - from;
+    }
+
+    /**
+     * @return The average number of reviews of the listings in the price range, 0 if there are none.
+     */
+    public synchronized double getAverageReviews() {
+        return to > from ? reviews.getSum() / (double) (to - from) : 0;
+    }
+
+    /**
+     * @return The number of entire homes in the price range.
+     */
+    public synchronized int getEntireHomes() {
+        return entireHomes.getCount();
+    }
+
+    /**
+     * @return The name of the most expensive borough, or null if the price range is empty.
+     */
+    public synchronized String getMostExpensiveBorough() {
+        int code = boroughPrices.getMostExpensive();
+        return code >= 0 ? table.getNeighbourhoodValue(code) : null;
+    }
+
+    /**
+     * @return The host code of the host with the most reviews in the price range,
+     *         or -1 if no listing in the range has reviews.
+     */
+    public synchronized int getMostReviewedHost() {
+        return hostReviews.getMostReviewed();
+    }
+
+    /**
+     * @param host A host code.
+     * @return The name of the host.
+     */
+    public String getHostName(int host) {
+        return table.getHostName(hostRows[hostStarts[host]]);
+    }
+
+    /**
+     * @param host A host code.
+     * @return The listings of the host in the price range, ordered by price.
+     */
+    public synchronized List<Listing> getHostListings(int host) {
+        return inRange(Arrays.copyOfRange(hostRows, hostStarts[host], hostStarts[host + 1]));
+    }
+
+    /**
+     * @param word One of "garden", "terrace" and "balcony".
+     * @return The number of listings in the price range with the word in their name.
+     */
+    public synchronized int getGardenProperties(String word) {
+        int index = gardenWord(word);
+        return index >= 0 ? gardens.getCount(index) : 0;
+    }
+
+    /**
+     * @param word One of "garden", "terrace" and "balcony".
+     * @return The listings in the price range with the word in their name, ordered by price.
+     */
+    public synchronized List<Listing> getGardenListings(String word) {
+        int index = gardenWord(word);
+        return index >= 0 ? inRange(gardenRows[index]) : Collections.emptyList();
+    }
+
+    private static int gardenWord(String word) {
+        for (int index = 0; index < GARDEN_WORDS.length; index++) {
+            if (GARDEN_WORDS[index].equals(word)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param borough The name of a borough.
+     * @return The row of the cheapest entire home in the borough in the price range,
+     *         or -1 if there is none.
+     */
+    public synchronized int getCheapestEntireHome(String borough) {
+        int code = table.findNeighbourhood(borough);
+        if (code < 0) {
+            return -1;
+        }
+        int[] homes = boroughEntireHomes[code];
+        int index = Arrays.binarySearch(homes, from);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < homes.length && homes[index] < to ? priceIndex.rowAt(homes[index]) : -1;
+    }
+
+    /**
+     * Change the distance within which a listing is near an attraction.
+     * The attractions are located again when they are next asked for.
+     * @param distance The distance in kilometres.
+     */
+    public synchronized void setAttractionDistance(double distance) {
+        attractionDistance = distance;
+        Arrays.fill(attractionRows, null);
+        attractions.forget();
+    }
+
+    /**
+     * @return The distance in kilometres within which a listing is near an attraction.
+     */
+    public synchronized double getAttractionDistance() {
+        return attractionDistance;
+    }
+
+    /**
+     * @param attraction The name of an attraction.
+     * @return The number of listings in the price range near the attraction.
+     */
+    public synchronized int getAttractionProperties(String attraction) {
+        int index = findAttraction(attraction);
+        return index >= 0 ? attractions.getCount(index) : 0;
+    }
+
+    /**
+     * @param attraction The name of an attraction.
+     * @return The listings in the price range near the attraction, ordered by price.
+     */
+    public synchronized List<Listing> getAttractionListings(String attraction) {
+        int index = findAttraction(attraction);
+        return index >= 0 ? inRange(attractionRows[index]) : Collections.emptyList();
+    }
+
+    /**
+     * Find an attraction, working out which listings are near it the
+     * first time it is asked for.
+     * @return The index of the attraction, or -1 if there is none with the name.
+     */
+    private int findAttraction(String name) {
+        int index = attractions.find(name);
+        if (index >= 0 && attractionRows[index] == null) {
+            locateAttraction(index);
+        }
+        return index;
+    }
+
+    private void locateAttraction(int index) {
+        Attraction attraction = attractions.get(index);
+        int[] rows = spatialIndex.withinRadius(attraction.getLatitude(), attraction.getLongitude(), attractionDistance);
+        boolean[] near = new boolean[table.size()];
+        int count = 0;
+        for (int row : rows) {
+            near[row] = true;
+            if (positions[row] >= from && positions[row] < to) {
+                count++;
+            }
+        }
+        attractionRows[index] = rows;
+        attractions.locate(index, near, count);
+    }
+
+    /**
+     * @return The rows which are in the price range, ordered by price.
+     */
+    private List<Listing> inRange(int[] rows) {
+        int[] selected = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            int position = positions[row];
+            if (position >= from && position < to) {
+                selected[count++] = position;
+            }
+        }
+        Arrays.sort(selected, 0, count);
+        for (int i = 0; i < count; i++) {
+            selected[i] = priceIndex.rowAt(selected[i]);
+        }
+        return new ListingRows(table, selected, 0, count);
+    }
+
+    /**
+     * @return The positions of the rows in the price ordering, ascending.
+     */
+    private int[] sortedPositions(int[] rows) {
+        int[] result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = positions[rows[i]];
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Accumulates a range of positions into empty copies of the accumulators,
+     * splitting the range in halves until it is small enough.
+     */
+    private static class AccumulateTask extends RecursiveTask<List<StatisticAccumulator>> {
+        private static final long serialVersionUID = 1L;
+
+        private final PriceIndex priceIndex;
+        private final List<StatisticAccumulator> targets;
+        private final int start;
+        private final int end;
+        private final int sign;
+        private final int chunkSize;
+
+        AccumulateTask(PriceIndex priceIndex, List<StatisticAccumulator> targets,
+                       int start, int end, int sign, int chunkSize) {
+            this.priceIndex = priceIndex;
+            this.targets = targets;
+            this.start = start;
+            this.end = end;
+            this.sign = sign;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<StatisticAccumulator> compute() {
+            if (end - start <= chunkSize) {
+                List<StatisticAccumulator> partial = new ArrayList<>(targets.size());
+                for (StatisticAccumulator target : targets) {
+                    partial.add(target.createEmpty());
+                }
+                accumulate(priceIndex, partial, start, end, sign);
+                return partial;
+            }
+            int middle = (start + end) >>> 1;
+            AccumulateTask left = new AccumulateTask(priceIndex, targets, start, middle, sign, chunkSize);
+            AccumulateTask right = new AccumulateTask(priceIndex, targets, middle, end, sign, chunkSize);
+            right.fork();
+            List<StatisticAccumulator> result = left.compute();
+            List<StatisticAccumulator> rightResult = right.join();
+            for (int i = 0; i < result.size(); i++) {
+                result.get(i).merge(rightResult.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The sum of the number of reviews.
+     */
+    static class ReviewAccumulator implements StatisticAccumulator {
+        private final ListingTable table;
+        private long sum;
+
+        ReviewAccumulator(ListingTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            sum += sign * table.getNumberOfReviews(row);
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new ReviewAccumulator(table);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            sum += ((ReviewAccumulator) other).sum;
+        }
+
+        long getSum() {
+            return sum;
+        }
+    }
+
+    /**
+     * The number of listings of one room type.
+     */
+    static class RoomTypeAccumulator implements StatisticAccumulator {
+        private final ListingTable table;
+        // the dictionary code of the room type, -1 if no listing has it
+        private final int roomType;
+        private int count;
+
+        RoomTypeAccumulator(ListingTable table, int roomType) {
+            this.table = table;
+            this.roomType = roomType;
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            if (table.getRoomTypeCode(row) == roomType) {
+                count += sign;
+            }
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new RoomTypeAccumulator(table, roomType);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            count += ((RoomTypeAccumulator) other).count;
+        }
+
+        int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The average price per night of each borough, weighting each listing
+     * by its minimum number of nights.
+     */
+    static class BoroughPriceAccumulator implements StatisticAccumulator {
+        private final ListingTable table;
+        // the sums of price * minimum nights and of minimum nights, by neighbourhood code
+        private final long[] priceNights;
+        private final long[] nights;
+
+        BoroughPriceAccumulator(ListingTable table) {
+            this.table = table;
+            priceNights = new long[table.getNeighbourhoodCount()];
+            nights = new long[table.getNeighbourhoodCount()];
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            int neighbourhood = table.getNeighbourhoodCode(row);
+            int minimumNights = table.getMinimumNights(row);
+            priceNights[neighbourhood] += sign * (long) table.getPrice(row) * minimumNights;
+            nights[neighbourhood] += sign * minimumNights;
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new BoroughPriceAccumulator(table);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            BoroughPriceAccumulator borough = (BoroughPriceAccumulator) other;
+            for (int code = 0; code < nights.length; code++) {
+                priceNights[code] += borough.priceNights[code];
+                nights[code] += borough.nights[code];
+            }
+        }
+
+        /**
+         * @return The neighbourhood code of the borough with the highest average, -1 if there is none.
+         */
+        int getMostExpensive() {
+            int mostExpensive = -1;
+            double highestAverage = 0;
+            for (int code = 0; code < nights.length; code++) {
+                if (nights[code] > 0) {
+                    double average = priceNights[code] / (double) nights[code];
+                    if (mostExpensive == -1 || average > highestAverage) {
+                        mostExpensive = code;
+                        highestAverage = average;
+                    }
+                }
+            }
+            return mostExpensive;
+        }
+    }
+
+    /**
+     * The number of listings with each garden word in their name.
+     */
+    static class GardenAccumulator implements StatisticAccumulator {
+        // which words each row mentions, one bit per word
+        private final byte[] flags;
+        private final int[] counts;
+
+        GardenAccumulator(byte[] flags, int words) {
+            this.flags = flags;
+            counts = new int[words];
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            int rowFlags = flags[row];
+            for (int word = 0; rowFlags != 0; word++, rowFlags >>>= 1) {
+                counts[word] += sign * (rowFlags & 1);
+            }
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new GardenAccumulator(flags, counts.length);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            int[] otherCounts = ((GardenAccumulator) other).counts;
+            for (int word = 0; word < counts.length; word++) {
+                counts[word] += otherCounts[word];
+            }
+        }
+
+        int getCount(int word) {
+            return counts[word];
+        }
+    }
+
+    /**
+     * The number of listings near each attraction. Attractions are only
+     * counted once they are located.
+     */
+    static class AttractionAccumulator implements StatisticAccumulator {
+        private final List<Attraction> attractions;
+        // which rows are near each located attraction, null for the others
+        private final boolean[][] near;
+        private final int[] counts;
+
+        AttractionAccumulator(List<Attraction> attractions) {
+            this(attractions, new boolean[attractions.size()][]);
+        }
+
+        private AttractionAccumulator(List<Attraction> attractions, boolean[][] near) {
+            this.attractions = attractions;
+            this.near = near;
+            counts = new int[attractions.size()];
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            for (int attraction = 0; attraction < near.length; attraction++) {
+                if (near[attraction] != null && near[attraction][row]) {
+                    counts[attraction] += sign;
+                }
+            }
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new AttractionAccumulator(attractions, near);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            int[] otherCounts = ((AttractionAccumulator) other).counts;
+            for (int attraction = 0; attraction < counts.length; attraction++) {
+                counts[attraction] += otherCounts[attraction];
+            }
+        }
+
+        /**
+         * @return The index of the attraction with the name, -1 if there is none.
+         */
+        int find(String name) {
+            for (int index = 0; index < attractions.size(); index++) {
+                if (attractions.get(index).getName().equals(name)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        Attraction get(int index) {
+            return attractions.get(index);
+        }
+
+        /**
+         * Start counting an attraction.
+         * @param index The index of the attraction.
+         * @param nearRows Which rows are near the attraction.
+         * @param count The number of those rows already in the price range.
+         */
+        void locate(int index, boolean[] nearRows, int count) {
+            near[index] = nearRows;
+            counts[index] = count;
+        }
+
+        /**
+         * Stop counting all the attractions.
+         */
+        void forget() {
+            Arrays.fill(near, null);
+            Arrays.fill(counts, 0);
+        }
+
+        int getCount(int index) {
+            return counts[index];
+        }
+    }
+
+    /**
+     * The number of reviews of each host, and the host with the most.
+     *
+     * The review sums are kept in a segment tree over the hosts in host id
+     * order, each node holding the maximum of its leaves and the leftmost
+     * host reaching it, so the most reviewed host is always at the root.
+     * The empty copies only record the changes of each host, which are
+     * applied to the tree when they are merged.
+     */
+    static class HostReviewAccumulator implements StatisticAccumulator {
+        private final ListingTable table;
+        // the rank of each host code in host id order, and the host code of each rank
+        private final int[] hostRanks;
+        private final int[] hostsByRank;
+        // the segment tree, or null in an empty copy
+        private final int leaves;
+        private final long[] tree;
+        private final int[] treeRanks;
+        // the changes of the review sums by host code, and the hosts changed, in an empty copy
+        private final long[] changes;
+        private int[] changed;
+        private int changedCount;
+
+        HostReviewAccumulator(ListingTable table) {
+            this.table = table;
+            int hostCount = table.getHostIdCount();
+            Integer[] codes = new Integer[hostCount];
+            for (int code = 0; code < hostCount; code++) {
+                codes[code] = code;
+            }
+            Arrays.sort(codes, (a, b) -> table.getHostIdValue(a).compareTo(table.getHostIdValue(b)));
+            hostsByRank = new int[hostCount];
+            hostRanks = new int[hostCount];
+            for (int rank = 0; rank < hostCount; rank++) {
+                hostsByRank[rank] = codes[rank];
+                hostRanks[codes[rank]] = rank;
+            }
+
+            int leafCount = 1;
+            while (leafCount < hostCount) {
+                leafCount <<= 1;
+            }
+            leaves = leafCount;
+            tree = new long[2 * leaves];
+            treeRanks = new int[2 * leaves];
+            for (int rank = 0; rank < leaves; rank++) {
+                // the padding leaves can never be the maximum
+                tree[leaves + rank] = rank < hostCount ? 0 : Long.MIN_VALUE;
+                treeRanks[leaves + rank] = rank;
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                pull(node);
+            }
+            changes = null;
+        }
+
+        private HostReviewAccumulator(HostReviewAccumulator original) {
+            table = original.table;
+            hostRanks = original.hostRanks;
+            hostsByRank = original.hostsByRank;
+            leaves = 0;
+            tree = null;
+            treeRanks = null;
+            changes = new long[hostRanks.length];
+            changed = new int[16];
+        }
+
+        @Override
+        public void add(int row, int sign) {
+            addReviews(table.getHostIdCode(row), sign * (long) table.getNumberOfReviews(row));
+        }
+
+        private void addReviews(int host, long reviews) {
+            if (tree == null) {
+                if (changes[host] == 0) {
+                    if (changedCount == changed.length) {
+                        changed = Arrays.copyOf(changed, changedCount * 2);
+                    }
+                    changed[changedCount++] = host;
+                }
+                changes[host] += reviews;
+                return;
+            }
+            int node = leaves + hostRanks[host];
+            tree[node] += reviews;
+            for (node >>= 1; node > 0; node >>= 1) {
+                pull(node);
+            }
+        }
+
+        private void pull(int node) {
+            int left = 2 * node;
+            int right = left + 1;
+            // on equal sums the host with the smaller id wins
+            int child = tree[left] >= tree[right] ? left : right;
+            tree[node] = tree[child];
+            treeRanks[node] = treeRanks[child];
+        }
+
+        @Override
+        public StatisticAccumulator createEmpty() {
+            return new HostReviewAccumulator(this);
+        }
+
+        @Override
+        public void merge(StatisticAccumulator other) {
+            HostReviewAccumulator hosts = (HostReviewAccumulator) other;
+            for (int i = 0; i < hosts.changedCount; i++) {
+                int host = hosts.changed[i];
+                // a host may be listed twice if its changes cancelled out on the way
+                if (hosts.changes[host] != 0) {
+                    addReviews(host, hosts.changes[host]);
+                    hosts.changes[host] = 0;
+                }
+            }
+            hosts.changedCount = 0;
+        }
+
+        /**
+         * @return The host code of the host with the most reviews, -1 if no host has any.
+         */
+        int getMostReviewed() {
+            return tree[1] > 0 ? hostsByRank[treeRanks[1]] : -1;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 import java.io.IOException;
 
@@ -22,21 +28,83 @@ import java.io.IOException;
 public class StatisticsSnippet {
 
     // BorderPane, in which all the components are wrapped in.
-    @FXML private BorderPane pane;
+    private BorderPane pane;
     // Holds single statistic's description such as "Available properties"
-    @FXML private Label nameLabel;
+    private Label nameLabel;
     // Holds single statistic's attribute value.
-    @FXML private Label valueLabel;
+    private Label valueLabel;
     // Used in some single statistics. It provides an option for the user
     // to choose some preferences that filter the properties.
-    @FXML private ComboBox<String> combo;
+    private ComboBox<String> combo;
     // HBox that holds the nameLabel and in some cases ComboBox.
-    @FXML private HBox box;
+    private HBox box;
     // Button that shows the properties when you click on it.
-    @FXML private Button show;
+    private Button show;
     // The singleStatistic that the StatisticsSnippet is connected to.
     private SingleStatistic singleStatistic;
 
+    /**
+     * Creates a statistic snippet and its components.
+     * Snippets are created through SnippetFactory.
+     */
+    StatisticsSnippet()
+    {
+        buildNodes();
+    }
+
+    /**
+     * Builds the components.
+     */
+    private void buildNodes()
+    {
+        nameLabel = new Label("Label");
+        nameLabel.setAlignment(Pos.TOP_RIGHT);
+        nameLabel.setContentDisplay(ContentDisplay.RIGHT);
+        nameLabel.setTextAlignment(TextAlignment.CENTER);
+        nameLabel.getStyleClass().add("typeLabel");
+        combo = new ComboBox<>();
+        combo.setMinWidth(80.0);
+        box = new HBox(nameLabel, combo);
+        box.setAlignment(Pos.CENTER);
+
+        GridPane gridPane = new GridPane();
+        gridPane.setAlignment(Pos.TOP_RIGHT);
+        gridPane.setMinHeight(50.0);
+        gridPane.getStyleClass().add("gridPane");
+        ColumnConstraints column = new ColumnConstraints();
+        column.setHgrow(Priority.SOMETIMES);
+        column.setMinWidth(10.0);
+        gridPane.getColumnConstraints().add(column);
+        RowConstraints row = new RowConstraints();
+        row.setMinHeight(10.0);
+        row.setVgrow(Priority.SOMETIMES);
+        gridPane.getRowConstraints().add(row);
+        gridPane.add(box, 0, 0);
+
+        valueLabel = new Label("Label");
+        valueLabel.getStyleClass().add("dataLabel");
+        BorderPane.setAlignment(valueLabel, Pos.CENTER);
+
+        show = new Button("Show Details");
+        show.setMnemonicParsing(false);
+        show.setOnAction(event -> clickShow());
+        BorderPane.setAlignment(show, Pos.CENTER);
+        BorderPane.setMargin(show, new Insets(0, 0, 10.0, 0));
+
+        pane = new BorderPane(valueLabel, gridPane, null, show, null);
+        pane.setPrefHeight(41.0);
+        pane.setPrefWidth(135.0);
+        pane.getStylesheets().add(SnippetFactory.getStylesheet("/stylesheets/statisticSnippet.css"));
+    }
+
+    /**
+     * @return The BorderPane, in which all the components are wrapped in.
+     */
+    public BorderPane getPane()
+    {
+        return pane;
+    }
+
     /**
      * Changes the content of nameLabel.
      * @param text Content to be set in nameLabel.
@@ -124,7 +192,6 @@ public class StatisticsSnippet {
      * On clicking a "show details" button, create a new window
      * for the list of properties appropriate to the statistic clicked
      */
-    @FXML
     public void clickShow() {
 
         Parent propertyListRoot;
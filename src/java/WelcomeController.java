@@ -2,13 +2,16 @@ import javafx.animation.Animation;
 import javafx.animation.FadeTransition;
 import javafx.animation.ParallelTransition;
 import javafx.animation.SequentialTransition;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
 /**
@@ -20,6 +23,10 @@ public class WelcomeController {
     @FXML private StackPane welcomePane;
     @FXML private ImageView welcomeImage;
     @FXML private Label prompt;
+    // the progress of loading the dataset
+    @FXML private VBox loadingBox;
+    @FXML private ProgressBar loadingBar;
+    @FXML private Label loadingLabel;
 
     // the blinking effect on the instruction label
     SequentialTransition blinkTransition;
@@ -44,6 +51,36 @@ public class WelcomeController {
         blinkTransition = new SequentialTransition(fadeOutTransition, fadeInTransition);
         blinkTransition.setCycleCount(Animation.INDEFINITE);
         blinkTransition.play();
+
+        DataSetLoader loader = Main.getDataSetLoader();
+        if (loader != null) {
+            showProgress(loader);
+        }
+        else {
+            loadingBox.setVisible(false);
+        }
+    }
+
+    /**
+     * Show the progress of loading the dataset, and hide it once
+     * all the listings are loaded.
+     * @param loader The loader of the dataset.
+     */
+    private void showProgress(DataSetLoader loader) {
+        loadingBar.progressProperty().bind(loader.progressProperty());
+        loadingLabel.textProperty().bind(loader.messageProperty());
+        loader.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, event -> {
+            FadeTransition fadeOutTransition = new FadeTransition(Duration.millis(1000), loadingBox);
+            fadeOutTransition.setDelay(Duration.millis(1000));
+            fadeOutTransition.setToValue(0.0);
+            fadeOutTransition.play();
+        });
+        loader.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> {
+            loadingLabel.textProperty().unbind();
+            loadingLabel.setText("The listings could not be loaded");
+            loadingBar.setVisible(false);
+            loader.getException().printStackTrace();
+        });
     }
 
     /**
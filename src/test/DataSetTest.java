@@ -3,7 +3,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,11 +13,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class DataSetTest {
 
+    // keeps the snapshots written by the tests out of the user's home directory
+    @TempDir
+    Path cacheDirectory;
+
     private DataSet dataset;
 
     @BeforeEach
     void setUp() {
-        dataset = new DataSet("test-dataset");
+        dataset = new DataSet("test-dataset", cacheDirectory);
     }
 
     @AfterEach
@@ -39,10 +45,10 @@ class DataSetTest {
         expectedFilteredDatasetList.add(new Listing("15896822","Double room in newly refurbished flat","69018624","Dafina","Kingston upon Thames",51.41003566,-0.306322953,"Private room",23,7,1,"03/12/2016",0.32,1,61));
         assertEquals(expectedFilteredDatasetList, filteredDatasetList);
 
-        // test price range with all properties (boundries)
+        // test price range with all properties (boundries), ordered by price
         dataset.filterPrice(23,50);
         filteredDatasetList = dataset.getFilteredDatasetList();
-        assertEquals(dataset.getDatasetList(), filteredDatasetList);
+        assertEquals(Sorter.sortByPrice(dataset.getDatasetList(), true), filteredDatasetList);
 
         // test price rannge without any properties (boundries)
         dataset.filterPrice(25,49);
@@ -64,7 +70,7 @@ class DataSetTest {
         // test invalid input price (-10 should be turn to '0')
         dataset.filterPrice(-10, 10000000);
         filteredDatasetList = dataset.getFilteredDatasetList();
-        assertEquals(dataset.getDatasetList(), filteredDatasetList);
+        assertEquals(Sorter.sortByPrice(dataset.getDatasetList(), true), filteredDatasetList);
     }
 
     @Test
@@ -100,4 +106,81 @@ class DataSetTest {
         expectedFavourites.clear();
         assertEquals(expectedFavourites, favourites);
     }
+
+    @Test
+    void update() {
+        // an empty dataset filled later keeps its price filter
+        DataSet loading = new DataSet();
+        assertTrue(loading.getDatasetList().isEmpty());
+        int[] updates = {0};
+        loading.addListener(() -> updates[0]++);
+        loading.filterPrice(23, 23);
+        loading.update(new DataSet.Indexes(dataset.getTable()));
+        assertEquals(1, updates[0]);
+        assertEquals(dataset.getDatasetList(), loading.getDatasetList());
+        dataset.filterPrice(23, 23);
+        assertEquals(dataset.getFilteredDatasetList(), loading.getFilteredDatasetList());
+        assertEquals(1, loading.getFilteredDatasetList().size());
+    }
+
+    @Test
+    void filterPriceFromIndexes() {
+        // a range filtered before the listings were replaced is not stored
+        DataSet.Indexes indexes = dataset.getIndexes();
+        ListingRows listings = indexes.getPriceIndex().range(23, 23);
+        assertTrue(dataset.filterPrice(indexes, 23, 23, listings));
+        assertEquals(1, dataset.getFilteredDatasetList().size());
+        dataset.update(new DataSet.Indexes(dataset.getTable()));
+        assertFalse(dataset.filterPrice(indexes, 25, 49, indexes.getPriceIndex().range(25, 49)));
+        assertEquals(23, dataset.getFilterMinPrice());
+        assertEquals(1, dataset.getFilteredDatasetList().size());
+    }
+
+    @Test
+    void neighbourhoodId() {
+        // the borough ids are worked out once per neighbourhood, as the map names its paths
+        ListingTable table = dataset.getTable();
+        int code = table.findNeighbourhood("Kingston upon Thames");
+        assertEquals("kingston_upon_thames", table.getNeighbourhoodId(code));
+        for (code = 0; code < table.getNeighbourhoodCount(); code++) {
+            assertEquals(Borough.getId(table.getNeighbourhoodValue(code)), table.getNeighbourhoodId(code));
+        }
+    }
+
+    @Test
+    void boroughListings() {
+        // the listings of a borough are selected when asked for, from the filter of the time
+        dataset.filterPrice(23, 50);
+        ListingRows listings = dataset.getFilteredDatasetList();
+        DataSet.Indexes indexes = dataset.getIndexes();
+        int code = dataset.getTable().findNeighbourhood("Kingston upon Thames");
+        Borough borough = new Borough("Kingston upon Thames");
+        int[] selections = {0};
+        borough.setListings(() -> {
+            selections[0]++;
+            return indexes.selectNeighbourhood(code, RowBitmap.of(listings));
+        });
+        dataset.filterPrice(0, 0);
+        assertEquals(0, selections[0]);
+        // in table order, as the posting lists are
+        List<Listing> expected = new ArrayList<>();
+        for (Listing listing : dataset.getDatasetList()) {
+            if (listing.getNeighbourhood().equals("Kingston upon Thames") && listing.getPrice() >= 23 && listing.getPrice() <= 50) {
+                expected.add(listing);
+            }
+        }
+        assertEquals(expected, borough.getListings());
+        assertEquals(expected, borough.getListings());
+        assertEquals(1, selections[0]);
+        borough.clear();
+        assertTrue(borough.getListings().isEmpty());
+    }
+
+    @Test
+    void imageName() {
+        // every listing has an existing image, the same every time the dataset is loaded
+        Listing listing = dataset.getDatasetList().get(0);
+        assertNotNull(getClass().getResource(listing.getImageName()));
+        assertEquals(listing.getImageName(), new DataSet("test-dataset", cacheDirectory).getDatasetList().get(0).getImageName());
+    }
 }
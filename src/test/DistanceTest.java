@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceTest {
+
+    // the largest difference allowed between a batch and calculateDistance, in kilometres
+    private static final double EXACT_TOLERANCE = 1e-9;
+    // the largest relative error allowed in the fast mode, for points at most FAST_RANGE kilometres apart
+    private static final double FAST_TOLERANCE = 0.001;
+    private static final double FAST_RANGE = 30;
+
+    // central London, and points from a few metres to hundreds of kilometres away from it
+    private static final double[][] POINTS = {
+            {51.5074, -0.1277}, {51.50741, -0.12771}, {51.5014, -0.1419}, {51.41003566, -0.306322953},
+            {51.4700, -0.4543}, {51.7520, -1.2577}, {48.8566, 2.3522}, {55.9533, -3.1883}, {0.0, 0.0}
+    };
+
+    /**
+     * Create the coordinates of points spread over London and a little beyond.
+     */
+    private static double[][] randomCoordinates(Random random, int size) {
+        double[][] coordinates = new double[2][size];
+        for (int i = 0; i < size; i++) {
+            coordinates[0][i] = 51.25 + random.nextDouble() * 0.5;
+            coordinates[1][i] = -0.55 + random.nextDouble() * 0.9;
+        }
+        return coordinates;
+    }
+
+    @Test
+    void exactMatchesCalculateDistance() {
+        double[][] coordinates = randomCoordinates(new Random(3), 2000);
+        double[] latitudes = coordinates[0];
+        double[] longitudes = coordinates[1];
+        Distance.Points points = new Distance.Points(latitudes, longitudes);
+        int[] indices = {1999, 0, 7, 7, 1234};
+
+        for (double[] point : POINTS) {
+            double[] distances = Distance.calculateDistances(latitudes, longitudes, point[0], point[1],
+                    Distance.Mode.EXACT);
+            double[] picked = new double[indices.length];
+            points.distances(indices, indices.length, point[0], point[1], Distance.Mode.EXACT, picked);
+            double[] range = new double[100];
+            points.distances(300, 400, point[0], point[1], Distance.Mode.EXACT, range);
+
+            for (int i = 0; i < latitudes.length; i++) {
+                double expected = Distance.calculateDistance(latitudes[i], longitudes[i], point[0], point[1]);
+                assertEquals(expected, distances[i], EXACT_TOLERANCE);
+                assertEquals(expected, points.distance(i, point[0], point[1], Distance.Mode.EXACT), EXACT_TOLERANCE);
+            }
+            for (int i = 0; i < indices.length; i++) {
+                assertEquals(distances[indices[i]], picked[i]);
+            }
+            for (int i = 0; i < range.length; i++) {
+                assertEquals(distances[300 + i], range[i]);
+            }
+        }
+    }
+
+    @Test
+    void fastIsCloseForShortDistances() {
+        double[][] coordinates = randomCoordinates(new Random(4), 2000);
+        Distance.Points points = new Distance.Points(coordinates[0], coordinates[1]);
+        double[] exact = new double[points.size()];
+        double[] fast = new double[points.size()];
+
+        int checked = 0;
+        for (double[] point : POINTS) {
+            points.distances(point[0], point[1], Distance.Mode.EXACT, exact);
+            points.distances(point[0], point[1], Distance.Mode.FAST, fast);
+            for (int i = 0; i < exact.length; i++) {
+                if (exact[i] <= FAST_RANGE) {
+                    assertEquals(exact[i], fast[i], exact[i] * FAST_TOLERANCE + EXACT_TOLERANCE);
+                    assertEquals(fast[i], points.distance(i, point[0], point[1], Distance.Mode.FAST));
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 1000);
+    }
+
+    @Test
+    void identicalPoints() {
+        // the cosine of identical points can be rounded to just under or over 1
+        double[][] coordinates = randomCoordinates(new Random(5), 2000);
+        Distance.Points points = new Distance.Points(coordinates[0], coordinates[1]);
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(0.0, Distance.calculateDistance(coordinates[0][i], coordinates[1][i],
+                    coordinates[0][i], coordinates[1][i]), "calculateDistance " + i);
+        }
+        double[] distance = new double[1];
+        for (Distance.Mode mode : Distance.Mode.values()) {
+            for (int i = 0; i < points.size(); i++) {
+                double latitude = coordinates[0][i];
+                double longitude = coordinates[1][i];
+                assertEquals(0.0, points.distance(i, latitude, longitude, mode), mode + " " + i);
+                points.distances(i, i + 1, latitude, longitude, mode, distance);
+                assertEquals(0.0, distance[0], mode + " " + i);
+                points.distances(new int[]{i}, 1, latitude, longitude, mode, distance);
+                assertEquals(0.0, distance[0], mode + " " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldParserTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void parseInt() {
+        // test plain, signed and padded values
+        assertEquals(23, FieldParser.parseInt(bytes("23"), 0, 2));
+        assertEquals(-7, FieldParser.parseInt("-7"));
+        assertEquals(365, FieldParser.parseInt(" 365 "));
+        assertEquals(Integer.MAX_VALUE, FieldParser.parseInt("2147483647"));
+        assertEquals(Integer.MIN_VALUE, FieldParser.parseInt("-2147483648"));
+
+        // test a field in the middle of a row
+        byte[] row = bytes("a,150,b");
+        assertEquals(150, FieldParser.parseInt(row, 2, 5));
+
+        // test empty fields (-1 sentinel)
+        assertEquals(-1, FieldParser.parseInt(""));
+        assertEquals(-1, FieldParser.parseInt("   "));
+        assertEquals(-1, FieldParser.parseInt((String) null));
+
+        // test invalid values
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt("abc"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt("1.5"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt("-"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt("2147483648"));
+    }
+
+    @Test
+    void parseDouble() {
+        // test that the values match Double.parseDouble exactly
+        String[] values = {"51.41003566", "-0.306322953", "0.32", "0", "7", "-0.1277", ".5", "5.", "1e3", "123456789.123456789"};
+        for (String value : values) {
+            assertEquals(Double.parseDouble(value), FieldParser.parseDouble(value), value);
+        }
+
+        // test a field in the middle of a row
+        byte[] row = bytes("x,51.5074,y");
+        assertEquals(51.5074, FieldParser.parseDouble(row, 2, 9));
+
+        // test empty fields (-1 sentinel)
+        assertEquals(-1.0, FieldParser.parseDouble(""));
+        assertEquals(-1.0, FieldParser.parseDouble("  "));
+        assertEquals(-1.0, FieldParser.parseDouble((String) null));
+
+        // test invalid values
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDouble("abc"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDouble("."));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDouble("1.2.3"));
+    }
+
+    @Test
+    void parseDate() {
+        // test both formats against LocalDate
+        assertEquals(LocalDate.of(2016, 12, 3).toEpochDay(), FieldParser.parseDate("03/12/2016"));
+        assertEquals(LocalDate.of(2019, 6, 1).toEpochDay(), FieldParser.parseDate("2019-06-01"));
+        assertEquals(LocalDate.of(2020, 2, 29).toEpochDay(), FieldParser.parseDate("29/02/2020"));
+        assertEquals(LocalDate.of(1969, 12, 31).toEpochDay(), FieldParser.parseDate("1969-12-31"));
+        assertEquals(0, FieldParser.parseDate(" 1970-01-01 "));
+        for (LocalDate date = LocalDate.of(1999, 1, 1); date.getYear() < 2002; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), FieldParser.parseDate(date.toString()), date.toString());
+        }
+
+        // test a field in the middle of a row
+        byte[] row = bytes("x,07/09/2016,y");
+        assertEquals(LocalDate.of(2016, 9, 7).toEpochDay(), FieldParser.parseDate(row, 2, 12));
+
+        // test empty fields (NO_DATE sentinel)
+        assertEquals(FieldParser.NO_DATE, FieldParser.parseDate(""));
+        assertEquals(FieldParser.NO_DATE, FieldParser.parseDate((String) null));
+
+        // test invalid values
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate("29/02/2019"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate("2019-13-01"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate("2019/06/01"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate("1/6/2019"));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate("ab/cd/efgh"));
+    }
+
+    @Test
+    void nonAsciiFields() {
+        // the bytes of a non-ASCII character are not whitespace, so the field is invalid rather than empty
+        byte[] pound = bytes("£");
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt(pound, 0, pound.length));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDouble(pound, 0, pound.length));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseDate(pound, 0, pound.length));
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt("£"));
+        byte[] price = bytes("£150");
+        assertThrows(NumberFormatException.class, () -> FieldParser.parseInt(price, 0, price.length));
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterPipelineTest {
+
+    // keeps the snapshots written by the tests out of the user's home directory
+    @TempDir
+    Path cacheDirectory;
+
+    private DataSet dataset;
+    // the ranges shown, with the number of listings in each
+    private final BlockingQueue<String> published = new LinkedBlockingQueue<>();
+    // a range for every time the pipeline went to show one, shown or not
+    private final BlockingQueue<Runnable> publishSteps = new LinkedBlockingQueue<>();
+    // the first range prepared waits in prepare until released
+    private final CountDownLatch firstPrepared = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private FilterPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        dataset = new DataSet("test-dataset", cacheDirectory);
+        AtomicInteger prepared = new AtomicInteger();
+        FilterPipeline.Views views = new FilterPipeline.Views() {
+            @Override
+            public void prepare(DataSet.Indexes indexes, List<Attraction> attractions, int minPrice, int maxPrice) {
+                if (prepared.incrementAndGet() == 1) {
+                    firstPrepared.countDown();
+                    try {
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void publish(DataSet.Indexes indexes, int minPrice, int maxPrice, ListingRows listings) {
+                published.add(minPrice + " to " + maxPrice + ": " + listings.size());
+            }
+        };
+        // shows the results on the pipeline thread instead of the JavaFX thread
+        Executor publisher = step -> {
+            step.run();
+            publishSteps.add(step);
+        };
+        pipeline = new FilterPipeline(dataset, views, publisher, 0);
+    }
+
+    @Test
+    void onlyTheLastRangeIsShown() throws InterruptedException {
+        pipeline.submit(20, 30);
+        assertTrue(firstPrepared.await(5, TimeUnit.SECONDS));
+        // submitted while the first is being worked on
+        pipeline.submit(23, 40);
+        pipeline.submit(23, 50);
+        release.countDown();
+
+        assertNotNull(publishSteps.poll(5, TimeUnit.SECONDS));
+        assertEquals(List.of("23 to 50: 4"), List.copyOf(published));
+        assertEquals(4, dataset.getFilteredDatasetList().size());
+        // neither of the ranges before went as far as being shown
+        assertTrue(publishSteps.isEmpty());
+    }
+
+    @Test
+    void rangeOfReplacedListingsIsDropped() throws InterruptedException {
+        pipeline.submit(23, 50);
+        assertTrue(firstPrepared.await(5, TimeUnit.SECONDS));
+        // the loader replaces the listings while the range is worked on
+        dataset.update(new DataSet.Indexes(dataset.getTable()));
+        release.countDown();
+
+        assertNotNull(publishSteps.poll(5, TimeUnit.SECONDS));
+        assertTrue(published.isEmpty());
+
+        // a range submitted afterwards is filtered from the new listings
+        pipeline.submit(23, 23);
+        assertEquals("23 to 23: 1", published.poll(5, TimeUnit.SECONDS));
+    }
+}
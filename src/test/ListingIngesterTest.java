@@ -0,0 +1,218 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingIngesterTest {
+
+    private static final String HEADER = "id,name,host_id,host_name,neighbourhood,latitude,longitude,room_type,price,"
+            + "minimum_nights,number_of_reviews,last_review,reviews_per_month,calculated_host_listings_count,availability_365";
+
+    @TempDir
+    Path directory;
+
+    /**
+     * A csv file written record by record, with the listings and errors
+     * parsing it should give.
+     */
+    private static class Csv {
+        final StringBuilder text = new StringBuilder(HEADER + "\n");
+        // the line the next record starts on, and the byte offsets records start at
+        int line = 2;
+        final List<Integer> recordStarts = new ArrayList<>();
+        // the id, name and price of every row kept
+        final List<String> rows = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+
+        /**
+         * Add a record. The name is written as it appears in the file.
+         */
+        void add(String id, String name, String price, String lastReview, String lineEnd) {
+            recordStarts.add(text.toString().getBytes(StandardCharsets.UTF_8).length);
+            text.append(id).append(',').append(name).append(",7,Anna,Camden,51.5,-0.1,Private room,")
+                    .append(price).append(",2,10,").append(lastReview).append(",0.5,1,365").append(lineEnd);
+            line += 1 + (int) name.chars().filter(c -> c == '\n').count();
+        }
+    }
+
+    /**
+     * Create a file of quoted and plain records, some spanning several
+     * lines, with a malformed record every so often.
+     */
+    private static Csv randomCsv(Random random, int records) {
+        Csv csv = new Csv();
+        for (int i = 0; i < records; i++) {
+            String id = Integer.toString(1000 + i);
+            int recordLine = csv.line;
+            String lineEnd = random.nextInt(5) == 0 ? "\r\n" : "\n";
+            int price = random.nextInt(300);
+            String lastReview = random.nextBoolean() ? "2019-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) : "";
+            String name;
+            String decoded;
+            switch (random.nextInt(4)) {
+                case 0:
+                    name = "\"Flat, near the park " + i + "\"";
+                    decoded = "Flat, near the park " + i;
+                    break;
+                case 1:
+                    name = "\"Two lines\nof name " + i + "\"";
+                    decoded = "Two lines\nof name " + i;
+                    break;
+                case 2:
+                    name = "\"The \"\"Big\"\" room " + i + "\"";
+                    decoded = "The \"Big\" room " + i;
+                    break;
+                default:
+                    name = "Room " + i;
+                    decoded = name;
+            }
+
+            int kind = random.nextInt(12);
+            if (kind == 0) {
+                csv.add(id, name, "cheap", lastReview, lineEnd);
+                csv.errors.add("Line " + recordLine + ": column 'price' is not a number: 'cheap'");
+            }
+            else if (kind == 1) {
+                csv.add(id, name, price + ",1", lastReview, lineEnd);
+                csv.errors.add("Line " + recordLine + ": expected 15 columns but found 16");
+            }
+            else {
+                csv.add(id, name, Integer.toString(price), lastReview, lineEnd);
+                csv.rows.add(id + "|" + decoded + "|" + price + "|" + FieldParser.parseDate(lastReview));
+            }
+        }
+        return csv;
+    }
+
+    private Path write(Csv csv) throws IOException {
+        Path file = directory.resolve("listings.csv");
+        Files.write(file, csv.text.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> rows(ListingTable table) {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            rows.add(table.getId(row) + "|" + table.getName(row) + "|" + table.getPrice(row) + "|"
+                    + table.getLastReviewDay(row));
+        }
+        return rows;
+    }
+
+    @Test
+    void splitOnRecordBoundaries() {
+        Csv csv = randomCsv(new Random(1), 400);
+        byte[] data = csv.text.toString().getBytes(StandardCharsets.UTF_8);
+        List<ListingIngester.Chunk> chunks = ListingIngester.split(data, 50, 1);
+        assertTrue(chunks.size() > 100);
+
+        // the ranges cover the records without gaps, each starting where a record does
+        int end = csv.recordStarts.get(0);
+        for (ListingIngester.Chunk chunk : chunks) {
+            assertEquals(end, chunk.start);
+            assertTrue(csv.recordStarts.contains(chunk.start), "range starting at " + chunk.start);
+            end = chunk.end;
+        }
+        assertEquals(data.length, end);
+    }
+
+    @Test
+    void chunksMatchASingleThreadedParse() throws IOException {
+        Csv csv = randomCsv(new Random(2), 600);
+        Path file = write(csv);
+
+        // the whole file as one range, parsed on one thread
+        ListingIngester single = new ListingIngester(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        ListingTable expected = single.ingest(file);
+        assertEquals(csv.rows, rows(expected));
+        assertEquals(csv.errors, single.getErrors());
+        assertEquals(List.of(), single.getWarnings());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // many small ranges, merged back in file order
+            ListingIngester chunked = new ListingIngester(pool, 1);
+            assertEquals(TestTables.columns(expected), TestTables.columns(chunked.ingest(file)));
+            assertEquals(csv.errors, chunked.getErrors());
+            assertEquals(expected.size(), chunked.getRowCount());
+
+            // in batches, each holding the rows of the ones before
+            long fileSize = Files.size(file);
+            List<Integer> sizes = new ArrayList<>();
+            long[] bytesParsed = {0};
+            ListingTable batched = chunked.ingest(file, (table, parsed, total) -> {
+                sizes.add(table.size());
+                bytesParsed[0] = parsed;
+                assertEquals(fileSize, total);
+            });
+            assertEquals(TestTables.columns(expected), TestTables.columns(batched));
+            assertEquals(csv.errors, chunked.getErrors());
+            assertTrue(sizes.size() > 1);
+            for (int i = 1; i < sizes.size(); i++) {
+                assertTrue(sizes.get(i) >= sizes.get(i - 1));
+            }
+            assertEquals(fileSize, bytesParsed[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void malformedRecords() throws IOException {
+        Csv csv = new Csv();
+        csv.add("1", "\"Quoted, with a comma\"", "50", "", "\n");
+        csv.add("2", "Room", "-", "", "\n");
+        csv.text.append("3,too,few,columns\n");
+        csv.line++;
+        csv.text.append("\n");
+        csv.line++;
+        csv.add("4", "\"Spans\ntwo lines\"", "60", "2019-05-12", "\n");
+        // the last record, without a line break, and its quote never closed
+        csv.text.append("5,\"Never closed,7,Anna,Camden,51.5,-0.1,Private room,70,2,10,,0.5,1,365");
+        Path file = write(csv);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ListingIngester ingester = new ListingIngester(pool, 1);
+            ListingTable table = ingester.ingest(file);
+            assertEquals(List.of("1|Quoted, with a comma|50|" + FieldParser.NO_DATE,
+                    "4|Spans\ntwo lines|60|" + FieldParser.parseDate("2019-05-12")), rows(table));
+            assertEquals(List.of(
+                    "Line 3: column 'price' is not a number: '-'",
+                    "Line 4: expected 15 columns but found 4",
+                    "Line 8: unterminated quoted field"), ingester.getErrors());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void unreadableDates() throws IOException {
+        Csv csv = new Csv();
+        csv.add("1", "Room", "50", "2019-13-45", "\n");
+        csv.add("2", "Room", "60", "yesterday", "\n");
+        // a row skipped for a later field gets no warning about its date
+        csv.text.append("3,Room,7,Anna,Camden,51.5,-0.1,Private room,70,2,10,soon,often,1,365\n");
+        csv.add("4", "Room", "80", "2019-05-12", "\n");
+        Path file = write(csv);
+
+        ListingIngester ingester = new ListingIngester(ForkJoinPool.commonPool(), 1);
+        ListingTable table = ingester.ingest(file);
+        assertEquals(List.of("1|Room|50|" + FieldParser.NO_DATE, "2|Room|60|" + FieldParser.NO_DATE,
+                "4|Room|80|" + FieldParser.parseDate("2019-05-12")), rows(table));
+        assertEquals(List.of("Line 4: column 'reviews_per_month' is not a number: 'often'"), ingester.getErrors());
+        assertEquals(List.of(
+                "Line 2: column 'last_review' is not a date: '2019-13-45', the listing is kept without it",
+                "Line 3: column 'last_review' is not a date: 'yesterday', the listing is kept without it"),
+                ingester.getWarnings());
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingSetTest {
+
+    private static Listing listing(String id) {
+        return new Listing(id, "Listing " + id, "host" + id, "Host", "Camden", 51.5, -0.1, "Private room",
+                50, 1, 0, "", 0, 1, 0);
+    }
+
+    @Test
+    void toggleKeepsOrder() {
+        Listing a = listing("1");
+        Listing b = listing("2");
+        Listing c = listing("3");
+        ListingSet set = new ListingSet();
+        assertTrue(set.add(a));
+        assertTrue(set.add(b));
+        assertTrue(set.add(c));
+        assertFalse(set.add(listing("2")));
+        assertEquals(Arrays.asList(a, b, c), set);
+
+        // an equal listing from another table is the same member
+        assertTrue(set.contains(listing("2")));
+        assertFalse(set.toggle(listing("2")));
+        assertFalse(set.contains(b));
+        assertEquals(2, set.size());
+        assertEquals(Arrays.asList(a, c), set);
+        assertEquals(1, set.indexOf(c));
+        assertEquals(-1, set.indexOf(b));
+
+        assertTrue(set.toggle(b));
+        assertEquals(Arrays.asList(a, c, b), set);
+        assertEquals(2, set.indexOf(listing("2")));
+
+        set.remove(a);
+        set.remove(c);
+        assertEquals(Collections.singletonList(b), set);
+        assertEquals(0, set.indexOf(b));
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+}
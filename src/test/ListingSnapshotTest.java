@@ -0,0 +1,146 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingSnapshotTest {
+
+    private static final String[] NAMES = {"Flat", "Café near the Thames", "Room with a \"view\"", "",
+            "Two lines\nof name", "Zimmer für zwei 🏠"};
+    private static final String[] ROOM_TYPES = {"Entire home/apt", "Private room", "Shared room"};
+
+    @TempDir
+    Path directory;
+
+    private Path csvFile;
+    private ListingSnapshot snapshot;
+
+    @BeforeEach
+    void writeCsv() throws IOException {
+        // only the size and modification time of the csv matter to the snapshot
+        csvFile = directory.resolve("listings.csv");
+        Files.write(csvFile, "id,name\n1,Flat\n".getBytes(StandardCharsets.UTF_8));
+        snapshot = ListingSnapshot.inDirectory(csvFile, directory.resolve("cache"));
+    }
+
+    /**
+     * Create a table with a value of every kind in every column, including
+     * missing dates and numbers, and names longer than the read buffer.
+     */
+    private static ListingTable randomTable(Random random, int size) {
+        ListingTable.Builder builder = new ListingTable.Builder(size);
+        for (int row = 0; row < size; row++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + row;
+            if (random.nextInt(50) == 0) {
+                name = name.repeat(100);
+            }
+            builder.add(Integer.toString(row * 7), name, Integer.toString(random.nextInt(90)),
+                    "Host " + random.nextInt(70), "Borough " + random.nextInt(30),
+                    51.3 + random.nextDouble() * 0.4, -0.5 + random.nextDouble() * 0.8,
+                    ROOM_TYPES[random.nextInt(ROOM_TYPES.length)], random.nextInt(500),
+                    random.nextInt(10) == 0 ? -1 : 1 + random.nextInt(30), random.nextInt(200),
+                    random.nextBoolean() ? FieldParser.NO_DATE : 15000 + random.nextInt(3000),
+                    random.nextInt(10) == 0 ? -1 : random.nextDouble() * 5, 1 + random.nextInt(20),
+                    random.nextInt(366));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compare every column, and the distinct values of the coded columns.
+     */
+    private static void assertTablesEqual(ListingTable expected, ListingTable actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(TestTables.columns(expected), TestTables.columns(actual));
+        assertEquals(expected.getHostIdCount(), actual.getHostIdCount());
+        assertEquals(expected.getHostNameCount(), actual.getHostNameCount());
+        assertEquals(expected.getNeighbourhoodCount(), actual.getNeighbourhoodCount());
+        assertEquals(expected.getRoomTypeCount(), actual.getRoomTypeCount());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getHostIdCode(row), actual.getHostIdCode(row));
+            assertEquals(expected.getHostNameCode(row), actual.getHostNameCode(row));
+            assertEquals(expected.getNeighbourhoodCode(row), actual.getNeighbourhoodCode(row));
+            assertEquals(expected.getRoomTypeCode(row), actual.getRoomTypeCode(row));
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        assertNull(snapshot.read());
+
+        ListingTable table = randomTable(new Random(3), 2000);
+        snapshot.write(table);
+        assertTablesEqual(table, snapshot.read());
+
+        // written again over the old snapshot
+        ListingTable smaller = randomTable(new Random(4), 10);
+        snapshot.write(smaller);
+        assertTablesEqual(smaller, snapshot.read());
+
+        snapshot.write(ListingTable.empty());
+        assertEquals(0, snapshot.read().size());
+    }
+
+    @Test
+    void csvChanged() throws IOException {
+        snapshot.write(randomTable(new Random(5), 100));
+        FileTime modified = Files.getLastModifiedTime(csvFile);
+
+        // touched, with the same content
+        Files.setLastModifiedTime(csvFile, FileTime.fromMillis(modified.toMillis() + 2000));
+        assertNull(snapshot.read());
+        Files.setLastModifiedTime(csvFile, modified);
+        assertNotNull(snapshot.read());
+
+        // a row added, with the old modification time
+        Files.write(csvFile, "2,Room\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(csvFile, modified);
+        assertNull(snapshot.read());
+    }
+
+    @Test
+    void damagedSnapshot() throws IOException {
+        snapshot.write(randomTable(new Random(6), 100));
+        Path file = snapshot.getSnapshotFile();
+        byte[] written = Files.readAllBytes(file);
+
+        // a byte of the content flipped
+        byte[] flipped = written.clone();
+        flipped[flipped.length / 2] ^= 0x10;
+        Files.write(file, flipped);
+        assertNull(snapshot.read());
+
+        // cut short
+        Files.write(file, Arrays.copyOf(written, written.length - 8));
+        assertNull(snapshot.read());
+        Files.write(file, Arrays.copyOf(written, 12));
+        assertNull(snapshot.read());
+
+        Files.write(file, written);
+        assertNotNull(snapshot.read());
+    }
+
+    @Test
+    void otherVersion() throws IOException {
+        snapshot.write(randomTable(new Random(7), 100));
+        // the version follows the magic number at the start of the header
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.getSnapshotFile().toFile(), "rw")) {
+            file.seek(4);
+            int version = file.readInt();
+            file.seek(4);
+            file.writeInt(version + 1);
+        }
+        assertNull(snapshot.read());
+    }
+}
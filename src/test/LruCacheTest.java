@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        LruCache<String, String> cache = new LruCache<>(100, String::length);
+        assertEquals("a", cache.get("a", key -> key));
+        assertEquals("a", cache.get("a", key -> fail("cached value loaded again")));
+        assertNull(cache.get("missing", key -> null));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(10, String::length);
+        cache.get("aaaa", key -> key);
+        cache.get("bbbb", key -> key);
+        // using the first value makes the second the least recently used
+        cache.get("aaaa", key -> key);
+        cache.get("cccc", key -> key);
+        assertEquals(2, cache.getCount());
+        assertEquals(8, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("aaaa", cache.get("aaaa", key -> fail("value evicted")));
+        int misses = (int) cache.getMissCount();
+        cache.get("bbbb", key -> key);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    void keepsValueLargerThanCapacity() {
+        LruCache<String, String> cache = new LruCache<>(4, String::length);
+        cache.get("ab", key -> key);
+        assertEquals("abcdefgh", cache.get("abcdefgh", key -> key));
+        assertEquals(1, cache.getCount());
+        assertEquals(8, cache.getSize());
+        cache.get("cd", key -> key);
+        assertEquals(1, cache.getCount());
+        assertEquals(2, cache.getSize());
+    }
+}
@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NavigationCursorTest {
+
+    // the ordering the cursor reads, as the list controller would give it
+    private List<Listing> ordering;
+
+    @Test
+    void followsTheOrdering() {
+        ListingRows rows = TestTables.build(10, (listing, row) -> listing.price = 100 - row).rows();
+        ordering = rows;
+        NavigationCursor cursor = new NavigationCursor(() -> ordering, rows.get(3));
+        assertEquals(3, cursor.getPosition());
+        assertEquals(rows.get(4), cursor.next());
+        assertEquals(rows.get(3), cursor.previous());
+
+        // sorted by ascending price, the listings are in reverse
+        ordering = new PagedOrdering(rows, SortIndex.Key.PRICE, true, 4);
+        assertEquals(6, cursor.getPosition());
+        assertEquals(rows.get(2), cursor.next());
+        assertEquals(rows.get(1), cursor.next());
+        assertEquals(rows.get(0), cursor.next());
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+
+        // a listing removed from a list changed in place
+        ordering = new ArrayList<>(rows);
+        assertEquals(0, cursor.getPosition());
+        ordering.remove(0);
+        assertEquals(-1, cursor.getPosition());
+        assertFalse(cursor.hasNext());
+        assertFalse(cursor.hasPrevious());
+    }
+}
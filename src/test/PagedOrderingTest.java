@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedOrderingTest {
+
+    @Test
+    void pagesMatchAFullSort() {
+        Random random = new Random(5);
+        List<Listing> listings = new ArrayList<>(TestTables.random(random, 3000).rows());
+        Collections.shuffle(listings, random);
+
+        for (boolean ascending : new boolean[]{true, false}) {
+            List<Listing> expected = Sorter.sortByPrice(listings, ascending);
+            for (int pageSize : new int[]{1, 32, 100}) {
+                PagedOrdering ordering = new PagedOrdering(listings, SortIndex.Key.PRICE, ascending, pageSize);
+                int pages = (listings.size() + pageSize - 1) / pageSize;
+                // forwards from the start, then anywhere
+                for (int page = 0; page < 5; page++) {
+                    int start = page * pageSize;
+                    assertEquals(expected.subList(start, start + pageSize), ordering.getPage(page));
+                }
+                for (int i = 0; i < 30; i++) {
+                    int page = random.nextInt(pages);
+                    int start = page * pageSize;
+                    assertEquals(expected.subList(start, Math.min(listings.size(), start + pageSize)), ordering.getPage(page));
+                }
+                assertTrue(ordering.getPage(pages).isEmpty());
+                assertEquals(expected, ordering);
+            }
+            assertEquals(Sorter.sortByHostName(listings, ascending),
+                    new PagedOrdering(listings, SortIndex.Key.HOST_NAME, ascending, 16));
+        }
+    }
+
+    @Test
+    void indexOfWithoutSorting() {
+        Random random = new Random(8);
+        ListingRows rows = TestTables.random(random, 2000).rows();
+        List<Listing> expected = Sorter.sortByPrice(rows, false);
+        // not table rows, so the ordering is not picked out of the permutation up front
+        PagedOrdering ordering = new PagedOrdering(new ArrayList<>(rows), SortIndex.Key.PRICE, false, 32);
+        for (int i = 0; i < 50; i++) {
+            Listing listing = rows.get(random.nextInt(rows.size()));
+            assertEquals(expected.indexOf(listing), ordering.indexOf(listing));
+            // reading pages in between leaves the positions the same
+            ordering.getPage(random.nextInt(10));
+        }
+        assertEquals(-1, ordering.indexOf(new Listing("x", "", "", "", "", 0, 0, "", 0, 0, 0, "", 0, 0, 0)));
+    }
+
+    @Test
+    void tableRowsPickedOutOfThePermutation() {
+        ListingTable table = TestTables.random(new Random(6), 3000);
+
+        // a large subset in table order is ordered whole, a small one page by page
+        for (int size : new int[]{3000, 1200, 40}) {
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = (int) ((long) i * table.size() / size);
+            }
+            ListingRows subset = new ListingRows(table, rows, 0, size);
+            List<Listing> copy = new ArrayList<>(subset);
+            for (boolean ascending : new boolean[]{true, false}) {
+                PagedOrdering ordering = new PagedOrdering(subset, SortIndex.Key.PRICE, ascending, 32);
+                List<Listing> expected = Sorter.sortByPrice(copy, ascending);
+                assertEquals(expected.subList(0, Math.min(size, 32)), ordering.getPage(0));
+                assertEquals(expected, ordering);
+                Listing listing = subset.get(size / 2);
+                assertEquals(expected.indexOf(listing), ordering.indexOf(listing));
+                assertEquals(Sorter.sortByHostName(copy, ascending),
+                        new PagedOrdering(subset, SortIndex.Key.HOST_NAME, ascending, 16));
+            }
+        }
+    }
+}
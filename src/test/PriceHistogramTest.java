@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceHistogramTest {
+
+    @Test
+    void totalsOfRanges() {
+        Random random = new Random(4);
+        String[] neighbourhoods = {"Camden", "Hackney", "Islington", "Brent"};
+        ListingTable table = TestTables.build(3000, (listing, row) -> {
+            listing.neighbourhood = neighbourhoods[random.nextInt(4)];
+            listing.price = random.nextInt(200);
+            listing.minimumNights = 1 + random.nextInt(5);
+            listing.reviews = random.nextInt(50);
+        });
+        PriceIndex priceIndex = new PriceIndex(table);
+        PriceHistogram counts = new PriceHistogram(priceIndex, table.getNeighbourhoodCount(), table::getNeighbourhoodCode);
+        PriceHistogram reviews = new PriceHistogram(priceIndex, table.getNeighbourhoodCount(),
+                table::getNeighbourhoodCode, table::getNumberOfReviews);
+
+        for (int query = 0; query < 200; query++) {
+            int minPrice = random.nextInt(220) - 10;
+            int maxPrice = random.nextInt(220) - 10;
+            long[] expectedCounts = new long[table.getNeighbourhoodCount()];
+            long[] expectedReviews = new long[table.getNeighbourhoodCount()];
+            for (int row = 0; row < table.size(); row++) {
+                if (table.getPrice(row) >= minPrice && table.getPrice(row) <= maxPrice) {
+                    expectedCounts[table.getNeighbourhoodCode(row)]++;
+                    expectedReviews[table.getNeighbourhoodCode(row)] += table.getNumberOfReviews(row);
+                }
+            }
+            assertArrayEquals(expectedCounts, counts.getTotals(minPrice, maxPrice, new long[4]));
+            for (int code = 0; code < 4; code++) {
+                assertEquals(expectedReviews[code], reviews.getTotal(code, minPrice, maxPrice));
+            }
+        }
+    }
+
+    @Test
+    void rangeSummary(@TempDir Path cacheDirectory) {
+        // the statistics read off the histograms are those of the engine
+        DataSet dataset = new DataSet("test-dataset", cacheDirectory);
+        RangeSummary summary = dataset.getIndexes().getSummary();
+        StatisticsEngine engine = new StatisticsEngine(dataset.getTable(), dataset.getPriceIndex(),
+                dataset.getSecondaryIndex(), dataset.getSpatialIndex(), dataset.getAttractionsDataSet());
+        int[][] ranges = {{0, 1000}, {23, 23}, {25, 49}, {60, 10}};
+        for (int[] range : ranges) {
+            engine.setPriceRange(range[0], range[1]);
+            assertEquals(engine.getAvailableProperties(), summary.getCount(range[0], range[1]));
+            assertEquals(engine.getAverageReviews(), summary.getAverageReviews(range[0], range[1]), 1e-9);
+            assertEquals(engine.getEntireHomes(), summary.getEntireHomes(range[0], range[1]));
+            assertEquals(engine.getMostExpensiveBorough(), summary.getMostExpensiveBorough(range[0], range[1]));
+        }
+    }
+}
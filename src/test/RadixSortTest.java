@@ -0,0 +1,39 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixSortTest {
+
+    /**
+     * The positions of the keys sorted by a comparison sort, which is stable.
+     */
+    private static int[] expectedOrder(int[] keys, boolean ascending) {
+        return IntStream.range(0, keys.length).boxed()
+                .sorted((a, b) -> ascending ? Integer.compare(keys[a], keys[b]) : Integer.compare(keys[b], keys[a]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void sortStably() {
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        // small and large inputs, with few and many distinct keys
+        for (int size : new int[]{0, 1, 20, 1000, 200_000}) {
+            for (int bound : new int[]{1, 7, 10_000}) {
+                int[] keys = random.ints(size, 0, bound).toArray();
+                assertArrayEquals(expectedOrder(keys, true), RadixSort.order(keys, true, pool));
+                assertArrayEquals(expectedOrder(keys, false), RadixSort.order(keys, false, pool));
+            }
+        }
+        int[] extremes = {5, Integer.MIN_VALUE, -3, Integer.MAX_VALUE, 0, -3, Integer.MIN_VALUE};
+        assertArrayEquals(expectedOrder(extremes, true), RadixSort.order(extremes, true, pool));
+        int[] wide = random.ints(500, Integer.MIN_VALUE, Integer.MAX_VALUE).toArray();
+        assertArrayEquals(expectedOrder(wide, true), RadixSort.order(wide, true, pool));
+        assertArrayEquals(expectedOrder(wide, false), RadixSort.order(wide, false, pool));
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowBitmapTest {
+
+    /**
+     * Create random rows over three containers: a sparse one stored as an
+     * array, a dense one stored as a bitset, and a partly filled one.
+     */
+    private static int[] randomRows(Random random, double[] densities) {
+        BitSet set = new BitSet();
+        for (int container = 0; container < densities.length; container++) {
+            for (int low = 0; low < 65536; low++) {
+                if (random.nextDouble() < densities[container]) {
+                    set.set((container << 16) | low);
+                }
+            }
+        }
+        return set.stream().toArray();
+    }
+
+    private static BitSet toBitSet(int[] rows) {
+        BitSet set = new BitSet();
+        for (int row : rows) {
+            set.set(row);
+        }
+        return set;
+    }
+
+    @Test
+    void ofAndToArray() {
+        int[] rows = {70000, 3, 5, 3, 131072, 0};
+        RowBitmap bitmap = RowBitmap.of(rows, 0, rows.length);
+        assertArrayEquals(new int[]{0, 3, 5, 70000, 131072}, bitmap.toArray());
+        assertEquals(5, bitmap.cardinality());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(4));
+        assertTrue(RowBitmap.of(rows, 0, 0).isEmpty());
+    }
+
+    @Test
+    void andAndOr() {
+        Random random = new Random(7);
+        int[] first = randomRows(random, new double[]{0.01, 0.5, 0.08});
+        int[] second = randomRows(random, new double[]{0.6, 0.02, 0.07});
+        RowBitmap a = RowBitmap.ofSorted(first, 0, first.length);
+        RowBitmap b = RowBitmap.ofSorted(second, 0, second.length);
+
+        BitSet expectedAnd = toBitSet(first);
+        expectedAnd.and(toBitSet(second));
+        assertArrayEquals(expectedAnd.stream().toArray(), a.and(b).toArray());
+        assertArrayEquals(expectedAnd.stream().toArray(), b.and(a).toArray());
+        assertEquals(expectedAnd.cardinality(), a.andCardinality(b));
+
+        BitSet expectedOr = toBitSet(first);
+        expectedOr.or(toBitSet(second));
+        assertArrayEquals(expectedOr.stream().toArray(), a.or(b).toArray());
+        assertEquals(expectedOr.cardinality(), b.or(a).cardinality());
+
+        assertTrue(a.and(RowBitmap.empty()).isEmpty());
+        assertArrayEquals(first, a.or(RowBitmap.empty()).toArray());
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortIndexTest {
+
+    private static <T extends Comparable<T>> void assertSorted(ListingRows rows, SortIndex.Key key,
+                                                               Function<Listing, T> attribute) {
+        SortIndex index = rows.getTable().getSortIndex();
+        List<Listing> copy = new ArrayList<>(rows);
+        assertEquals(copy.stream().sorted(Comparator.comparing(attribute)).collect(Collectors.toList()),
+                index.sort(rows, key, true), key + " ascending");
+        assertEquals(copy.stream().sorted(Comparator.comparing(attribute).reversed()).collect(Collectors.toList()),
+                index.sort(rows, key, false), key + " descending");
+    }
+
+    private static void assertAllKeysSorted(ListingRows rows) {
+        assertSorted(rows, SortIndex.Key.PRICE, Listing::getPrice);
+        assertSorted(rows, SortIndex.Key.MINIMUM_PRICE, Listing::getMinimumPrice);
+        assertSorted(rows, SortIndex.Key.MINIMUM_NIGHTS, Listing::getMinimumNights);
+        assertSorted(rows, SortIndex.Key.REVIEWS, Listing::getNumberOfReviews);
+        assertSorted(rows, SortIndex.Key.HOST_NAME, Listing::getHost_name);
+        assertSorted(rows, SortIndex.Key.HOST_ID, Listing::getHost_id);
+        assertSorted(rows, SortIndex.Key.NEIGHBOURHOOD, Listing::getNeighbourhood);
+    }
+
+    @Test
+    void sortLikeAStableSort() {
+        Random random = new Random(3);
+        ListingTable table = TestTables.random(random, 2000);
+
+        // the whole table
+        assertAllKeysSorted(table.rows());
+
+        // large and small subsets in table order, and in no order
+        for (int size : new int[]{1500, 40, 1, 0}) {
+            List<Integer> rows = new ArrayList<>();
+            for (int row = 0; row < table.size(); row++) {
+                rows.add(row);
+            }
+            Collections.shuffle(rows, random);
+            int[] shuffled = rows.subList(0, size).stream().mapToInt(Integer::intValue).toArray();
+            int[] ordered = shuffled.clone();
+            Arrays.sort(ordered);
+            assertAllKeysSorted(new ListingRows(table, ordered, 0, size));
+            assertAllKeysSorted(new ListingRows(table, shuffled, 0, size));
+        }
+    }
+}
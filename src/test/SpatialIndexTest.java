@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+    // queries inside the listings, and outside the grid on each side
+    private static final double[][] OUTSIDE = {
+            {51.0, -0.1}, {52.0, -0.1}, {51.5, -1.5}, {51.5, 1.0}, {50.5, -2.0}, {52.5, 1.5}
+    };
+
+    /**
+     * Create a table of listings spread evenly over London.
+     */
+    private static ListingTable uniformTable(Random random, int size) {
+        return TestTables.build(size, (listing, row) -> {
+            listing.latitude = 51.3 + random.nextDouble() * 0.4;
+            listing.longitude = -0.5 + random.nextDouble() * 0.8;
+        });
+    }
+
+    /**
+     * Create a table of two tight clusters about 20 km apart, with a few
+     * listings scattered between them, so most cells are empty.
+     */
+    private static ListingTable clusteredTable(Random random) {
+        return TestTables.build(410, (listing, row) -> {
+            if (row < 200) {
+                listing.latitude = 51.50 + random.nextGaussian() * 0.002;
+                listing.longitude = -0.30 + random.nextGaussian() * 0.003;
+            }
+            else if (row < 400) {
+                listing.latitude = 51.55 + random.nextGaussian() * 0.002;
+                listing.longitude = -0.02 + random.nextGaussian() * 0.003;
+            }
+            else {
+                listing.latitude = 51.45 + random.nextDouble() * 0.15;
+                listing.longitude = -0.35 + random.nextDouble() * 0.4;
+            }
+        });
+    }
+
+    private static Distance.Points points(ListingTable table) {
+        double[] latitudes = new double[table.size()];
+        double[] longitudes = new double[table.size()];
+        for (int row = 0; row < table.size(); row++) {
+            latitudes[row] = table.getLatitude(row);
+            longitudes[row] = table.getLongitude(row);
+        }
+        return new Distance.Points(latitudes, longitudes);
+    }
+
+    /**
+     * Compare the index with a scan over every listing.
+     */
+    private static void assertMatchesScan(ListingTable table, SpatialIndex index, double latitude, double longitude) {
+        Distance.Points points = points(table);
+        double[] exact = new double[table.size()];
+        double[] fast = new double[table.size()];
+        points.distances(latitude, longitude, Distance.Mode.EXACT, exact);
+        points.distances(latitude, longitude, Distance.Mode.FAST, fast);
+        String query = latitude + ", " + longitude;
+
+        for (double radius : new double[]{0, 0.2, 1, 3, 10, 200}) {
+            int[] expected = IntStream.range(0, table.size()).filter(row -> exact[row] <= radius).toArray();
+            assertArrayEquals(expected, index.withinRadius(latitude, longitude, radius), query + " within " + radius);
+            int[] expectedFast = IntStream.range(0, table.size()).filter(row -> fast[row] <= radius).toArray();
+            assertArrayEquals(expectedFast, index.withinRadius(latitude, longitude, radius, Distance.Mode.FAST),
+                    query + " within " + radius + " fast");
+        }
+
+        // nearest first, the lower row first on equal distances
+        int[] byDistance = IntStream.range(0, table.size()).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(row -> exact[row]).thenComparingInt(row -> row))
+                .mapToInt(Integer::intValue).toArray();
+        for (int k : new int[]{0, 1, 2, 10, 150, 250, table.size(), table.size() + 5}) {
+            int[] expected = Arrays.copyOf(byDistance, Math.min(k, table.size()));
+            assertArrayEquals(expected, index.nearest(latitude, longitude, k), query + " nearest " + k);
+        }
+    }
+
+    @Test
+    void uniformListings() {
+        Random random = new Random(5);
+        ListingTable table = uniformTable(random, 3000);
+        SpatialIndex index = new SpatialIndex(table);
+        for (int i = 0; i < 20; i++) {
+            assertMatchesScan(table, index, 51.3 + random.nextDouble() * 0.4, -0.5 + random.nextDouble() * 0.8);
+        }
+        // exactly on a listing
+        assertMatchesScan(table, index, table.getLatitude(17), table.getLongitude(17));
+        // the cells are clamped to the edge of the grid
+        for (double[] query : OUTSIDE) {
+            assertMatchesScan(table, index, query[0], query[1]);
+        }
+    }
+
+    @Test
+    void clusteredListings() {
+        Random random = new Random(11);
+        ListingTable table = clusteredTable(random);
+        SpatialIndex index = new SpatialIndex(table);
+        // within a cluster, the nearest beyond its 200 listings are many empty rings of cells away
+        assertMatchesScan(table, index, 51.50, -0.30);
+        assertMatchesScan(table, index, 51.55, -0.02);
+        // between the clusters, where the first rings are empty
+        assertMatchesScan(table, index, 51.525, -0.16);
+        for (int i = 0; i < 10; i++) {
+            assertMatchesScan(table, index, 51.45 + random.nextDouble() * 0.15, -0.35 + random.nextDouble() * 0.4);
+        }
+        for (double[] query : OUTSIDE) {
+            assertMatchesScan(table, index, query[0], query[1]);
+        }
+    }
+
+    @Test
+    void emptyTable() {
+        SpatialIndex index = new SpatialIndex(ListingTable.empty());
+        assertEquals(0, index.withinRadius(51.5, -0.1, 10).length);
+        assertEquals(0, index.nearest(51.5, -0.1, 5).length);
+    }
+}
@@ -0,0 +1,212 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsEngineTest {
+
+    private static final String[] NEIGHBOURHOODS = {"Camden", "Hackney", "Islington", "Brent", "City of London"};
+    private static final String[] ROOM_TYPES = {"Entire home/apt", "Private room", "Shared room"};
+    private static final String[] NAMES = {"Flat", "Garden flat", "Room with a balcony", "Terrace house",
+            "Studio", "Loft with roof TERRACE and garden"};
+    private static final String[] GARDEN_WORDS = {"garden", "terrace", "balcony"};
+
+    /**
+     * Create a table with many listings of equal price, and a few hosts
+     * with many listings each.
+     */
+    private static ListingTable randomTable(Random random, int size) {
+        return TestTables.build(size, (listing, row) -> {
+            int host = random.nextInt(60);
+            listing.name = NAMES[random.nextInt(NAMES.length)] + " " + row;
+            listing.hostId = Integer.toString(1000 + host);
+            listing.hostName = "Host " + host;
+            listing.neighbourhood = NEIGHBOURHOODS[random.nextInt(NEIGHBOURHOODS.length)];
+            listing.latitude = 51.45 + random.nextDouble() * 0.1;
+            listing.longitude = -0.2 + random.nextDouble() * 0.2;
+            listing.roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            listing.price = 10 + random.nextInt(300);
+            listing.minimumNights = 1 + random.nextInt(7);
+            listing.reviews = random.nextInt(4) == 0 ? 0 : random.nextInt(80);
+        });
+    }
+
+    private static List<Attraction> attractions() {
+        List<Attraction> attractions = new ArrayList<>();
+        attractions.add(new Attraction("British Museum", 51.519, -0.127));
+        attractions.add(new Attraction("Tower Bridge", 51.505, -0.075));
+        attractions.add(new Attraction("Kew Gardens", 51.478, -0.296));
+        attractions.add(new Attraction("Nowhere", 40.0, 0.0));
+        return attractions;
+    }
+
+    private static List<String> ids(List<Listing> listings) {
+        return listings.stream().map(Listing::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Compare every statistic of the engine with the same statistic worked
+     * out from scratch over the listings of the price range.
+     */
+    private static void assertMatchesRange(StatisticsEngine engine, ListingTable table, PriceIndex priceIndex,
+                                           List<Attraction> attractions, int minPrice, int maxPrice) {
+        String range = minPrice + " to " + maxPrice;
+        ListingRows listings = priceIndex.range(minPrice, maxPrice);
+        int[] rows = new int[listings.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = listings.rowAt(i);
+        }
+
+        assertEquals(rows.length, engine.getAvailableProperties(), range);
+
+        long reviews = 0;
+        int entireHomes = 0;
+        for (int row : rows) {
+            reviews += table.getNumberOfReviews(row);
+            if (table.getRoomType(row).equals("Entire home/apt")) {
+                entireHomes++;
+            }
+        }
+        assertEquals(rows.length > 0 ? reviews / (double) rows.length : 0, engine.getAverageReviews(), range);
+        assertEquals(entireHomes, engine.getEntireHomes(), range);
+
+        // weighted by the minimum number of nights, the first neighbourhood code on equal averages
+        long[] priceNights = new long[table.getNeighbourhoodCount()];
+        long[] nights = new long[table.getNeighbourhoodCount()];
+        for (int row : rows) {
+            priceNights[table.getNeighbourhoodCode(row)] += (long) table.getPrice(row) * table.getMinimumNights(row);
+            nights[table.getNeighbourhoodCode(row)] += table.getMinimumNights(row);
+        }
+        String mostExpensive = null;
+        double highestAverage = 0;
+        for (int code = 0; code < nights.length; code++) {
+            if (nights[code] > 0 && (mostExpensive == null || priceNights[code] / (double) nights[code] > highestAverage)) {
+                mostExpensive = table.getNeighbourhoodValue(code);
+                highestAverage = priceNights[code] / (double) nights[code];
+            }
+        }
+        assertEquals(mostExpensive, engine.getMostExpensiveBorough(), range);
+
+        // the lowest host id on equal numbers of reviews, none if no listing has reviews
+        long[] hostReviews = new long[table.getHostIdCount()];
+        for (int row : rows) {
+            hostReviews[table.getHostIdCode(row)] += table.getNumberOfReviews(row);
+        }
+        int mostReviewed = -1;
+        for (int code = 0; code < hostReviews.length; code++) {
+            if (hostReviews[code] > 0 && (mostReviewed == -1 || hostReviews[code] > hostReviews[mostReviewed]
+                    || (hostReviews[code] == hostReviews[mostReviewed]
+                    && table.getHostIdValue(code).compareTo(table.getHostIdValue(mostReviewed)) < 0))) {
+                mostReviewed = code;
+            }
+        }
+        assertEquals(mostReviewed, engine.getMostReviewedHost(), range);
+        if (mostReviewed >= 0) {
+            List<String> expected = new ArrayList<>();
+            for (int row : rows) {
+                if (table.getHostIdCode(row) == mostReviewed) {
+                    expected.add(table.getId(row));
+                }
+            }
+            assertEquals(expected, ids(engine.getHostListings(mostReviewed)), range);
+        }
+
+        for (String word : GARDEN_WORDS) {
+            List<String> expected = new ArrayList<>();
+            for (int row : rows) {
+                if (table.getName(row).toLowerCase().contains(word)) {
+                    expected.add(table.getId(row));
+                }
+            }
+            assertEquals(expected.size(), engine.getGardenProperties(word), range + " " + word);
+            assertEquals(expected, ids(engine.getGardenListings(word)), range + " " + word);
+        }
+
+        // the first entire home of the borough in price order
+        for (String borough : NEIGHBOURHOODS) {
+            int expected = -1;
+            for (int row : rows) {
+                if (table.getNeighbourhood(row).equals(borough) && table.getRoomType(row).equals("Entire home/apt")) {
+                    expected = row;
+                    break;
+                }
+            }
+            assertEquals(expected, engine.getCheapestEntireHome(borough), range + " " + borough);
+        }
+
+        for (Attraction attraction : attractions) {
+            List<String> expected = new ArrayList<>();
+            for (int row : rows) {
+                double distance = Distance.calculateDistance(table.getLatitude(row), table.getLongitude(row),
+                        attraction.getLatitude(), attraction.getLongitude());
+                if (distance <= engine.getAttractionDistance()) {
+                    expected.add(table.getId(row));
+                }
+            }
+            assertEquals(expected.size(), engine.getAttractionProperties(attraction.getName()),
+                    range + " " + attraction.getName());
+            assertEquals(expected, ids(engine.getAttractionListings(attraction.getName())),
+                    range + " " + attraction.getName());
+        }
+    }
+
+    /**
+     * Move the range of an engine up, down, across, wider, narrower and
+     * to nothing, checking every statistic after each move.
+     */
+    private static void assertMovesMatchRanges(ListingTable table, ForkJoinPool pool) {
+        PriceIndex priceIndex = new PriceIndex(table);
+        List<Attraction> attractions = attractions();
+        StatisticsEngine engine = new StatisticsEngine(table, priceIndex, new SecondaryIndex(table),
+                new SpatialIndex(table), attractions, pool);
+        int[][] ranges = {
+                {50, 100},
+                // up, overlapping
+                {80, 150},
+                // down, overlapping
+                {20, 60},
+                // across, not overlapping
+                {200, 300},
+                {0, 40},
+                // wider and narrower on both sides
+                {0, 1000},
+                {100, 101},
+                // a single price, then none
+                {150, 150},
+                {120, 110},
+                {-50, 5},
+                {30, 250}
+        };
+        for (int[] range : ranges) {
+            engine.setPriceRange(range[0], range[1]);
+            assertMatchesRange(engine, table, priceIndex, attractions, range[0], range[1]);
+        }
+
+        // the attractions are located again at the new distance
+        engine.setAttractionDistance(2.5);
+        assertMatchesRange(engine, table, priceIndex, attractions, 30, 250);
+        engine.setPriceRange(60, 90);
+        assertMatchesRange(engine, table, priceIndex, attractions, 60, 90);
+    }
+
+    @Test
+    void movesMatchRanges() {
+        assertMovesMatchRanges(randomTable(new Random(9), 3000), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void parallelMovesMatchRanges() {
+        // large enough for the passes to be split over the pool
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertMovesMatchRanges(randomTable(new Random(13), 40000), pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
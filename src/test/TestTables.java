@@ -0,0 +1,87 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Builds tables of listings for the tests. Every listing starts as a
+ * private room in Camden, and a test only sets the attributes it is about.
+ */
+class TestTables {
+
+    private static final String[] HOST_NAMES = {"Maria", "Anas", "Hannah", "Dafina", "anna", "Zoe"};
+    private static final String[] NEIGHBOURHOODS = {"Westminster", "Camden", "Hackney", "City of London"};
+
+    /**
+     * The attributes of the listing of a row, whose id is the row number.
+     */
+    static class Attributes {
+        String name;
+        String hostId = "host";
+        String hostName = "Host";
+        String neighbourhood = "Camden";
+        double latitude = 51.5;
+        double longitude = -0.1;
+        String roomType = "Private room";
+        int price = 50;
+        int minimumNights = 1;
+        int reviews = 0;
+    }
+
+    /**
+     * Build a table.
+     * @param size The number of listings.
+     * @param attributes Sets the attributes of the listing of each row.
+     * @return The table.
+     */
+    static ListingTable build(int size, ObjIntConsumer<Attributes> attributes) {
+        ListingTable.Builder builder = new ListingTable.Builder(size);
+        for (int row = 0; row < size; row++) {
+            Attributes listing = new Attributes();
+            listing.name = "Listing " + row;
+            attributes.accept(listing, row);
+            builder.add(Integer.toString(row), listing.name, listing.hostId, listing.hostName, listing.neighbourhood,
+                    listing.latitude, listing.longitude, listing.roomType, listing.price, listing.minimumNights,
+                    listing.reviews, "", 0, 1, 0);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a table with few distinct values per sortable column, so many
+     * listings have equal keys.
+     * @param random The source of the values.
+     * @param size The number of listings.
+     * @return The table.
+     */
+    static ListingTable random(Random random, int size) {
+        return build(size, (listing, row) -> {
+            listing.hostId = Integer.toString(random.nextInt(40));
+            listing.hostName = HOST_NAMES[random.nextInt(HOST_NAMES.length)];
+            listing.neighbourhood = NEIGHBOURHOODS[random.nextInt(NEIGHBOURHOODS.length)];
+            listing.price = 10 + random.nextInt(50);
+            listing.minimumNights = 1 + random.nextInt(5);
+            listing.reviews = random.nextInt(10);
+        });
+    }
+
+    /**
+     * Every column of every row, to compare two tables.
+     * @param table The table.
+     * @return A line per row, holding its columns.
+     */
+    static List<String> columns(ListingTable table) {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < table.size(); row++) {
+            rows.add(String.join("|", table.getId(row), table.getName(row), table.getHostId(row),
+                    table.getHostName(row), table.getNeighbourhood(row), Double.toString(table.getLatitude(row)),
+                    Double.toString(table.getLongitude(row)), table.getRoomType(row),
+                    Integer.toString(table.getPrice(row)), Integer.toString(table.getMinimumNights(row)),
+                    Integer.toString(table.getNumberOfReviews(row)), Integer.toString(table.getLastReviewDay(row)),
+                    Double.toString(table.getReviewsPerMonth(row)),
+                    Integer.toString(table.getCalculatedHostListingsCount(row)),
+                    Integer.toString(table.getAvailability365(row))));
+        }
+        return rows;
+    }
+}